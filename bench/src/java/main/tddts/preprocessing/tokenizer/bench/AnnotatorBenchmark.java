@@ -0,0 +1,144 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer.bench;
+
+// Java dependencies
+import java.util.concurrent.TimeUnit;
+// JMH dependencies
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+// UIMA dependencies
+import org.apache.uima.UIMAFramework;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.Type;
+import org.apache.uima.resource.metadata.ConfigurationParameterSettings;
+import org.apache.uima.util.XMLInputSource;
+// Tokenizer dependencies
+import tddts.preprocessing.tokenizer.FrenchUnicodeTokenizer;
+
+/**
+ * Measures FrenchUnicodeTokenizer.process on a real CAS, the annotator being
+ * instantiated from its descriptor. The CAS is reset and filled with the
+ * document before each invocation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class AnnotatorBenchmark {
+
+	/** Descriptor of the annotator, in the classpath */
+	public static final String DESCRIPTOR =
+		"/tddts/preprocessing/ae/FrenchUnicodeTokenizer-AE.xml";
+
+	/** Length of the document : 1 KB, 64 KB, 1 MB and 100 MB */
+	@Param({"1024", "65536", "1048576", "104857600"})
+	public int size;
+
+	/** Kind of text */
+	@Param({"prose", "financial", "dialogue", "nonlatin"})
+	public TextProfile profile;
+
+	/** Value of the UseCompiledAutomaton parameter */
+	@Param({"false", "true"})
+	public boolean compiled;
+
+	/** Value of the UseLowLevelCas parameter */
+	@Param({"false", "true"})
+	public boolean lowLevel;
+
+	private String text;
+
+	private AnalysisEngine engine;
+
+	private CAS cas;
+
+	private Type tokenType;
+
+	/**
+	 * Chars and tokens processed, reported as rates by JMH.
+	 */
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	@State(Scope.Thread)
+	public static class Counters {
+		public long chars;
+		public long tokens;
+
+		@Setup(Level.Iteration)
+		public void clean() {
+			chars  = 0;
+			tokens = 0;
+		}
+	}
+
+	/**
+	 * Create the annotator from its descriptor, with the automaton and the
+	 * annotation writer being benchmarked.
+	 */
+	public static AnalysisEngine createEngine(boolean compiled,
+			boolean lowLevel) throws Exception {
+		XMLInputSource in = new XMLInputSource(
+				AnnotatorBenchmark.class.getResource(DESCRIPTOR));
+		AnalysisEngineDescription desc =
+			UIMAFramework.getXMLParser().parseAnalysisEngineDescription(in);
+		ConfigurationParameterSettings settings =
+			desc.getAnalysisEngineMetaData().getConfigurationParameterSettings();
+		settings.setParameterValue("UseCompiledAutomaton",
+				Boolean.valueOf(compiled));
+		settings.setParameterValue("UseLowLevelCas", Boolean.valueOf(lowLevel));
+		// On a single core whatever the size, so that the rates of all the
+		// sizes compare
+		settings.setParameterValue("ParallelThreshold", Integer.valueOf(0));
+		return UIMAFramework.produceAnalysisEngine(desc);
+	}
+
+	@Setup(Level.Trial)
+	public void prepare() throws Exception {
+		text = profile.generate(size);
+		engine = createEngine(compiled, lowLevel);
+		cas = engine.newCAS();
+		tokenType = cas.getTypeSystem().getType(FrenchUnicodeTokenizer.TOKEN_NAME);
+	}
+
+	@Setup(Level.Invocation)
+	public void fill() {
+		cas.reset();
+		cas.setDocumentText(text);
+	}
+
+	@TearDown(Level.Trial)
+	public void release() {
+		engine.destroy();
+	}
+
+	@Benchmark
+	public int process(Counters counters) throws Exception {
+		engine.process(cas);
+		int tokens = cas.getAnnotationIndex(tokenType).size();
+		counters.chars  += text.length();
+		counters.tokens += tokens;
+		return tokens;
+	}
+}
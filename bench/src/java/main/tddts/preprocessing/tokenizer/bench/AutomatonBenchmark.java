@@ -0,0 +1,197 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer.bench;
+
+// Java dependencies
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+// JMH dependencies
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+// Tokenizer dependencies
+import tddts.preprocessing.tokenizer.CompiledFrenchTokenizerAutomaton;
+import tddts.preprocessing.tokenizer.FrenchTokenizerAutomaton;
+import tddts.preprocessing.tokenizer.FrenchTokenizerAutomaton.Signal;
+import tddts.preprocessing.tokenizer.TokenSink;
+import tddts.preprocessing.tokenizer.TokenType;
+import tddts.preprocessing.tokenizer.Utf8FrenchTokenizer;
+import tddts.preprocessing.tokenizer.Utf8TokenSink;
+
+/**
+ * Measures the automaton alone, driven char by char with feedChar or over
+ * the whole buffer with tokenize. The chars and tokens counters give the
+ * chars/s and tokens/s rates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class AutomatonBenchmark {
+
+	/** Length of the document : 1 KB, 64 KB, 1 MB and 100 MB */
+	@Param({"1024", "65536", "1048576", "104857600"})
+	public int size;
+
+	/** Kind of text */
+	@Param({"prose", "financial", "dialogue", "nonlatin"})
+	public TextProfile profile;
+
+	/** Automaton implementation */
+	@Param({"reference", "compiled"})
+	public String automaton;
+
+	private char[] text;
+
+	private String textString;
+
+	private byte[] textBytes;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	private final Utf8FrenchTokenizer utf8Tokenizer = new Utf8FrenchTokenizer();
+
+	private FrenchTokenizerAutomaton theAutomaton;
+
+	/**
+	 * Chars and tokens processed, reported as rates by JMH.
+	 */
+	@AuxCounters(AuxCounters.Type.OPERATIONS)
+	@State(Scope.Thread)
+	public static class Counters implements TokenSink, Utf8TokenSink {
+		public long chars;
+		public long tokens;
+
+		@Setup(Level.Iteration)
+		public void clean() {
+			chars  = 0;
+			tokens = 0;
+		}
+
+		public void token(int begin, int end, TokenType type) {
+			tokens++;
+		}
+
+		public void token(int byteBegin, int byteEnd, int charBegin,
+				int charEnd, TokenType type) {
+			tokens++;
+		}
+	}
+
+	@Setup(Level.Trial)
+	public void prepare() {
+		textString = profile.generate(size);
+		text = textString.toCharArray();
+		textBytes = textString.getBytes(UTF8);
+		if ("compiled".equals(automaton))
+			theAutomaton = new CompiledFrenchTokenizerAutomaton();
+		else
+			theAutomaton = new FrenchTokenizerAutomaton();
+	}
+
+	/**
+	 * Drive the automaton one char at a time, as the annotator used to.
+	 */
+	@Benchmark
+	public int feedChar(Counters counters) {
+		int tokens = 0;
+		boolean inWord = false;
+		theAutomaton.reset();
+		for (int i = 0; i < text.length; i++) {
+			Signal s = theAutomaton.feedChar( text[i] );
+			switch(s) {
+			case start_word:
+				inWord = true;
+				break;
+			case end_word:
+			case end_word_prev:
+				tokens++;
+				inWord = false;
+				break;
+			case switch_word:
+			case switch_word_prev:
+				tokens++;
+				break;
+			case cancel_word:
+				inWord = false;
+				break;
+			default:
+				break;
+			}
+		}
+		if (inWord)
+			tokens++;
+		counters.chars  += text.length;
+		counters.tokens += tokens;
+		return tokens;
+	}
+
+	/**
+	 * Run the whole buffer loop of the automaton.
+	 */
+	@Benchmark
+	public void tokenize(Counters counters) {
+		theAutomaton.tokenize(text, 0, text.length, counters);
+		counters.chars += text.length;
+	}
+
+	/**
+	 * Run the whole buffer loop directly over the String, as the annotator
+	 * does with the SOFA.
+	 */
+	@Benchmark
+	public void tokenizeString(Counters counters) {
+		theAutomaton.tokenize(textString, 0, textString.length(), counters);
+		counters.chars += textString.length();
+	}
+
+	/**
+	 * Copy the String before running the whole buffer loop, as the annotator
+	 * used to. Compare its gc.alloc.rate.norm with tokenizeString.
+	 */
+	@Benchmark
+	public void tokenizeStringCopy(Counters counters) {
+		char[] copy = textString.toCharArray();
+		theAutomaton.tokenize(copy, 0, copy.length, counters);
+		counters.chars += copy.length;
+	}
+
+	/**
+	 * Decode the UTF-8 bytes before running the whole buffer loop, as a
+	 * reader of files has to.
+	 */
+	@Benchmark
+	public void decodeAndTokenize(Counters counters) {
+		String decoded = new String(textBytes, UTF8);
+		theAutomaton.tokenize(decoded, 0, decoded.length(), counters);
+		counters.chars += decoded.length();
+	}
+
+	/**
+	 * Run the UTF-8 automaton directly over the bytes. It always uses the
+	 * compiled tables, whatever the automaton parameter.
+	 */
+	@Benchmark
+	public void tokenizeUtf8(Counters counters) {
+		counters.chars += utf8Tokenizer.tokenize(textBytes, 0, textBytes.length,
+				counters);
+	}
+}
@@ -0,0 +1,54 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer.bench;
+
+// JMH dependencies
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar. Runs the benchmarks with the GC and
+ * allocation profiler and writes the results as JSON so that they can be
+ * tracked over time. Any JMH command line option can be given to override
+ * the defaults, e.g. "-p size=1024" or a benchmark name regexp.
+ */
+public class BenchmarkRunner {
+
+	/** Default file the results are written to */
+	public static final String RESULT_FILE = "target/jmh-result.json";
+
+	public static void main(String[] args) throws Exception {
+		CommandLineOptions cmdLine = new CommandLineOptions(args);
+		OptionsBuilder builder = new OptionsBuilder();
+		builder.parent(cmdLine);
+		if (cmdLine.getIncludes().isEmpty())
+			builder.include(BenchmarkRunner.class.getPackage().getName() + ".*");
+		Options options = builder
+			.addProfiler(GCProfiler.class)
+			.resultFormat(ResultFormatType.JSON)
+			.result(cmdLine.getResult().orElse(RESULT_FILE))
+			.warmupIterations(cmdLine.getWarmupIterations().orElse(3))
+			.measurementIterations(cmdLine.getMeasurementIterations().orElse(5))
+			.forks(cmdLine.getForkCount().orElse(1))
+			// Room for the 100 MB documents and their annotations
+			.jvmArgsAppend("-Xmx6g")
+			.build();
+		new Runner(options).run();
+	}
+}
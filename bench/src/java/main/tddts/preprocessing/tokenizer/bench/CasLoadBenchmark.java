@@ -0,0 +1,123 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer.bench;
+
+// Java dependencies
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+// JMH dependencies
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+// UIMA dependencies
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.impl.XmiCasDeserializer;
+import org.apache.uima.cas.impl.XmiCasSerializer;
+// Tokenizer dependencies
+import tddts.preprocessing.tokenizer.CompiledFrenchTokenizerAutomaton;
+import tddts.preprocessing.tokenizer.TokenOffsets;
+import tddts.preprocessing.tokenizer.TokenStoreCasLoader;
+import tddts.preprocessing.tokenizer.TokenStoreReader;
+import tddts.preprocessing.tokenizer.TokenStoreWriter;
+
+/**
+ * Measures the two ways of getting back the tokens of a document already
+ * tokenized into a CAS : loading them from a token store, or deserializing
+ * the XMI the annotated CAS was saved to. The CAS is reset before each
+ * invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class CasLoadBenchmark {
+
+	/** Length of the document : 64 KB and 1 MB */
+	@Param({"65536", "1048576"})
+	public int size;
+
+	/** Kind of text */
+	@Param({"prose", "financial"})
+	public TextProfile profile;
+
+	private String text;
+
+	private AnalysisEngine engine;
+
+	private CAS cas;
+
+	/** The annotated CAS, saved as XMI */
+	private byte[] xmi;
+
+	private File file;
+
+	private TokenStoreReader reader;
+
+	private TokenStoreCasLoader loader;
+
+	@Setup(Level.Trial)
+	public void prepare() throws Exception {
+		text = profile.generate(size);
+		engine = AnnotatorBenchmark.createEngine(true, true);
+		cas = engine.newCAS();
+		cas.setDocumentText(text);
+		engine.process(cas);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		XmiCasSerializer.serialize(cas, out);
+		xmi = out.toByteArray();
+		file = File.createTempFile("CasLoadBenchmark", ".tks");
+		TokenOffsets offsets = new TokenOffsets();
+		new CompiledFrenchTokenizerAutomaton()
+			.tokenize(text, 0, text.length(), offsets);
+		TokenStoreWriter writer = new TokenStoreWriter(file);
+		writer.add("document", offsets);
+		writer.close();
+		reader = new TokenStoreReader(file);
+		loader = new TokenStoreCasLoader(reader);
+	}
+
+	@Setup(Level.Invocation)
+	public void reset() {
+		cas.reset();
+	}
+
+	@TearDown(Level.Trial)
+	public void release() throws Exception {
+		reader.close();
+		file.delete();
+		engine.destroy();
+	}
+
+	@Benchmark
+	public int loadStore() {
+		cas.setDocumentText(text);
+		return loader.load(0, cas);
+	}
+
+	@Benchmark
+	public int deserializeXmi() throws Exception {
+		XmiCasDeserializer.deserialize(new ByteArrayInputStream(xmi), cas);
+		return cas.getDocumentText().length();
+	}
+}
@@ -0,0 +1,88 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer.bench;
+
+// Java dependencies
+import java.util.Random;
+
+/**
+ * The kinds of text the benchmarks run on. Each profile builds a
+ * pseudo-random text out of a small set of fragments, always the same for a
+ * given size so that runs can be compared.
+ */
+public enum TextProfile {
+
+	/** Plain French prose, with contractions and compound words */
+	prose(new String[] {
+		"Le", "petit", "chat", "se", "gratte", "l'oreille", "grille-pain",
+		"qu'il", "aujourd'hui", "c-à-d", "des", "brioches", "et", "une",
+		"réduction", "est", "heureux", "dans", "la", "maison", "d'été",
+		"s'amuse", "N'est-ce", "pas", "très", "beaucoup", "avec", "œuvre"
+	}, new String[] { " ", " ", " ", " ", ", ", ". ", " " }),
+
+	/** Number-heavy financial text */
+	financial(new String[] {
+		"Le", "CAC-40", "a", "perdu", "2,17%", "le", "NASDAQ", "vaut",
+		"100.786 $", "56,78€", "5 %", "1 234", "12.5", "€", "dividende",
+		"de", "0,45", "par", "action", "soit", "+3,2%", "(2009)", "T3-2010",
+		"1.000.000", "£", "-0,8 %"
+	}, new String[] { " ", " ", " ", ", ", " ; ", ". " }),
+
+	/** Punctuation-heavy dialogue */
+	dialogue(new String[] {
+		"«", "»", "—", "Quoi", "?!", "Non", "!", "dit-il", "…", "Eh",
+		"bien", "...", "(", ")", "\"", "Oui", "?", "Ah", "!!", "fit-elle",
+		"–", "Vraiment", "?", "Peut-être", ":", "[", "]", "l'homme"
+	}, new String[] { " ", "", " ", ", ", " " }),
+
+	/** Non-Latin scripts : Greek, Cyrillic, Arabic, Hebrew, CJK, Devanagari */
+	nonlatin(new String[] {
+		"καλημέρα", "κόσμε", "Привет", "мир", "сегодня", "مرحبا", "بالعالم",
+		"שלום", "עולם", "你好", "世界", "東京都", "こんにちは", "세계",
+		"नमस्ते", "दुनिया", "٣٤٥", "१२३", "Ⅻ", "⅓"
+	}, new String[] { " ", " ", "، ", "。", "、", ". " });
+
+	/** Seed of the generator, fixed to get the same texts on every run */
+	private static final long SEED = 20100906L;
+
+	/** Words the text is made of */
+	private final String[] words;
+
+	/** Separators put between two words */
+	private final String[] separators;
+
+	private TextProfile(String[] words, String[] separators) {
+		this.words = words;
+		this.separators = separators;
+	}
+
+	/**
+	 * Build a text of exactly the given number of chars.
+	 *
+	 * @param size the length of the text
+	 *
+	 * @return the text
+	 */
+	public String generate(int size) {
+		Random random = new Random(SEED);
+		StringBuilder sb = new StringBuilder(size + 32);
+		while (sb.length() < size) {
+			sb.append(words[random.nextInt(words.length)]);
+			sb.append(separators[random.nextInt(separators.length)]);
+		}
+		sb.setLength(size);
+		return sb.toString();
+	}
+}
@@ -11,7 +11,7 @@ import org.apache.uima.jcas.tcas.Annotation;
 
 
 /** Single token annotation
- * Updated by JCasGen Wed Sep 08 14:35:23 CEST 2010
+ * Updated by JCasGen Fri Oct 16 15:48:02 CEST 2026
  * XML source: desc/tddts/preprocessing/ae/FrenchUnicodeTokenizer-AE.xml
  * @generated */
 public class TokenAnnotation extends Annotation {
@@ -57,6 +57,41 @@ public class TokenAnnotation extends Annotation {
   @generated modifiable */
   private void readObject() {}
      
-}
+ 
+    
+  //*--------------*
+  //* Feature: tokentype
+
+  /** getter for tokentype - gets Kind of the token, the ordinal of tddts.preprocessing.tokenizer.TokenType : 0 word, 1 number, 2 punctuation, 3 unknown
+   * @generated */
+  public int getTokentype() {
+    if (TokenAnnotation_Type.featOkTst && ((TokenAnnotation_Type)jcasType).casFeat_tokentype == null)
+      jcasType.jcas.throwFeatMissing("tokentype", "org.apache.uima.TokenAnnotation");
+    return jcasType.ll_cas.ll_getIntValue(addr, ((TokenAnnotation_Type)jcasType).casFeatCode_tokentype);}
+    
+  /** setter for tokentype - sets Kind of the token, the ordinal of tddts.preprocessing.tokenizer.TokenType : 0 word, 1 number, 2 punctuation, 3 unknown 
+   * @generated */
+  public void setTokentype(int v) {
+    if (TokenAnnotation_Type.featOkTst && ((TokenAnnotation_Type)jcasType).casFeat_tokentype == null)
+      jcasType.jcas.throwFeatMissing("tokentype", "org.apache.uima.TokenAnnotation");
+    jcasType.ll_cas.ll_setIntValue(addr, ((TokenAnnotation_Type)jcasType).casFeatCode_tokentype, v);}    
+   
+  //*--------------*
+  //* Feature: tokenid
+
+  /** getter for tokenid - gets Id of the text of the token in the vocabulary of the annotator, from 0 on, when AssignTokenIds is set, -1 otherwise
+   * @generated */
+  public int getTokenid() {
+    if (TokenAnnotation_Type.featOkTst && ((TokenAnnotation_Type)jcasType).casFeat_tokenid == null)
+      jcasType.jcas.throwFeatMissing("tokenid", "org.apache.uima.TokenAnnotation");
+    return jcasType.ll_cas.ll_getIntValue(addr, ((TokenAnnotation_Type)jcasType).casFeatCode_tokenid);}
+    
+  /** setter for tokenid - sets Id of the text of the token in the vocabulary of the annotator, from 0 on, when AssignTokenIds is set, -1 otherwise 
+   * @generated */
+  public void setTokenid(int v) {
+    if (TokenAnnotation_Type.featOkTst && ((TokenAnnotation_Type)jcasType).casFeat_tokenid == null)
+      jcasType.jcas.throwFeatMissing("tokenid", "org.apache.uima.TokenAnnotation");
+    jcasType.ll_cas.ll_setIntValue(addr, ((TokenAnnotation_Type)jcasType).casFeatCode_tokenid, v);}    
+  }
 
     
\ No newline at end of file
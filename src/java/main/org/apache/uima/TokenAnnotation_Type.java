@@ -9,10 +9,12 @@ import org.apache.uima.cas.impl.FSGenerator;
 import org.apache.uima.cas.FeatureStructure;
 import org.apache.uima.cas.impl.TypeImpl;
 import org.apache.uima.cas.Type;
+import org.apache.uima.cas.impl.FeatureImpl;
+import org.apache.uima.cas.Feature;
 import org.apache.uima.jcas.tcas.Annotation_Type;
 
 /** Single token annotation
- * Updated by JCasGen Wed Sep 08 14:35:23 CEST 2010
+ * Updated by JCasGen Fri Oct 16 15:48:02 CEST 2026
  * @generated */
 public class TokenAnnotation_Type extends Annotation_Type {
   /** @generated */
@@ -38,6 +40,41 @@ public class TokenAnnotation_Type extends Annotation_Type {
   /** @generated 
      @modifiable */
   public final static boolean featOkTst = JCasRegistry.getFeatOkTst("org.apache.uima.TokenAnnotation");
+ 
+  /** @generated */
+  final Feature casFeat_tokentype;
+  /** @generated */
+  final int     casFeatCode_tokentype;
+  /** @generated */ 
+  public int getTokentype(int addr) {
+        if (featOkTst && casFeat_tokentype == null)
+      jcas.throwFeatMissing("tokentype", "org.apache.uima.TokenAnnotation");
+    return ll_cas.ll_getIntValue(addr, casFeatCode_tokentype);
+  }
+  /** @generated */    
+  public void setTokentype(int addr, int v) {
+        if (featOkTst && casFeat_tokentype == null)
+      jcas.throwFeatMissing("tokentype", "org.apache.uima.TokenAnnotation");
+    ll_cas.ll_setIntValue(addr, casFeatCode_tokentype, v);}
+    
+  
+  /** @generated */
+  final Feature casFeat_tokenid;
+  /** @generated */
+  final int     casFeatCode_tokenid;
+  /** @generated */ 
+  public int getTokenid(int addr) {
+        if (featOkTst && casFeat_tokenid == null)
+      jcas.throwFeatMissing("tokenid", "org.apache.uima.TokenAnnotation");
+    return ll_cas.ll_getIntValue(addr, casFeatCode_tokenid);
+  }
+  /** @generated */    
+  public void setTokenid(int addr, int v) {
+        if (featOkTst && casFeat_tokenid == null)
+      jcas.throwFeatMissing("tokenid", "org.apache.uima.TokenAnnotation");
+    ll_cas.ll_setIntValue(addr, casFeatCode_tokenid, v);}
+    
+  
 
 
 
@@ -47,6 +84,14 @@ public class TokenAnnotation_Type extends Annotation_Type {
     super(jcas, casType);
     casImpl.getFSClassRegistry().addGeneratorForType((TypeImpl)this.casType, getFSGenerator());
 
+ 
+    casFeat_tokentype = jcas.getRequiredFeatureDE(casType, "tokentype", "uima.cas.Integer", featOkTst);
+    casFeatCode_tokentype  = (null == casFeat_tokentype) ? JCas.INVALID_FEATURE_CODE : ((FeatureImpl)casFeat_tokentype).getCode();
+
+ 
+    casFeat_tokenid = jcas.getRequiredFeatureDE(casType, "tokenid", "uima.cas.Integer", featOkTst);
+    casFeatCode_tokenid  = (null == casFeat_tokenid) ? JCas.INVALID_FEATURE_CODE : ((FeatureImpl)casFeat_tokenid).getCode();
+
   }
 }
 
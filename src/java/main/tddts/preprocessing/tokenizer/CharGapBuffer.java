@@ -0,0 +1,120 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+/**
+ * A text being edited, kept in a gap buffer : the chars are stored in a
+ * single array with a gap left where the last edit took place. An edit
+ * only moves the chars between the gap and the edit, so a series of edits
+ * close to each other costs as much on a text of any length, where a
+ * StringBuilder moves all the chars after each edit.
+ */
+public class CharGapBuffer implements CharSequence {
+
+	/** Chars of the text, around the gap */
+	private char[] chars;
+
+	/** Index of the first char of the gap */
+	private int gapStart;
+
+	/** Index following the last char of the gap */
+	private int gapEnd;
+
+	/**
+	 * @param text the initial text, copied
+	 */
+	public CharGapBuffer(CharSequence text) {
+		int length = text.length();
+		this.chars = new char[Math.max(length * 2, 16)];
+		for (int i = 0; i < length; i++)
+			chars[i] = text.charAt(i);
+		this.gapStart = length;
+		this.gapEnd = chars.length;
+	}
+
+	// INTERFACE ---------------------------------------------------------------
+
+	public int length() {
+		return chars.length - (gapEnd - gapStart);
+	}
+
+	public char charAt(int index) {
+		return index < gapStart ? chars[index]
+			: chars[index + gapEnd - gapStart];
+	}
+
+	public CharSequence subSequence(int start, int end) {
+		StringBuilder sb = new StringBuilder(end - start);
+		for (int i = start; i < end; i++)
+			sb.append(charAt(i));
+		return sb.toString();
+	}
+
+	@Override
+	public String toString() {
+		return subSequence(0, length()).toString();
+	}
+
+	/**
+	 * Replace chars of the text.
+	 *
+	 * @param offset offset of the first char deleted or inserted
+	 * @param deleted the number of chars deleted
+	 * @param inserted the chars inserted in their place
+	 */
+	public void replace(int offset, int deleted, CharSequence inserted) {
+		if (offset < 0 || deleted < 0 || offset + deleted > length())
+			throw new IndexOutOfBoundsException("Edit of " + deleted
+					+ " chars at " + offset + " in a text of " + length()
+					+ " chars");
+		moveGap(offset);
+		gapEnd += deleted;
+		int n = inserted.length();
+		if (gapEnd - gapStart < n)
+			grow(length() + n);
+		for (int i = 0; i < n; i++)
+			chars[gapStart++] = inserted.charAt(i);
+	}
+
+	// PRIVATE METHODS ---------------------------------------------------------
+
+	/**
+	 * Move the gap before the char of the given offset.
+	 */
+	private void moveGap(int offset) {
+		int gap = gapEnd - gapStart;
+		if (offset < gapStart)
+			System.arraycopy(chars, offset, chars, offset + gap,
+					gapStart - offset);
+		else if (offset > gapStart)
+			System.arraycopy(chars, gapEnd, chars, gapStart, offset - gapStart);
+		gapStart = offset;
+		gapEnd = offset + gap;
+	}
+
+	/**
+	 * Grow the array so that it can hold the given number of chars, the gap
+	 * taking all the chars added.
+	 */
+	private void grow(int needed) {
+		int capacity = Math.max(needed, chars.length * 2);
+		int tail = chars.length - gapEnd;
+		char[] grown = new char[capacity];
+		System.arraycopy(chars, 0, grown, 0, gapStart);
+		System.arraycopy(chars, gapEnd, grown, capacity - tail, tail);
+		chars = grown;
+		gapEnd = capacity - tail;
+	}
+}
@@ -0,0 +1,221 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.util.Arrays;
+// Tokenizer dependencies
+import static tddts.preprocessing.tokenizer.UnicodeClassTable.classOf;
+
+/**
+ * This class implements the same transducer as
+ * {@link FrenchTokenizerAutomaton}, but compiled into tables.
+ *
+ * Each code point is first mapped to a small character class id, read in
+ * the frozen {@link UnicodeClassTable}, then the (state, class) pair indexes
+ * a packed transition table giving both the next state and the signal to
+ * send. The transitions are the {@link FrenchTokenizerTables} generated from
+ * the specification of the automaton, in which the equivalent states of the
+ * reference automaton are merged : after a transition, the current state is
+ * the first of the states merged with the reference one. Both produce the
+ * same signals as long as the JDK runs the Unicode version the classes were
+ * generated from.
+ *
+ * The tables are run by the {@link FrenchTokenizerEngine} shared by all the
+ * threads; this class only keeps the current state, for the code written
+ * against the reference automaton.
+ */
+public class CompiledFrenchTokenizerAutomaton extends FrenchTokenizerAutomaton {
+
+	// CHARACTER CLASSES -------------------------------------------------------
+
+	/** Separators : Zl, Zp, Zs */
+	static final int CLASS_SEPARATOR   = 0;
+	/** Numbers : Nd, Nl, No */
+	static final int CLASS_NUMBER      = 1;
+	/** Letters : Ll, Lu, Lm, Lo, Lt (except the particular ones below) */
+	static final int CLASS_LETTER      = 2;
+	/** The letters U+0075 and U+0055 (u, U) */
+	static final int CLASS_U           = 3;
+	/** The punctuation apostrophes U+0027 and U+2019 */
+	static final int CLASS_APOSTROPHE  = 4;
+	/** The letter apostrophe U+02BC */
+	static final int CLASS_APOSTROPHE_LETTER = 5;
+	/** The full stop U+002E */
+	static final int CLASS_DOT         = 6;
+	/** The slash U+002F */
+	static final int CLASS_SLASH       = 7;
+	/** The comma U+002C */
+	static final int CLASS_COMMA       = 8;
+	/** The percentage sign U+0025 */
+	static final int CLASS_PERCENT     = 9;
+	/** Dashes : Pd */
+	static final int CLASS_DASH        = 10;
+	/** Other punctuation : Pc, Pe, Pi, Pf, Po, Ps */
+	static final int CLASS_PUNCTUATION = 11;
+	/** Currencies : Sc */
+	static final int CLASS_CURRENCY    = 12;
+	/** Anything else */
+	static final int CLASS_OTHER       = 13;
+
+	/** Number of character classes */
+	static final int NB_CLASSES = 14;
+
+	/** One representative char for each character class */
+	static final char[] CLASS_REPRESENTATIVES = new char[] {
+		' ', '0', 'a', 'u', '\'', (char) 0x02BC, '.', '/', ',', '%', '-',
+		'!', '$', '+'
+	};
+
+	/** Shift applied to a state to index its line in the transition table */
+	static final int STATE_SHIFT = 4;
+
+	/** Shift applied to a packed transition to get the next state */
+	static final int NEXT_STATE_SHIFT = 4;
+
+	/** Mask applied to a packed transition to get the signal */
+	static final int SIGNAL_MASK = 0xF;
+
+	/**
+	 * Packed transitions indexed by (state << STATE_SHIFT) | class : the next
+	 * state is stored in the upper bits, the signal in the lower four.
+	 */
+	static final int[] TRANSITIONS = FrenchTokenizerTables.TRANSITIONS;
+
+	/** Initial state */
+	static final int INITIAL = FrenchTokenizerTables.INITIAL;
+
+	/**
+	 * States of the reference automaton standing for each state : the first
+	 * of the states merged into it
+	 */
+	static final States[] STATES =
+		new States[FrenchTokenizerTables.STATE_NAMES.length];
+
+	/** State each state of the reference automaton is merged into */
+	static final int[] STATE_IDS = new int[States.values().length];
+
+	/** Type of the tokens built in each state */
+	static final TokenType[] TYPES = new TokenType[STATES.length];
+
+	/** Signals indexed by their ordinal */
+	static final Signal[] SIGNALS = Signal.values();
+
+	/** Ordinal of the nop signal, the most frequent one */
+	static final int NOP = Signal.nop.ordinal();
+
+	/** States left unchanged, without any signal, by all the ASCII letters */
+	static final boolean[] LETTER_LOOPS = new boolean[STATES.length];
+
+	static {
+		for (int state = 0; state < STATES.length; state++) {
+			STATES[state] =
+				States.valueOf(FrenchTokenizerTables.STATE_NAMES[state]);
+			TYPES[state] = TokenType.valueOf(FrenchTokenizerTables.TYPES[state]);
+		}
+		Arrays.fill(STATE_IDS, -1);
+		for (int i = 0; i < FrenchTokenizerTables.SPECIFIED_STATES.length; i++) {
+			States specified =
+				States.valueOf(FrenchTokenizerTables.SPECIFIED_STATES[i]);
+			STATE_IDS[specified.ordinal()] = FrenchTokenizerTables.MERGED_INTO[i];
+		}
+		for (States state : States.values()) {
+			if (STATE_IDS[state.ordinal()] == -1)
+				throw new IllegalStateException("state " + state
+						+ " missing from the specification");
+		}
+		for (int state = 0; state < STATES.length; state++) {
+			LETTER_LOOPS[state] = loops(state, 'a', 'z') && loops(state, 'A', 'Z');
+		}
+	}
+
+	// INTERFACE ---------------------------------------------------------------
+
+	/**
+	 * @see FrenchTokenizerAutomaton#newInstance()
+	 */
+	@Override
+	public FrenchTokenizerAutomaton newInstance() {
+		return new CompiledFrenchTokenizerAutomaton();
+	}
+
+	/**
+	 * @see FrenchTokenizerAutomaton#feedChar(char)
+	 */
+	@Override
+	public Signal feedChar(char c) {
+		return feedCodePoint(c);
+	}
+
+	/**
+	 * This method is the entry point for each new code point to be
+	 * considered by the automaton. It looks up the class of the code point
+	 * and the transition for the current state.
+	 *
+	 * @param c the code point
+	 *
+	 * @return the signal produced by the transition
+	 */
+	@Override
+	public Signal feedCodePoint(int c) {
+		int t = FrenchTokenizerEngine.getInstance().step(
+				STATE_IDS[theCurrentState.ordinal()], c);
+		theCurrentState = STATES[t >>> NEXT_STATE_SHIFT];
+		return SIGNALS[t & SIGNAL_MASK];
+	}
+
+	/**
+	 * This method runs the shared engine over a whole piece of text, then
+	 * leaves the automaton in the state the engine ended in.
+	 *
+	 * @see FrenchTokenizerEngine#tokenize(CharSequence, int, int, TokenSink)
+	 */
+	@Override
+	public void tokenize(CharSequence text, int from, int to, TokenSink sink) {
+		theCurrentState = STATES[FrenchTokenizerEngine.getInstance()
+		                         .tokenize(text, from, to, sink)];
+	}
+
+	/**
+	 * Same as {@link #tokenize(CharSequence, int, int, TokenSink)} over an
+	 * array of chars.
+	 */
+	@Override
+	public void tokenize(char[] text, int from, int to, TokenSink sink) {
+		theCurrentState = STATES[FrenchTokenizerEngine.getInstance()
+		                         .tokenize(text, from, to, sink)];
+	}
+
+	/**
+	 * @return true if all the ASCII chars of the range leave the automaton in
+	 * the state without any signal
+	 */
+	static boolean loops(int state, char first, char last) {
+		for (int c = first; c <= last; c++) {
+			int t = TRANSITIONS[(state << STATE_SHIFT) | classOf(c)];
+			if (t >>> NEXT_STATE_SHIFT != state || (t & SIGNAL_MASK) != NOP)
+				return false;
+		}
+		return true;
+	}
+
+	/**
+	 * @return true if the char is an ASCII letter
+	 */
+	static boolean isAsciiLetter(int c) {
+		int l = (c | 0x20) - 'a';
+		return l >= 0 && l < 26;
+	}
+}
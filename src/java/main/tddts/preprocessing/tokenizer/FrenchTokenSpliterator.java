@@ -0,0 +1,172 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * This class gives the tokens of a text one at a time, computing them on
+ * demand : the text is tokenized a chunk at a time, up to the first safe
+ * point after {@link #DEFAULT_CHUNK_SIZE} chars, when the tokens of the
+ * previous chunk have all been consumed. A consumer stopping early, after
+ * the first tokens or at a match, does not pay for the rest of the text.
+ *
+ * The spliterator splits at the safe points of {@link
+ * ParallelFrenchTokenizer}, where the automaton is back in its initial
+ * state, so that a parallel stream gives the same tokens as a sequential
+ * one.
+ */
+public class FrenchTokenSpliterator implements Spliterator<Token>, TokenSink {
+
+	/** Number of chars tokenized at a time by default */
+	public static final int DEFAULT_CHUNK_SIZE = 4096;
+
+	/** The engine, shared by all the spliterators */
+	private static final FrenchTokenizerEngine ENGINE =
+		FrenchTokenizerEngine.getInstance();
+
+	private final CharSequence text;
+
+	/** Offset following the last char to tokenize */
+	private final int to;
+
+	/** Number of chars tokenized at a time */
+	private final int chunkSize;
+
+	/** Offset of the first char not tokenized yet */
+	private int position;
+
+	/** Tokens of the last chunk */
+	private TokenOffsets pending;
+
+	/** Index of the next token of the last chunk to give */
+	private int next;
+
+	/** Receiver of the tokens while running {@link #forEachRemaining} */
+	private Consumer<? super Token> action;
+
+	/**
+	 * @param text the text to tokenize
+	 * @param from offset of the first char to consider
+	 * @param to offset following the last char to consider
+	 * @param chunkSize the number of chars tokenized at a time
+	 */
+	public FrenchTokenSpliterator(CharSequence text, int from, int to,
+			int chunkSize) {
+		this(text, from, to, chunkSize, new TokenOffsets(), 0);
+	}
+
+	private FrenchTokenSpliterator(CharSequence text, int from, int to,
+			int chunkSize, TokenOffsets pending, int next) {
+		this.text = text;
+		this.position = from;
+		this.to = to;
+		this.chunkSize = Math.max(chunkSize, 2);
+		this.pending = pending;
+		this.next = next;
+	}
+
+	// INTERFACE ---------------------------------------------------------------
+
+	public boolean tryAdvance(Consumer<? super Token> action) {
+		while (next == pending.size()) {
+			if (position == to)
+				return false;
+			pending.clear();
+			next = 0;
+			int end = findChunkEnd(position + chunkSize);
+			ENGINE.tokenize(text, position, end, pending);
+			position = end;
+		}
+		action.accept(new Token(pending.begin(next), pending.end(next),
+				pending.type(next)));
+		next++;
+		return true;
+	}
+
+	/**
+	 * Give the tokens left in the last chunk, then tokenize the rest of the
+	 * text at once, without buffering its tokens.
+	 */
+	@Override
+	public void forEachRemaining(Consumer<? super Token> action) {
+		for (; next < pending.size(); next++)
+			action.accept(new Token(pending.begin(next), pending.end(next),
+					pending.type(next)));
+		if (position < to) {
+			this.action = action;
+			try {
+				ENGINE.tokenize(text, position, to, this);
+			} finally {
+				this.action = null;
+			}
+			position = to;
+		}
+	}
+
+	/**
+	 * Keep the second half of the chars not tokenized yet, from a safe point
+	 * close to their middle, and give away the first half with the tokens
+	 * left in the last chunk.
+	 */
+	public Spliterator<Token> trySplit() {
+		if (to - position < chunkSize * 2)
+			return null;
+		int split = ParallelFrenchTokenizer.findSplit(text, position, to);
+		if (split == -1)
+			return null;
+		FrenchTokenSpliterator prefix = new FrenchTokenSpliterator(text,
+				position, split, chunkSize, pending, next);
+		pending = new TokenOffsets();
+		next = 0;
+		position = split;
+		return prefix;
+	}
+
+	/**
+	 * @return the number of tokens left, expecting one every eight chars in
+	 * the text not tokenized yet
+	 */
+	public long estimateSize() {
+		return pending.size() - next + (to - position) / 8;
+	}
+
+	public int characteristics() {
+		return ORDERED | NONNULL;
+	}
+
+	/**
+	 * Called by the engine during {@link #forEachRemaining}.
+	 */
+	public void token(int begin, int end, TokenType type) {
+		action.accept(new Token(begin, end, type));
+	}
+
+	// PRIVATE METHODS ---------------------------------------------------------
+
+	/**
+	 * @return the first safe point at or after the given offset, the end of
+	 * the text if there is none
+	 */
+	private int findChunkEnd(int from) {
+		for (int i = Math.max(from, position + 2); i < to; i++) {
+			if (ParallelFrenchTokenizer.isSafePoint(text, i))
+				return i;
+		}
+		return to;
+	}
+}
@@ -20,6 +20,10 @@ package tddts.preprocessing.tokenizer;
  * This class implements a transducer with somehow a stack system in order
  * to deal with previously processed elements.
  * 
+ * It is the reference implementation of the automaton specified in
+ * FrenchTokenizerAutomaton.dot, from which the tables of the
+ * {@link CompiledFrenchTokenizerAutomaton} are generated.
+ * 
  * @author Fabien Poulard <fabien.poulard@univ-nantes.fr>
  */
 public class FrenchTokenizerAutomaton {
@@ -51,6 +55,27 @@ public class FrenchTokenizerAutomaton {
 	/** State the automaton is in right now */
 	public States theCurrentState = States.O0;
 	
+	/** Type of the tokens built in each state, indexed by its ordinal */
+	private static final TokenType[] STATE_TYPES = new TokenType[] {
+		TokenType.unknown, TokenType.unknown, TokenType.punctuation,
+		TokenType.word, TokenType.word, TokenType.word, TokenType.word,
+		TokenType.word, TokenType.word, TokenType.word,
+		TokenType.number, TokenType.number, TokenType.number, TokenType.number,
+		TokenType.number
+	};
+	
+	/** Particular chars checked before the unicode classes */
+	private static final char APOSTROPHE_1 = (char) 0x0027;
+	private static final char APOSTROPHE_2 = (char) 0x02BC;
+	private static final char APOSTROPHE_3 = (char) 0x2019;
+	private static final char HYPHEN_1     = (char) 0x002E;
+	private static final char HYPHEN_2     = (char) 0x002F;
+	private static final char U_1          = (char) 0x0075; // u
+	private static final char U_2          = (char) 0x0055; // U
+	private static final char SEP_1        = (char) 0x002E;
+	private static final char SEP_2        = (char) 0x002C;
+	private static final char PERCENT      = (char) 0x0025;
+	
 	// INTERFACE ---------------------------------------------------------------
 	
 	/**
@@ -61,16 +86,39 @@ public class FrenchTokenizerAutomaton {
 		theCurrentState = States.O0;
 	}
 	
+	/**
+	 * This method creates a brand new automaton of the same kind, so that 
+	 * several texts can be tokenized at the same time.
+	 * 
+	 * @return a new automaton in its initial state
+	 */
+	public FrenchTokenizerAutomaton newInstance() {
+		return new FrenchTokenizerAutomaton();
+	}
+	
 	/**
 	 * This method is the entry point for each new character to be 
-	 * considered by the automaton. It routes the character depending
-	 * on the current status.
+	 * considered by the automaton. A char is taken as the code point it
+	 * encodes, so a surrogate alone is an unknown char.
 	 * 
 	 * @param c the character
 	 * 
-	 * @return 
+	 * @return the signal produced by the transition
 	 */
 	public Signal feedChar(char c) {
+		return feedCodePoint(c);
+	}
+	
+	/**
+	 * This method is the entry point for each new code point to be 
+	 * considered by the automaton. It routes the code point depending
+	 * on the current status.
+	 * 
+	 * @param c the code point
+	 * 
+	 * @return the signal produced by the transition
+	 */
+	public Signal feedCodePoint(int c) {
 		switch ( theCurrentState ) {
 		// state : out of any word
 		case O0:
@@ -112,6 +160,124 @@ public class FrenchTokenizerAutomaton {
 		return null;
 	}
 	
+	/**
+	 * This method runs the automaton over a whole piece of text and sends 
+	 * each token found to the sink. The automaton is reset before starting, 
+	 * and the last token is closed at the end of the range. A surrogate pair
+	 * is fed as the code point it encodes. Each token is typed after the
+	 * state it was built in.
+	 * 
+	 * @param text the text to tokenize
+	 * @param from offset of the first char to consider
+	 * @param to offset following the last char to consider
+	 * @param sink the receiver of the tokens offsets
+	 */
+	public void tokenize(CharSequence text, int from, int to, TokenSink sink) {
+		int begin = -1;
+		int previous = from;
+		reset();
+		for (int i = from; i < to; ) {
+			int c = codePointAt(text, i, to);
+			TokenType type = STATE_TYPES[theCurrentState.ordinal()];
+			begin = signal(feedCodePoint(c), i, previous, begin, type, sink);
+			previous = i;
+			i += Character.charCount(c);
+		}
+		flush(begin, to, STATE_TYPES[theCurrentState.ordinal()], sink);
+	}
+	
+	/**
+	 * Same as {@link #tokenize(CharSequence, int, int, TokenSink)} over an 
+	 * array of chars.
+	 */
+	public void tokenize(char[] text, int from, int to, TokenSink sink) {
+		int begin = -1;
+		int previous = from;
+		reset();
+		for (int i = from; i < to; ) {
+			int c = Character.codePointAt(text, i, to);
+			TokenType type = STATE_TYPES[theCurrentState.ordinal()];
+			begin = signal(feedCodePoint(c), i, previous, begin, type, sink);
+			previous = i;
+			i += Character.charCount(c);
+		}
+		flush(begin, to, STATE_TYPES[theCurrentState.ordinal()], sink);
+	}
+	
+	/**
+	 * @return the code point at offset i, the char alone if it does not
+	 * start a surrogate pair ending before the offset limit
+	 */
+	static int codePointAt(CharSequence text, int i, int limit) {
+		char c = text.charAt(i);
+		if (Character.isHighSurrogate(c) && i + 1 < limit) {
+			char low = text.charAt(i + 1);
+			if (Character.isLowSurrogate(low))
+				return Character.toCodePoint(c, low);
+		}
+		return c;
+	}
+	
+	// SIGNALS HANDLING --------------------------------------------------------
+	
+	/**
+	 * Interpret the signal sent for the code point at offset i, sending the
+	 * token it ends, if any, to the sink.
+	 * 
+	 * @param s the signal sent by the automaton
+	 * @param i offset of the code point fed to the automaton
+	 * @param previous offset of the code point fed before, where the *_prev
+	 * signals end the token
+	 * @param begin offset where the current token started, -1 if none
+	 * @param type type of the tokens built in the state before the
+	 * transition, the one the current token was built in
+	 * @param sink the receiver of the tokens offsets
+	 * 
+	 * @return the offset where the current token starts after the signal
+	 */
+	static int signal(Signal s, int i, int previous, int begin, TokenType type,
+			TokenSink sink) {
+		switch(s) {
+		case start_word:
+			return i;
+		case end_word:
+			sink.token(begin, i, type);
+			return -1;
+		case end_word_prev:
+			sink.token(begin, previous, type);
+			return -1;
+		case switch_word:
+			sink.token(begin, i, type);
+			return i;
+		case switch_word_prev:
+			sink.token(begin, previous, type);
+			return i;
+		case cancel_word:
+			return -1;
+		default:
+			return begin;
+		}
+	}
+	
+	/**
+	 * Close the token still open at the end of the text, if any.
+	 * 
+	 * @param type type of the tokens built in the state the automaton ended
+	 * in
+	 */
+	static void flush(int begin, int end, TokenType type, TokenSink sink) {
+		if (begin != -1) {
+			sink.token(begin, end, type);
+		}
+	}
+	
+	/**
+	 * @return the type of the tokens built in the state of the given ordinal
+	 */
+	static TokenType typeOf(int state) {
+		return STATE_TYPES[state];
+	}
+	
 	// STATES HANDLING : SPECIAL ONES ------------------------------------------
 
 	/**
@@ -122,7 +288,7 @@ public class FrenchTokenizerAutomaton {
 	 * O0 -> L0 [ label = "{Ll,Lu,Lm,Lo,Lt}/start_word" ];
 	 * O0 -> U0 [ label = "other/start_word" ];
 	 */
-	 private Signal feedCharO0(char c) {
+	 private Signal feedCharO0(int c) {
 		switch ( Character.getType(c) ) {
 		// Stay in this state as long as we get separator chars
 		// Zl = LINE_SEPARATOR
@@ -172,7 +338,7 @@ public class FrenchTokenizerAutomaton {
 	  * U0 -> L0 [ label = "{Ll,Lu,Lm,Lo,Lt}/switch_word" ];
 	  * U0 -> U0 [ label = "other/nop" ];
 	  */
-	private Signal feedCharU0(char c) {
+	private Signal feedCharU0(int c) {
 		switch ( Character.getType(c) ) {
 		// Jump to the out of word state if we encounter some space
 		// Zl = LINE_SEPARATOR
@@ -220,7 +386,7 @@ public class FrenchTokenizerAutomaton {
 	  * P0 -> L0 [ label = "{Ll,Lu,Lm,Lo,Lt}/switch_word" ];
 	  * P0 -> U0 [ label = "other/switch_word" ];
 	  */
-	private Signal feedCharP0(char c) {
+	private Signal feedCharP0(int c) {
 		switch ( Character.getType(c) ) {
 		// Punctuation keep coming
 		// Pc = CONNECTOR_PUNCTUATION
@@ -293,24 +459,16 @@ public class FrenchTokenizerAutomaton {
 	 * L0 -> P0 [ label = "{Pc,Pd,Pe,Pi,Pf,Po}/switch_word" ];
 	 * L0 -> U0 [ label = "other/switch_word" ];
 	 */
-	private Signal feedCharL0(char c) {
+	private Signal feedCharL0(int c) {
 		// First check the particular case of the apostrophes and
 		// the hyphens
-		Character cApostrophe1 = new Character( (char) 0x0027);
-		Character cApostrophe2 = new Character( (char) 0x02BC);
-		Character cApostrophe3 = new Character( (char) 0x2019);
-		Character cHyphen1     = new Character( (char) 0x002E);
-		Character cHyphen2     = new Character( (char) 0x002F);
-		Character cU1          = new Character( (char) 0x0075); // u
-		Character cU2          = new Character( (char) 0x0055); // U
-		if ( cApostrophe1.equals(c) || cApostrophe2.equals(c) 
-				|| cApostrophe3.equals(c) ) {
+		if ( c == APOSTROPHE_1 || c == APOSTROPHE_2 || c == APOSTROPHE_3 ) {
 			theCurrentState = States.L2;
 			return Signal.nop;
-		} else if ( cHyphen1.equals(c) || cHyphen2.equals(c) ) {
+		} else if ( c == HYPHEN_1 || c == HYPHEN_2 ) {
 			theCurrentState = States.L4;
 			return Signal.nop;
-		} else if ( cU1.equals(c) || cU2.equals(c) ) {
+		} else if ( c == U_1 || c == U_2 ) {
 			theCurrentState = States.L5;
 			return Signal.nop;
 		} else {
@@ -377,15 +535,11 @@ public class FrenchTokenizerAutomaton {
 	 * L1 -> P0 [ label = "{Pc,Pd,Pe,Pi,Pf,Po}/switch_word" ]; 
 	 * L1 -> U0 [ label = "other/end_word" ];
 	 */
-	private Signal feedCharL1(char c) {
+	private Signal feedCharL1(int c) {
 		// First check the particular case of the apostrophes and
 		// the hyphens
-		Character cApostrophe1 = new Character( (char) 0x0027);
-		Character cApostrophe2 = new Character( (char) 0x02BC);
-		Character cApostrophe3 = new Character( (char) 0x2019);
-		Character cHyphen2     = new Character( (char) 0x002F);
-		if ( cApostrophe1.equals(c) || cApostrophe2.equals(c)
-				|| cApostrophe3.equals(c) || cHyphen2.equals(c) ) {
+		if ( c == APOSTROPHE_1 || c == APOSTROPHE_2 || c == APOSTROPHE_3
+				|| c == HYPHEN_2 ) {
 			theCurrentState = States.L3;
 			return Signal.nop;
 		} else {
@@ -451,7 +605,7 @@ public class FrenchTokenizerAutomaton {
 	 * L2 -> P0 [ label = "{Pc,Pd,Pe,Pi,Pf,Po}/switch_word" ];
 	 * L2 -> U0 [ label = "other/nop" ];
 	 */
-	private Signal feedCharL2(char c) {
+	private Signal feedCharL2(int c) {
 		switch ( Character.getType(c) ) {
 		// Jump to state L1 we encounter a letter
 		// Ll = LOWERCASE_LETTER
@@ -510,7 +664,7 @@ public class FrenchTokenizerAutomaton {
 	 * L3 -> P0 [ label = "{Pc,Pd,Pe,Pi,Pf,Po}/switch_word" ];
 	 * L3 -> U0 [ label = "other/switch_word_prev;" ];
 	 */
-	private Signal feedCharL3(char c) {
+	private Signal feedCharL3(int c) {
 		switch ( Character.getType(c) ) {
 		// Jump to state L1 we encounter a letter
 		// Ll = LOWERCASE_LETTER
@@ -579,7 +733,7 @@ public class FrenchTokenizerAutomaton {
 	 * L4 -> P0 [ label = "{Pc,Pd,Pe,Pi,Pf,Po}/switch_word" ];
 	 * L4 -> U0 [ label = "other/switch_word" ];
 	 */
-	private Signal feedCharL4(char c) {
+	private Signal feedCharL4(int c) {
 		switch ( Character.getType(c) ) {
 		// Jump to state L1 we encounter a letter
 		// Ll = LOWERCASE_LETTER
@@ -646,13 +800,9 @@ public class FrenchTokenizerAutomaton {
 	 * L4 -> P0 [ label = "{Pc,Pd,Pe,Pi,Pf,Po}/switch_word" ];
 	 * L5 -> U0 [ label = "other/switch_word" ];
 	 */
-	private Signal feedCharL5(char c) {
+	private Signal feedCharL5(int c) {
 		// First check the particular case of the apostrophes
-		Character cApostrophe1 = new Character( (char) 0x0027);
-		Character cApostrophe2 = new Character( (char) 0x02BC);
-		Character cApostrophe3 = new Character( (char) 0x2019);
-		if ( cApostrophe1.equals(c) || cApostrophe2.equals(c)
-				|| cApostrophe3.equals(c) ) {
+		if ( c == APOSTROPHE_1 || c == APOSTROPHE_2 || c == APOSTROPHE_3 ) {
 			theCurrentState = States.L2;
 			return Signal.nop;
 		} else {
@@ -714,7 +864,7 @@ public class FrenchTokenizerAutomaton {
 	 * L6 -> P0 [ label = "{Pc,Pd,Pe,Pi,Pf,Po}/switch_word" ];
 	 * L6 -> U0 [ label = "other/switch_word" ];
 	 */
-	private Signal feedCharL6(char c) {
+	private Signal feedCharL6(int c) {
 		switch ( Character.getType(c) ) {
 		// Keep going if we get a number char
 		// Nd = DECIMAL_DIGIT_NUMBER
@@ -783,16 +933,13 @@ public class FrenchTokenizerAutomaton {
 	 * N0 -> P0 [ label = "{Pc,Pd,Pe,Pi,Pf,Po}/switch_word" ];
 	 * N0 -> U0 [ label = "other/switch_word" ];
 	 */
-	private Signal feedCharN0(char c) {
+	private Signal feedCharN0(int c) {
 		// First check the particular case of the decimal separators
-		Character cSep1    = new Character( (char) 0x002E);
-		Character cSep2    = new Character( (char) 0x002C);
-		Character cPercent = new Character( (char) 0x0025);
-		if ( cSep1.equals(c) || cSep2.equals(c) ) {
+		if ( c == SEP_1 || c == SEP_2 ) {
 			theCurrentState = States.N1;
 			return Signal.nop;
 		// As well as the percentage sign
-		} else if ( cPercent.equals(c) ) {
+		} else if ( c == PERCENT ) {
 			theCurrentState = States.N3;
 			return Signal.nop;
 		} else {
@@ -854,7 +1001,7 @@ public class FrenchTokenizerAutomaton {
 	 * N1 -> P0 [ label = "{Pc,Pd,Pe,Pi,Pf,Po}/switch_word" ];
 	 * N1 -> U0 [ label = "other/switch_word" ];
 	 */
-	private Signal feedCharN1(char c) {
+	private Signal feedCharN1(int c) {
 		switch ( Character.getType(c) ) {
 		// Keep going if we get a number char
 		// Nd = DECIMAL_DIGIT_NUMBER
@@ -908,10 +1055,9 @@ public class FrenchTokenizerAutomaton {
 	 * N2 -> P0 [ label = "{Pc,Pd,Pe,Pi,Pf,Po}/switch_word" ]; 
 	 * N2 -> U0 [ label = "other/end_word" ];
 	 */
-	private Signal feedCharN2(char c) {
+	private Signal feedCharN2(int c) {
 		// First check the particular case of the percentage sign
-		Character cPercent = new Character( (char) 0x0025);
-		 if ( cPercent.equals(c) ) {
+		if ( c == PERCENT ) {
 			theCurrentState = States.N3;
 			return Signal.nop;
 		} else {
@@ -976,7 +1122,7 @@ public class FrenchTokenizerAutomaton {
 	 * N3 -> P0 [ label = "{Pc,Pd,Pe,Pi,Pf,Po}/switch_word" ]; 
 	 * N3 -> U0 [ label = "other/switch_word" ];
 	 */
-	private Signal feedCharN3(char c) {
+	private Signal feedCharN3(int c) {
 		switch ( Character.getType(c) ) {
 		// Space : ends the word
 		// Zl = LINE_SEPARATOR
@@ -1045,10 +1191,9 @@ public class FrenchTokenizerAutomaton {
 	 * N4 -> P0 [ label = "{Pc,Pd,Pe,Pi,Pf,Po}/switch_word" ];
 	 * N4 -> U0 [ label = "other/switch_word_prev" ];
 	 */
-	private Signal feedCharN4(char c) {
+	private Signal feedCharN4(int c) {
 		// First check the particular case of the percentage sign
-		Character cPercent = new Character( (char) 0x0025);
-		 if ( cPercent.equals(c) ) {
+		if ( c == PERCENT ) {
 			theCurrentState = States.N3;
 			return Signal.nop;
 		} else {
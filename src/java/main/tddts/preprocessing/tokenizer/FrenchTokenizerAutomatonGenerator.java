@@ -0,0 +1,616 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+// Tokenizer dependencies
+import static tddts.preprocessing.tokenizer.CompiledFrenchTokenizerAutomaton.*;
+import tddts.preprocessing.tokenizer.FrenchTokenizerAutomaton.Signal;
+
+/**
+ * Generates the source of {@link FrenchTokenizerTables}, the tables run by
+ * {@link CompiledFrenchTokenizerAutomaton}, from the specification of the
+ * automaton written as a Graphviz DOT graph.
+ *
+ * Each node of the graph is a state, declared with the type of the tokens
+ * built in it : <code>L0 [ type = word ];</code>. The initial state is the
+ * target of the edge leaving the <code>null</code> node. Each other edge is
+ * a transition labelled with the chars it applies to and the signal it
+ * sends, as in the documentation of {@link FrenchTokenizerAutomaton} :
+ * <code>L0 -> L5 [ label = "{U+0075,U+0055}/nop" ];</code>. A char is
+ * given either by its code point or by its Unicode general category, and
+ * <code>other</code> stands for the chars no other transition of the state
+ * applies to. The code points take precedence over the categories.
+ *
+ * The labels are resolved on the character classes of the compiled
+ * automaton, then the equivalent states, which build tokens of the same
+ * type and send the same signals to equivalent states, are merged.
+ *
+ * Usage : FrenchTokenizerAutomatonGenerator specification.dot outputFile
+ */
+public class FrenchTokenizerAutomatonGenerator {
+
+	/** Path of the specification in the project */
+	public static final String SPECIFICATION =
+		"desc/tddts/preprocessing/tokenizer/FrenchTokenizerAutomaton.dot";
+
+	/** Name of the node the edge to the initial state leaves */
+	private static final String INITIAL_NODE = "null";
+
+	/** Label of the transitions of the chars no other one applies to */
+	private static final String OTHER = "other";
+
+	/** Code points standing for a character class of their own */
+	private static final int[][] CLASS_CODE_POINTS = new int[NB_CLASSES][];
+
+	/** Unicode general categories of each character class */
+	private static final byte[][] CLASS_CATEGORIES = new byte[NB_CLASSES][];
+
+	/** Unicode general categories indexed by their abbreviation */
+	private static final Map<String, Byte> CATEGORIES =
+		new HashMap<String, Byte>();
+
+	private static final Pattern NODE = Pattern.compile(
+			"(\\w+)\\s*(?:\\[(.*)\\])?\\s*;?");
+	private static final Pattern EDGE = Pattern.compile(
+			"(\\w+)\\s*->\\s*(\\w+)\\s*(?:\\[(.*)\\])?\\s*;?");
+	private static final Pattern ATTRIBUTE = Pattern.compile(
+			"(\\w+)\\s*=\\s*(?:\"([^\"]*)\"|(\\w+))");
+	private static final Pattern LABEL = Pattern.compile(
+			"(?:\\{([^}]*)\\}|(" + OTHER + "))/(\\w+)");
+	private static final Pattern CODE_POINT = Pattern.compile(
+			"U\\+([0-9A-Fa-f]{4,6})");
+
+	static {
+		String[] abbreviations = new String[] {
+			"Cn", "Lu", "Ll", "Lt", "Lm", "Lo", "Mn", "Me", "Mc", "Nd", "Nl",
+			"No", "Zs", "Zl", "Zp", "Cc", "Cf", null, "Co", "Cs", "Pd", "Ps",
+			"Pe", "Pc", "Po", "Sm", "Sc", "Sk", "So", "Pi", "Pf"
+		};
+		for (int type = 0; type < abbreviations.length; type++) {
+			if (abbreviations[type] != null)
+				CATEGORIES.put(abbreviations[type], (byte) type);
+		}
+		for (int cls = 0; cls < NB_CLASSES; cls++)
+			CLASS_CODE_POINTS[cls] = new int[0];
+		CLASS_CODE_POINTS[CLASS_U] = new int[] { 0x0075, 0x0055 };
+		CLASS_CODE_POINTS[CLASS_APOSTROPHE] = new int[] { 0x0027, 0x2019 };
+		CLASS_CODE_POINTS[CLASS_APOSTROPHE_LETTER] = new int[] { 0x02BC };
+		CLASS_CODE_POINTS[CLASS_DOT] = new int[] { 0x002E };
+		CLASS_CODE_POINTS[CLASS_SLASH] = new int[] { 0x002F };
+		CLASS_CODE_POINTS[CLASS_COMMA] = new int[] { 0x002C };
+		CLASS_CODE_POINTS[CLASS_PERCENT] = new int[] { 0x0025 };
+		CLASS_CATEGORIES[CLASS_SEPARATOR] = categories("Zl", "Zp", "Zs");
+		CLASS_CATEGORIES[CLASS_NUMBER] = categories("Nd", "Nl", "No");
+		CLASS_CATEGORIES[CLASS_LETTER] =
+			categories("Ll", "Lu", "Lm", "Lo", "Lt");
+		CLASS_CATEGORIES[CLASS_DASH] = categories("Pd");
+		CLASS_CATEGORIES[CLASS_PUNCTUATION] =
+			categories("Pc", "Pe", "Pi", "Pf", "Po", "Ps");
+		CLASS_CATEGORIES[CLASS_CURRENCY] = categories("Sc");
+		CLASS_CATEGORIES[CLASS_OTHER] = categories();
+		for (int cls = 0; cls < NB_CLASSES; cls++) {
+			// The classes of particular chars take their categories
+			if (CLASS_CATEGORIES[cls] == null) {
+				int[] codePoints = CLASS_CODE_POINTS[cls];
+				CLASS_CATEGORIES[cls] = new byte[codePoints.length];
+				for (int i = 0; i < codePoints.length; i++)
+					CLASS_CATEGORIES[cls][i] =
+						(byte) Character.getType(codePoints[i]);
+			}
+		}
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage: FrenchTokenizerAutomatonGenerator "
+					+ "specification.dot outputFile");
+			System.exit(1);
+		}
+		Specification specification = parse(new File(args[0]));
+		PrintWriter out = new PrintWriter(new OutputStreamWriter(
+				new FileOutputStream(new File(args[1])), "UTF-8"));
+		try {
+			generate(specification.minimize(), out);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Read the specification of the automaton from a DOT file.
+	 */
+	static Specification parse(File file) throws IOException {
+		Reader in = new InputStreamReader(new FileInputStream(file), "UTF-8");
+		try {
+			return parse(in);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Read the specification of the automaton from a DOT graph.
+	 *
+	 * @throws IllegalArgumentException if the graph is not a complete and
+	 * deterministic specification
+	 */
+	static Specification parse(Reader in) throws IOException {
+		BufferedReader reader = new BufferedReader(in);
+		Map<String, String> types = new LinkedHashMap<String, String>();
+		Map<String, List<Edge>> edges = new LinkedHashMap<String, List<Edge>>();
+		String initial = null;
+		String line;
+		int number = 0;
+		while ((line = reader.readLine()) != null) {
+			number++;
+			line = line.trim();
+			if (line.isEmpty() || line.startsWith("//") || line.equals("}")
+					|| line.startsWith("digraph") || line.contains("=")
+					&& !line.contains("["))
+				continue;
+			Matcher edge = EDGE.matcher(line);
+			Matcher node = NODE.matcher(line);
+			if (edge.matches()) {
+				String source = edge.group(1);
+				String target = edge.group(2);
+				if (source.equals(INITIAL_NODE)) {
+					if (initial != null)
+						throw error(number, "several initial states");
+					initial = target;
+				} else {
+					Edge transition = new Edge(number, target,
+							attributes(edge.group(3)).get("label"));
+					if (!edges.containsKey(source))
+						edges.put(source, new ArrayList<Edge>());
+					edges.get(source).add(transition);
+				}
+			} else if (node.matches()) {
+				if (node.group(1).equals(INITIAL_NODE))
+					continue;
+				String type = attributes(node.group(2)).get("type");
+				if (type == null)
+					throw error(number, "no type for state " + node.group(1));
+				types.put(node.group(1), type);
+			} else {
+				throw error(number, "cannot parse " + line);
+			}
+		}
+		if (initial == null)
+			throw error(number, "no initial state");
+		return new Specification(types, edges, initial);
+	}
+
+	/**
+	 * Write the source of the tables of a minimized automaton.
+	 */
+	static void generate(Specification automaton, PrintWriter out) {
+		int nbStates = automaton.names.size();
+		out.println("/* This file is licensed to you under the Apache License,");
+		out.println(" * Version 2.0 (the \"License\"); you may not use this file except");
+		out.println(" * in compliance with the License.  You may obtain a copy of the");
+		out.println(" * License at");
+		out.println(" *");
+		out.println(" *   http://www.apache.org/licenses/LICENSE-2.0");
+		out.println(" *");
+		out.println(" * Unless required by applicable law or agreed to in writing,");
+		out.println(" * software distributed under the License is distributed on an");
+		out.println(" * \"AS IS\" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY");
+		out.println(" * KIND, either express or implied.  See the License for the");
+		out.println(" * specific language governing permissions and limitations");
+		out.println(" * under the License.");
+		out.println(" */");
+		out.println("package tddts.preprocessing.tokenizer;");
+		out.println();
+		out.println("/**");
+		out.println(" * Tables of the minimal French tokenizer automaton, compiled from");
+		out.println(" * its specification FrenchTokenizerAutomaton.dot.");
+		out.println(" *");
+		out.println(" * GENERATED by FrenchTokenizerAutomatonGenerator, do not edit.");
+		out.println(" */");
+		out.println("final class FrenchTokenizerTables {");
+		out.println();
+		out.println("\t/**");
+		out.println("\t * Names of the states, each one being named after the first of the");
+		out.println("\t * states of the specification merged into it");
+		out.println("\t */");
+		out.println("\tstatic final String[] STATE_NAMES = new String[] {");
+		out.println("\t\t" + quote(automaton.names));
+		out.println("\t};");
+		out.println();
+		out.println("\t/** Initial state */");
+		out.println("\tstatic final int INITIAL = " + automaton.initial + ";");
+		out.println();
+		out.println("\t/** Ordinal of the type of the tokens built in each state */");
+		out.println("\tstatic final byte[] TYPES = new byte[] {");
+		StringBuilder types = new StringBuilder("\t\t");
+		for (int state = 0; state < nbStates; state++) {
+			types.append(automaton.types.get(state).ordinal());
+			if (state + 1 < nbStates)
+				types.append(", ");
+		}
+		out.println(types);
+		out.println("\t};");
+		out.println();
+		out.println("\t/** States of the specification, and the state each one is merged into */");
+		out.println("\tstatic final String[] SPECIFIED_STATES = new String[] {");
+		out.println("\t\t" + quote(automaton.specified));
+		out.println("\t};");
+		out.println("\tstatic final int[] MERGED_INTO = new int[] {");
+		StringBuilder merged = new StringBuilder("\t\t");
+		for (int i = 0; i < automaton.mergedInto.length; i++) {
+			merged.append(automaton.mergedInto[i]);
+			if (i + 1 < automaton.mergedInto.length)
+				merged.append(", ");
+		}
+		out.println(merged);
+		out.println("\t};");
+		out.println();
+		out.println("\t/**");
+		out.println("\t * Packed transitions indexed by (state << " + STATE_SHIFT
+				+ ") | class : the next state");
+		out.println("\t * is stored in the upper bits, the signal in the lower four.");
+		out.println("\t */");
+		out.println("\tstatic final int[] TRANSITIONS = new int[] {");
+		for (int state = 0; state < nbStates; state++) {
+			out.println("\t\t// " + automaton.names.get(state));
+			StringBuilder line = new StringBuilder("\t\t");
+			for (int cls = 0; cls < 1 << STATE_SHIFT; cls++) {
+				int t = automaton.transitions[(state << STATE_SHIFT) | cls];
+				line.append(String.format("0x%02x,", t));
+				if (cls + 1 < 1 << STATE_SHIFT)
+					line.append(' ');
+			}
+			out.println(line);
+		}
+		out.println("\t};");
+		out.println();
+		out.println("\tprivate FrenchTokenizerTables() {");
+		out.println("\t}");
+		out.println("}");
+	}
+
+	// PRIVATE METHODS ---------------------------------------------------------
+
+	/**
+	 * @return the Unicode general categories of the given abbreviations
+	 */
+	private static byte[] categories(String... abbreviations) {
+		byte[] categories = new byte[abbreviations.length];
+		for (int i = 0; i < abbreviations.length; i++)
+			categories[i] = CATEGORIES.get(abbreviations[i]);
+		return categories;
+	}
+
+	/**
+	 * @return true if the code point is one of those of a class of
+	 * particular chars
+	 */
+	private static boolean hasClass(int c) {
+		for (int[] codePoints : CLASS_CODE_POINTS) {
+			for (int codePoint : codePoints) {
+				if (codePoint == c)
+					return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return true if the category is one of those of a class
+	 */
+	private static boolean hasClass(byte category) {
+		for (byte[] categories : CLASS_CATEGORIES) {
+			for (byte c : categories) {
+				if (c == category)
+					return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return the attributes of a DOT attribute list, which may be null
+	 */
+	private static Map<String, String> attributes(String list) {
+		Map<String, String> attributes = new HashMap<String, String>();
+		if (list == null)
+			return attributes;
+		Matcher m = ATTRIBUTE.matcher(list);
+		while (m.find())
+			attributes.put(m.group(1), m.group(2) != null ? m.group(2)
+					: m.group(3));
+		return attributes;
+	}
+
+	/**
+	 * @return the strings quoted and separated by commas, eight on each line
+	 */
+	private static String quote(List<String> strings) {
+		StringBuilder quoted = new StringBuilder();
+		for (int i = 0; i < strings.size(); i++) {
+			if (i > 0)
+				quoted.append(i % 8 == 0 ? ",\n\t\t" : ", ");
+			quoted.append('"').append(strings.get(i)).append('"');
+		}
+		return quoted.toString();
+	}
+
+	private static IllegalArgumentException error(int line, String message) {
+		return new IllegalArgumentException("line " + line + ": " + message);
+	}
+
+	/**
+	 * A transition of the specification.
+	 */
+	private static class Edge {
+
+		final int line;
+		final String target;
+		final Set<Integer> codePoints = new HashSet<Integer>();
+		final Set<Byte> categories = new HashSet<Byte>();
+		final boolean other;
+		final Signal signal;
+
+		Edge(int line, String target, String label) {
+			this.line = line;
+			this.target = target;
+			Matcher m = label == null ? null : LABEL.matcher(label.trim());
+			if (m == null || !m.matches())
+				throw error(line, "cannot parse label " + label);
+			this.other = m.group(2) != null;
+			try {
+				this.signal = Signal.valueOf(m.group(3));
+			} catch (IllegalArgumentException e) {
+				throw error(line, "unknown signal " + m.group(3));
+			}
+			if (other)
+				return;
+			for (String item : m.group(1).split(",")) {
+				item = item.trim();
+				Matcher codePoint = CODE_POINT.matcher(item);
+				if (codePoint.matches()) {
+					int c = Integer.parseInt(codePoint.group(1), 16);
+					if (!hasClass(c))
+						throw error(line, item + " has no class of its own");
+					codePoints.add(c);
+				} else if (CATEGORIES.containsKey(item)) {
+					if (!hasClass(CATEGORIES.get(item)))
+						throw error(line, item + " is only part of " + OTHER);
+					categories.add(CATEGORIES.get(item));
+				} else {
+					throw error(line, "unknown category " + item);
+				}
+			}
+		}
+
+		/**
+		 * @return true if the transition lists some of the code points of
+		 * the class, failing if it does not list them all
+		 */
+		boolean listsCodePoints(int cls) {
+			int listed = 0;
+			for (int c : CLASS_CODE_POINTS[cls]) {
+				if (codePoints.contains(c))
+					listed++;
+			}
+			if (listed != 0 && listed != CLASS_CODE_POINTS[cls].length)
+				throw error(line, "some code points of the class of U+"
+						+ Integer.toHexString(CLASS_CODE_POINTS[cls][0])
+						+ " are missing");
+			return listed != 0;
+		}
+
+		/**
+		 * @return true if the transition lists a category of the class
+		 */
+		boolean listsCategory(int cls) {
+			for (byte category : CLASS_CATEGORIES[cls]) {
+				if (categories.contains(category))
+					return true;
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * An automaton over the character classes : the states are numbered in
+	 * the order they are declared, the transitions packed as in
+	 * {@link CompiledFrenchTokenizerAutomaton#TRANSITIONS}.
+	 */
+	static class Specification {
+
+		/** Names of the states */
+		final List<String> names;
+
+		/** Type of the tokens built in each state */
+		final List<TokenType> types;
+
+		/** Initial state */
+		final int initial;
+
+		/** Packed transitions indexed by (state << STATE_SHIFT) | class */
+		final int[] transitions;
+
+		/** States of the specification, and the state each one is merged into */
+		final List<String> specified;
+		final int[] mergedInto;
+
+		private Specification(Map<String, String> types,
+				Map<String, List<Edge>> edges, String initial) {
+			this.names = new ArrayList<String>(types.keySet());
+			this.types = new ArrayList<TokenType>();
+			for (Map.Entry<String, String> type : types.entrySet()) {
+				try {
+					this.types.add(TokenType.valueOf(type.getValue()));
+				} catch (IllegalArgumentException e) {
+					throw new IllegalArgumentException("unknown type "
+							+ type.getValue() + " for state " + type.getKey());
+				}
+			}
+			this.initial = state(initial, 0);
+			this.transitions = new int[names.size() << STATE_SHIFT];
+			for (String source : edges.keySet())
+				state(source, edges.get(source).get(0).line);
+			for (int state = 0; state < names.size(); state++) {
+				List<Edge> out = edges.get(names.get(state));
+				if (out == null)
+					throw new IllegalArgumentException("no transition from "
+							+ names.get(state));
+				for (int cls = 0; cls < NB_CLASSES; cls++) {
+					Edge edge = resolve(names.get(state), out, cls);
+					transitions[(state << STATE_SHIFT) | cls] =
+						(state(edge.target, edge.line) << NEXT_STATE_SHIFT)
+						| edge.signal.ordinal();
+				}
+			}
+			this.specified = names;
+			this.mergedInto = new int[names.size()];
+			for (int state = 0; state < names.size(); state++)
+				mergedInto[state] = state;
+		}
+
+		private Specification(Specification specification, int[] blocks,
+				int nbBlocks) {
+			this.names = new ArrayList<String>();
+			this.types = new ArrayList<TokenType>();
+			this.transitions = new int[nbBlocks << STATE_SHIFT];
+			for (int state = 0; state < blocks.length; state++) {
+				int block = blocks[state];
+				if (block < names.size())
+					continue;
+				names.add(specification.names.get(state));
+				types.add(specification.types.get(state));
+				for (int cls = 0; cls < NB_CLASSES; cls++) {
+					int t = specification.transitions[(state << STATE_SHIFT)
+					                                  | cls];
+					transitions[(block << STATE_SHIFT) | cls] =
+						(blocks[t >>> NEXT_STATE_SHIFT] << NEXT_STATE_SHIFT)
+						| (t & SIGNAL_MASK);
+				}
+			}
+			this.initial = blocks[specification.initial];
+			this.specified = specification.specified;
+			this.mergedInto = new int[specified.size()];
+			for (int i = 0; i < mergedInto.length; i++)
+				mergedInto[i] = blocks[specification.mergedInto[i]];
+		}
+
+		/**
+		 * Merge the equivalent states : starting from the states grouped by
+		 * the type of their tokens, the groups are split until all the states
+		 * of a group send the same signals to states of the same groups.
+		 *
+		 * @return the minimal automaton
+		 */
+		Specification minimize() {
+			int[] blocks = new int[names.size()];
+			for (int state = 0; state < blocks.length; state++)
+				blocks[state] = types.get(state).ordinal();
+			int nbBlocks;
+			while (true) {
+				Map<List<Integer>, Integer> signatures =
+					new LinkedHashMap<List<Integer>, Integer>();
+				int[] refined = new int[blocks.length];
+				for (int state = 0; state < blocks.length; state++) {
+					List<Integer> signature = new ArrayList<Integer>();
+					signature.add(blocks[state]);
+					for (int cls = 0; cls < NB_CLASSES; cls++) {
+						int t = transitions[(state << STATE_SHIFT) | cls];
+						signature.add((blocks[t >>> NEXT_STATE_SHIFT]
+								<< NEXT_STATE_SHIFT) | (t & SIGNAL_MASK));
+					}
+					Integer block = signatures.get(signature);
+					if (block == null) {
+						block = signatures.size();
+						signatures.put(signature, block);
+					}
+					refined[state] = block;
+				}
+				nbBlocks = signatures.size();
+				// The blocks are numbered in the order of their first state,
+				// so a refinement that splits nothing leaves them unchanged
+				if (Arrays.equals(refined, blocks))
+					break;
+				blocks = refined;
+			}
+			return new Specification(this, blocks, nbBlocks);
+		}
+
+		/**
+		 * @return the number of the state of the given name
+		 */
+		private int state(String name, int line) {
+			int state = names.indexOf(name);
+			if (state == -1)
+				throw error(line, "undeclared state " + name);
+			return state;
+		}
+
+		/**
+		 * @return the transition of a state applying to a class
+		 */
+		private static Edge resolve(String state, List<Edge> edges, int cls) {
+			Edge found = null;
+			for (Edge edge : edges) {
+				if (edge.listsCodePoints(cls))
+					found = unique(found, edge, state, cls);
+			}
+			if (found != null)
+				return found;
+			for (Edge edge : edges) {
+				if (edge.listsCategory(cls))
+					found = unique(found, edge, state, cls);
+			}
+			if (found != null)
+				return found;
+			for (Edge edge : edges) {
+				if (edge.other)
+					found = unique(found, edge, state, cls);
+			}
+			if (found == null)
+				throw new IllegalArgumentException("no transition from "
+						+ state + " for class " + cls);
+			return found;
+		}
+
+		private static Edge unique(Edge found, Edge edge, String state,
+				int cls) {
+			if (found != null)
+				throw error(edge.line, "several transitions from " + state
+						+ " for class " + cls + ", see line " + found.line);
+			return edge;
+		}
+	}
+}
@@ -0,0 +1,260 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.util.Iterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+// Tokenizer dependencies
+import static tddts.preprocessing.tokenizer.CompiledFrenchTokenizerAutomaton.*;
+import static tddts.preprocessing.tokenizer.FrenchTokenizerAutomaton.codePointAt;
+import static tddts.preprocessing.tokenizer.FrenchTokenizerAutomaton.flush;
+import static tddts.preprocessing.tokenizer.UnicodeClassTable.classOf;
+import tddts.preprocessing.tokenizer.FrenchTokenizerAutomaton.Signal;
+
+/**
+ * This class runs the compiled French tokenizer automaton without holding
+ * any state : the state of a tokenization is a plain int kept by the
+ * caller, from {@link #initialState()} through {@link #step(int, int)}, or
+ * in local variables of {@link #tokenize(CharSequence, int, int, TokenSink)}.
+ *
+ * The engine is immutable, so a single instance, sharing a single copy of
+ * the tables, can be used by any number of threads at the same time.
+ */
+public final class FrenchTokenizerEngine {
+
+	/** Mask and bits common to all the surrogate chars */
+	private static final int SURROGATE_MASK = 0xF800;
+	private static final int SURROGATE_BITS = 0xD800;
+
+	/**
+	 * Begin of a token started in a previous piece of a text, see
+	 * {@link #resume(char[], int, int, int, int, int, TokenSink)}
+	 */
+	static final int CARRIED = Integer.MIN_VALUE;
+
+	/**
+	 * Distance from the start of a token to the ASCII letter announcing a
+	 * run worth skipping, see
+	 * {@link #resume(char[], int, int, int, int, int, TokenSink)}
+	 */
+	private static final int RUN_AHEAD = 3;
+
+	/** The engine shared by all the tokenizers */
+	private static final FrenchTokenizerEngine INSTANCE =
+		new FrenchTokenizerEngine();
+
+	private FrenchTokenizerEngine() {
+	}
+
+	// INTERFACE ---------------------------------------------------------------
+
+	/**
+	 * @return the engine, shared by all the threads
+	 */
+	public static FrenchTokenizerEngine getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * @return the state before the first code point of a text
+	 */
+	public int initialState() {
+		return INITIAL;
+	}
+
+	/**
+	 * Compute the transition of the automaton for a code point.
+	 *
+	 * @param state the current state
+	 * @param c the code point
+	 *
+	 * @return the transition, giving the next state and the signal sent
+	 *
+	 * @see #nextState(int)
+	 * @see #signal(int)
+	 */
+	public int step(int state, int c) {
+		return TRANSITIONS[(state << STATE_SHIFT) | classOf(c)];
+	}
+
+	/**
+	 * @return the state a transition leads to
+	 */
+	public static int nextState(int transition) {
+		return transition >>> NEXT_STATE_SHIFT;
+	}
+
+	/**
+	 * @return the signal sent by a transition
+	 */
+	public static Signal signal(int transition) {
+		return SIGNALS[transition & SIGNAL_MASK];
+	}
+
+	/**
+	 * @return the type of the tokens built in a state
+	 */
+	public TokenType typeOf(int state) {
+		return TYPES[state];
+	}
+
+	/**
+	 * This method runs the automaton over a whole piece of text, keeping the
+	 * state in a local variable and only interpreting the signals that are
+	 * not nop. The surrogate pairs, rare, are checked on a single test of
+	 * the char. Unlike the array form, the long runs of ASCII letters are
+	 * not skipped : through charAt(), any form of the skip made the loop
+	 * slower on texts of short words.
+	 *
+	 * @param text the text to tokenize
+	 * @param from offset of the first char to consider
+	 * @param to offset following the last char to consider
+	 * @param sink the receiver of the tokens offsets
+	 *
+	 * @return the state the automaton ended in
+	 */
+	public int tokenize(CharSequence text, int from, int to, TokenSink sink) {
+		int state = INITIAL;
+		int begin = -1;
+		int previous = from;
+		for (int i = from; i < to; i++) {
+			int c = text.charAt(i);
+			int start = i;
+			if ((c & SURROGATE_MASK) == SURROGATE_BITS) {
+				c = codePointAt(text, i, to);
+				i += Character.charCount(c) - 1;
+			}
+			int t = TRANSITIONS[(state << STATE_SHIFT) | classOf(c)];
+			if ((t & SIGNAL_MASK) != NOP)
+				begin = FrenchTokenizerAutomaton.signal(SIGNALS[t & SIGNAL_MASK],
+						start, previous, begin, TYPES[state], sink);
+			state = t >>> NEXT_STATE_SHIFT;
+			previous = start;
+		}
+		flush(begin, to, TYPES[state], sink);
+		return state;
+	}
+
+	/**
+	 * This method runs the automaton over a whole piece of text, keeping the
+	 * state in a local variable and only interpreting the signals that are
+	 * not nop. The surrogate pairs, rare, are checked on a single test of
+	 * the char. When a token starts on a long run of ASCII letters, the run
+	 * is skipped without looking up their class and transition.
+	 *
+	 * @param text array holding the text to tokenize
+	 * @param from index of the first char to consider
+	 * @param to index following the last char to consider
+	 * @param sink the receiver of the tokens offsets
+	 *
+	 * @return the state the automaton ended in
+	 */
+	public int tokenize(char[] text, int from, int to, TokenSink sink) {
+		long end = resume(text, from, to, INITIAL, -1, from, sink);
+		int state = (int) (end >>> 32);
+		flush((int) end, to, TYPES[state], sink);
+		return state;
+	}
+
+	/**
+	 * Run the automaton over one piece of a text cut in several pieces, as
+	 * {@link #tokenize(char[], int, int, TokenSink)} does, from the state the
+	 * previous piece ended in. The token still open at the end of the piece
+	 * is not flushed. A piece must not end with a high surrogate whose low
+	 * surrogate is in the next piece.
+	 *
+	 * @param text array holding the piece
+	 * @param from index of the first char of the piece
+	 * @param to index following the last char of the piece
+	 * @param state the state the previous piece ended in
+	 * @param begin index where the current token started, -1 if none,
+	 * {@link #CARRIED} if it started in a previous piece
+	 * @param previous index of the code point fed before the piece, negative
+	 * if it is in a previous piece
+	 * @param sink the receiver of the tokens offsets, given CARRIED as the
+	 * begin of a token started in a previous piece
+	 *
+	 * @return the state the automaton ended in and the index where the
+	 * current token started, packed as (state << 32) | begin
+	 */
+	long resume(char[] text, int from, int to, int state, int begin,
+			int previous, TokenSink sink) {
+		for (int i = from; i < to; i++) {
+			int c = text[i];
+			int start = i;
+			if ((c & SURROGATE_MASK) == SURROGATE_BITS) {
+				c = Character.codePointAt(text, i, to);
+				i += Character.charCount(c) - 1;
+			}
+			int t = TRANSITIONS[(state << STATE_SHIFT) | classOf(c)];
+			if ((t & SIGNAL_MASK) != NOP) {
+				begin = FrenchTokenizerAutomaton.signal(SIGNALS[t & SIGNAL_MASK],
+						start, previous, begin, TYPES[state], sink);
+				state = t >>> NEXT_STATE_SHIFT;
+				previous = start;
+				// The skip is only tried when a token starts, and only entered
+				// when the letter RUN_AHEAD chars further announces a long
+				// run : a test per char, or a loop exited after a few letters
+				// on each short word, costs more on prose than the tables.
+				if (i + RUN_AHEAD < to && isAsciiLetter(text[i + RUN_AHEAD])
+						&& isAsciiLetter(text[i + 1])) {
+					int u = TRANSITIONS[(state << STATE_SHIFT) | classOf(text[i + 1])];
+					if ((u & SIGNAL_MASK) == NOP
+							&& LETTER_LOOPS[u >>> NEXT_STATE_SHIFT]) {
+						int j = i + 2;
+						while (j < to && isAsciiLetter(text[j]))
+							j++;
+						state = u >>> NEXT_STATE_SHIFT;
+						i = j - 1;
+						previous = i;
+					}
+				}
+				continue;
+			}
+			state = t >>> NEXT_STATE_SHIFT;
+			previous = start;
+		}
+		return ((long) state << 32) | (begin & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * @return the tokens of the text, computed as they are consumed
+	 *
+	 * @see FrenchTokenSpliterator
+	 */
+	public Iterator<Token> iterator(CharSequence text) {
+		return Spliterators.iterator(new FrenchTokenSpliterator(text, 0,
+				text.length(), FrenchTokenSpliterator.DEFAULT_CHUNK_SIZE));
+	}
+
+	/**
+	 * @param text the text to tokenize
+	 * @param parallel true to tokenize the text on several cores, split at
+	 * safe points
+	 *
+	 * @return the tokens of the text, in order, computed as they are
+	 * consumed
+	 *
+	 * @see FrenchTokenSpliterator
+	 */
+	public Stream<Token> stream(CharSequence text, boolean parallel) {
+		return StreamSupport.stream(new FrenchTokenSpliterator(text, 0,
+				text.length(), FrenchTokenSpliterator.DEFAULT_CHUNK_SIZE),
+				parallel);
+	}
+}
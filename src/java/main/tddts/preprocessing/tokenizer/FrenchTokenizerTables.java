@@ -0,0 +1,88 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+/**
+ * Tables of the minimal French tokenizer automaton, compiled from
+ * its specification FrenchTokenizerAutomaton.dot.
+ *
+ * GENERATED by FrenchTokenizerAutomatonGenerator, do not edit.
+ */
+final class FrenchTokenizerTables {
+
+	/**
+	 * Names of the states, each one being named after the first of the
+	 * states of the specification merged into it
+	 */
+	static final String[] STATE_NAMES = new String[] {
+		"O0", "U0", "P0", "L0", "L1", "L2", "L3", "L4",
+		"L5", "N0", "N1", "N2", "N3", "N4"
+	};
+
+	/** Initial state */
+	static final int INITIAL = 0;
+
+	/** Ordinal of the type of the tokens built in each state */
+	static final byte[] TYPES = new byte[] {
+		3, 3, 2, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 1
+	};
+
+	/** States of the specification, and the state each one is merged into */
+	static final String[] SPECIFIED_STATES = new String[] {
+		"O0", "U0", "P0", "L0", "L1", "L2", "L3", "L4",
+		"L5", "L6", "N0", "N1", "N2", "N3", "N4"
+	};
+	static final int[] MERGED_INTO = new int[] {
+		0, 1, 2, 3, 4, 5, 6, 7, 8, 7, 9, 10, 11, 12, 13
+	};
+
+	/**
+	 * Packed transitions indexed by (state << 4) | class : the next state
+	 * is stored in the upper bits, the signal in the lower four.
+	 */
+	static final int[] TRANSITIONS = new int[] {
+		// O0
+		0x06, 0x90, 0x30, 0x30, 0x10, 0x30, 0x10, 0x10, 0x10, 0x10, 0x10, 0x10, 0x10, 0x10, 0x00, 0x00,
+		// U0
+		0x01, 0x92, 0x32, 0x32, 0x16, 0x32, 0x16, 0x16, 0x16, 0x16, 0x16, 0x16, 0x16, 0x16, 0x00, 0x00,
+		// P0
+		0x01, 0x92, 0x32, 0x32, 0x26, 0x32, 0x26, 0x26, 0x26, 0x26, 0x26, 0x26, 0x12, 0x12, 0x00, 0x00,
+		// L0
+		0x01, 0x12, 0x46, 0x86, 0x56, 0x56, 0x76, 0x76, 0x22, 0x22, 0x76, 0x22, 0x12, 0x12, 0x00, 0x00,
+		// L1
+		0x01, 0x12, 0x46, 0x46, 0x66, 0x66, 0x22, 0x66, 0x22, 0x22, 0x66, 0x22, 0x12, 0x12, 0x00, 0x00,
+		// L2
+		0x05, 0x16, 0x42, 0x42, 0x22, 0x42, 0x22, 0x22, 0x22, 0x22, 0x22, 0x22, 0x16, 0x16, 0x00, 0x00,
+		// L3
+		0x03, 0x76, 0x46, 0x46, 0x22, 0x46, 0x22, 0x22, 0x22, 0x22, 0x22, 0x22, 0x14, 0x14, 0x00, 0x00,
+		// L4
+		0x01, 0x76, 0x46, 0x46, 0x22, 0x46, 0x22, 0x22, 0x22, 0x22, 0x22, 0x22, 0x12, 0x12, 0x00, 0x00,
+		// L5
+		0x01, 0x12, 0x46, 0x46, 0x56, 0x56, 0x22, 0x22, 0x22, 0x22, 0x22, 0x22, 0x12, 0x12, 0x00, 0x00,
+		// N0
+		0x01, 0x96, 0x12, 0x12, 0x22, 0x12, 0xa6, 0x22, 0xa6, 0xc6, 0x22, 0x22, 0xc6, 0x12, 0x00, 0x00,
+		// N1
+		0x04, 0xb6, 0x12, 0x12, 0x22, 0x12, 0x22, 0x22, 0x22, 0x22, 0x22, 0x22, 0x12, 0x12, 0x00, 0x00,
+		// N2
+		0xd6, 0xb6, 0x12, 0x12, 0x22, 0x12, 0x22, 0x22, 0x22, 0xc6, 0x22, 0x22, 0xc6, 0x12, 0x00, 0x00,
+		// N3
+		0x01, 0x92, 0x32, 0x32, 0x22, 0x32, 0x22, 0x22, 0x22, 0x22, 0x22, 0x22, 0x12, 0x12, 0x00, 0x00,
+		// N4
+		0x03, 0x94, 0x34, 0x34, 0x22, 0x34, 0x22, 0x22, 0x22, 0xc6, 0x22, 0x22, 0xc6, 0x14, 0x00, 0x00,
+	};
+
+	private FrenchTokenizerTables() {
+	}
+}
@@ -18,17 +18,28 @@
  */
 package tddts.preprocessing.tokenizer;
 
+// Java dependencies
+import java.io.File;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import javax.management.JMException;
 // UIMA dependencies
 import org.apache.uima.UimaContext;
 import org.apache.uima.analysis_component.CasAnnotator_ImplBase;
 import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
 import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.Feature;
 import org.apache.uima.cas.Type;
 import org.apache.uima.cas.TypeSystem;
+import org.apache.uima.cas.impl.LowLevelCAS;
+import org.apache.uima.cas.impl.LowLevelIndexRepository;
+import org.apache.uima.cas.impl.LowLevelTypeSystem;
 import org.apache.uima.cas.text.AnnotationFS;
 import org.apache.uima.resource.ResourceInitializationException;
-// Transducer dependency
-import tddts.preprocessing.tokenizer.FrenchTokenizerAutomaton.Signal;
 
 /**
  * This class implements a tokenizer using a particular kind of transducer to
@@ -40,15 +51,81 @@ public class FrenchUnicodeTokenizer extends CasAnnotator_ImplBase {
 
 	/** Name of the types to use for annotation */
 	public static final String TOKEN_NAME    = "org.apache.uima.TokenAnnotation";
+	
+	/** Name of the feature holding the kind of the token */
+	public static final String TOKEN_TYPE_FEAT_NAME = "tokentype";
+	
+	/** Name of the feature holding the id of the token in the vocabulary */
+	public static final String TOKEN_ID_FEAT_NAME = "tokenid";
+
+	/** Name of the metrics when none is configured */
+	public static final String DEFAULT_METRICS_NAME = "FrenchUnicodeTokenizer";
+
+	/** One document in this number is sampled when none is configured */
+	public static final int DEFAULT_METRICS_SAMPLING = 256;
+
+	/** Name of the cache when none is configured */
+	public static final String DEFAULT_CACHE_NAME = "FrenchUnicodeTokenizer";
+
+	/** Largest size of the cache directory when none is configured, in MB */
+	public static final int DEFAULT_CACHE_DIRECTORY_SIZE = 1024;
+
+	/** Name of the vocabulary when none is configured */
+	public static final String DEFAULT_VOCABULARY_NAME = "FrenchUnicodeTokenizer";
 
 	/** Types of each kind of annotation */
 	private Type tokenType;
 	
+	/** Feature set to the ordinal of the TokenType of each token */
+	private Feature tokenTypeFeat;
+	
+	/** Feature set to the id of each token, null if not in the type system */
+	private Feature tokenIdFeat;
+	
+	/** Low level codes of the token type and of its features */
+	private int tokenTypeCode;
+	private int beginFeatCode;
+	private int endFeatCode;
+	private int sofaFeatCode;
+	private int tokenTypeFeatCode;
+	private int tokenIdFeatCode;
+	
+	/** Create the tokens through the low level CAS API */
+	private boolean useLowLevelCas;
+	
 	/** List of views to consider */
 	private String[] sofaNames;
 
 	/** The tokenizer automaton */
 	private FrenchTokenizerAutomaton theTransducer;
+	
+	/** The engine shared by all the instances, null with the reference one */
+	private FrenchTokenizerEngine theEngine;
+	
+	/** Workers tokenizing the views concurrently, null when sequential */
+	private ExecutorService workers;
+	
+	/** Splits the large views between several cores, null when disabled */
+	private ParallelFrenchTokenizer parallelTokenizer;
+	
+	/** Published metrics, null when disabled */
+	private TokenizerMetrics metrics;
+	
+	/** The signals and states are counted on one document in this number */
+	private int metricsSampling;
+	
+	/** Documents processed since the last sampled one */
+	private int documentsSinceSample;
+	
+	/** Tokens of the texts already seen, null when disabled */
+	private TokenOffsetCache cache;
+	
+	/** Vocabulary giving the ids of the tokens, null when disabled */
+	private Vocabulary vocabulary;
+	
+	/** Chars and tokens of the document being processed */
+	private long nbChars;
+	private long nbTokens;
 
 	/**
 	 * This method is called before any processing to prepare the types we need.
@@ -59,6 +136,25 @@ public class FrenchUnicodeTokenizer extends CasAnnotator_ImplBase {
 		super.typeSystemInit(typeSystem);
 		// initialize CAS token type
 		this.tokenType    = typeSystem.getType(TOKEN_NAME);
+		this.tokenTypeFeat = tokenType.getFeatureByBaseName(TOKEN_TYPE_FEAT_NAME);
+		// and the codes used by the low level API
+		LowLevelTypeSystem llts = (LowLevelTypeSystem) typeSystem;
+		this.tokenTypeCode = llts.ll_getCodeForType(tokenType);
+		this.beginFeatCode = llts.ll_getCodeForFeature(
+				typeSystem.getFeatureByFullName(CAS.FEATURE_FULL_NAME_BEGIN));
+		this.endFeatCode   = llts.ll_getCodeForFeature(
+				typeSystem.getFeatureByFullName(CAS.FEATURE_FULL_NAME_END));
+		this.sofaFeatCode  = llts.ll_getCodeForFeature(
+				typeSystem.getFeatureByFullName(CAS.FEATURE_FULL_NAME_SOFA));
+		this.tokenTypeFeatCode = llts.ll_getCodeForFeature(tokenTypeFeat);
+		// The ids are only set with a type system declaring their feature
+		this.tokenIdFeat = tokenType.getFeatureByBaseName(TOKEN_ID_FEAT_NAME);
+		if (this.vocabulary != null && this.tokenIdFeat == null)
+			throw new AnalysisEngineProcessException(
+					new IllegalStateException("No " + TOKEN_ID_FEAT_NAME 
+							+ " feature in " + TOKEN_NAME));
+		if (this.tokenIdFeat != null)
+			this.tokenIdFeatCode = llts.ll_getCodeForFeature(tokenIdFeat);
 	}
 
 	/**
@@ -75,8 +171,112 @@ public class FrenchUnicodeTokenizer extends CasAnnotator_ImplBase {
 			(String[]) getContext().getConfigParameterValue("SofaNames");
 		if (this.sofaNames == null || this.sofaNames.length <= 0)
 			this.sofaNames = new String[]{ "_InitialView" };
-		// Initialize the automaton
-		theTransducer = new FrenchTokenizerAutomaton();
+		// Initialize the automaton, the compiled one unless told otherwise
+		Boolean useCompiled = 
+			(Boolean) getContext().getConfigParameterValue("UseCompiledAutomaton");
+		if (useCompiled == null || useCompiled.booleanValue()) {
+			theTransducer = new CompiledFrenchTokenizerAutomaton();
+			theEngine = FrenchTokenizerEngine.getInstance();
+		} else {
+			theTransducer = new FrenchTokenizerAutomaton();
+		}
+		// Split the views larger than the threshold between several cores
+		Integer threshold = 
+			(Integer) getContext().getConfigParameterValue("ParallelThreshold");
+		if (threshold != null && threshold.intValue() > 0)
+			this.parallelTokenizer = new ParallelFrenchTokenizer(
+					theTransducer, threshold.intValue());
+		// Choose how the annotations are created
+		Boolean useLowLevel = 
+			(Boolean) getContext().getConfigParameterValue("UseLowLevelCas");
+		this.useLowLevelCas = useLowLevel != null && useLowLevel.booleanValue();
+		// Prepare the workers if the views are to be tokenized concurrently
+		Integer threads = 
+			(Integer) getContext().getConfigParameterValue("Threads");
+		int nbWorkers = threads == null ? 1 
+				: Math.min(threads.intValue(), this.sofaNames.length);
+		if (nbWorkers > 1)
+			this.workers = Executors.newFixedThreadPool(nbWorkers, 
+					new ThreadFactory() {
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "FrenchUnicodeTokenizer-worker");
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		// Publish the metrics if asked to
+		Boolean enableMetrics = 
+			(Boolean) getContext().getConfigParameterValue("EnableMetrics");
+		if (enableMetrics != null && enableMetrics.booleanValue()) {
+			String name = 
+				(String) getContext().getConfigParameterValue("MetricsName");
+			Integer sampling = 
+				(Integer) getContext().getConfigParameterValue("MetricsSampling");
+			this.metricsSampling = sampling == null ? DEFAULT_METRICS_SAMPLING
+					: sampling.intValue() > 0 ? sampling.intValue()
+					: Integer.MAX_VALUE;
+			try {
+				this.metrics = TokenizerMetrics.acquire(
+						name == null ? DEFAULT_METRICS_NAME : name);
+			} catch (JMException e) {
+				throw new ResourceInitializationException(e);
+			}
+		}
+		// Cache the tokens of the texts if asked to
+		Integer cacheSize = 
+			(Integer) getContext().getConfigParameterValue("CacheSize");
+		if (cacheSize != null && cacheSize.intValue() > 0) {
+			String name = 
+				(String) getContext().getConfigParameterValue("CacheName");
+			String directory = 
+				(String) getContext().getConfigParameterValue("CacheDirectory");
+			Integer directorySize = 
+				(Integer) getContext().getConfigParameterValue("CacheDirectorySize");
+			try {
+				this.cache = TokenOffsetCache.acquire(
+						name == null ? DEFAULT_CACHE_NAME : name,
+						cacheSize.intValue() * 1024L * 1024L,
+						directory == null || directory.length() == 0 ? null 
+								: new File(directory),
+						(directorySize == null ? DEFAULT_CACHE_DIRECTORY_SIZE
+								: directorySize.intValue()) * 1024L * 1024L);
+			} catch (JMException e) {
+				throw new ResourceInitializationException(e);
+			}
+		}
+		// Give the ids of the tokens if asked to
+		Boolean assignIds = 
+			(Boolean) getContext().getConfigParameterValue("AssignTokenIds");
+		if (assignIds != null && assignIds.booleanValue()) {
+			String name = 
+				(String) getContext().getConfigParameterValue("VocabularyName");
+			this.vocabulary = Vocabulary.acquire(
+					name == null ? DEFAULT_VOCABULARY_NAME : name);
+		}
+	}
+	
+	/**
+	 * Release the workers, the metrics, the cache and the vocabulary.
+	 */
+	@Override
+	public void destroy() {
+		if (this.workers != null) {
+			this.workers.shutdown();
+			this.workers = null;
+		}
+		if (this.metrics != null) {
+			this.metrics.release();
+			this.metrics = null;
+		}
+		if (this.cache != null) {
+			this.cache.release();
+			this.cache = null;
+		}
+		if (this.vocabulary != null) {
+			this.vocabulary.release();
+			this.vocabulary = null;
+		}
+		super.destroy();
 	}
 
 	/**
@@ -85,56 +285,174 @@ public class FrenchUnicodeTokenizer extends CasAnnotator_ImplBase {
 	 * @see org.apache.uima.analysis_component.CasAnnotator_ImplBase#process(org.apache.uima.cas.CAS)
 	 */
 	public void process(CAS aCas) throws AnalysisEngineProcessException {
-		// Process each view specified
-		for (int i = 0; i < this.sofaNames.length; i++) {
-			CAS currView = aCas.getView( sofaNames[i] );
-			doTokenization(currView);
+		long start = this.metrics != null ? System.nanoTime() : 0;
+		this.nbChars = 0;
+		this.nbTokens = 0;
+		if (this.workers != null) {
+			doConcurrentTokenization(aCas);
+		} else {
+			// Process each view specified
+			for (int i = 0; i < this.sofaNames.length; i++) {
+				CAS currView = aCas.getView( sofaNames[i] );
+				doTokenization(currView);
+			}
 		}
+		if (this.metrics != null)
+			recordMetrics(aCas, System.nanoTime() - start);
 	}
 	
 	// PRIVATE METHODS ---------------------------------------------------------
 	
 	/**
 	 * This method drives the automaton execution over the stream of chars.
+	 * The content of the SOFA is scanned in place, without being copied.
 	 */
-	private void doTokenization(CAS view) {
+	private void doTokenization(final CAS view) {
 		// Load the content of the SOFA
-		char[] textContent = view.getDocumentText().toCharArray();
-		// Initialize the execution
-		int begin = -1;
-		theTransducer.reset();
-		// Run over the chars
-		for(int i=0 ; i<textContent.length ; i++) {
-			Signal s = theTransducer.feedChar( textContent[i] );
-			switch(s) {
-			case start_word:
-				begin = i;
-				break;
-			case end_word:
-				addWord(view, begin, i);
-				begin = -1;
-				break;
-			case end_word_prev:
-				addWord(view, begin, i-1);
-				begin = -1;
-				break;
-			case switch_word:
-				addWord(view, begin, i);
-				begin = i;
-				break;
-			case switch_word_prev:
-				addWord(view, begin, i-1);
-				begin = i;
-				break;
-			case cancel_word:
-				begin = -1;
-				break;
+		String textContent = view.getDocumentText();
+		if (textContent == null)
+			return;
+		this.nbChars += textContent.length();
+		// Duplicate texts are annotated from the cache
+		if (this.cache != null) {
+			scanCached(theTransducer, textContent).replay(newWriter(view));
+			return;
+		}
+		// Run over the chars, adding a word for each token found
+		scan(theTransducer, textContent, newWriter(view));
+	}
+	
+	/**
+	 * This method scans all the views at the same time on the workers, each
+	 * with its own automaton unless the engine is shared, then adds the
+	 * tokens found to each view. The CAS itself is only modified by the
+	 * calling thread, once all the views are scanned : if one of the scans
+	 * fails, no view is annotated.
+	 */
+	private void doConcurrentTokenization(CAS aCas) 
+	throws AnalysisEngineProcessException {
+		// Scan the views concurrently
+		CAS[] views = new CAS[this.sofaNames.length];
+		@SuppressWarnings("unchecked")
+		Future<TokenOffsets>[] results = new Future[this.sofaNames.length];
+		for (int i = 0; i < this.sofaNames.length; i++) {
+			views[i] = aCas.getView( sofaNames[i] );
+			final String textContent = views[i].getDocumentText();
+			if (textContent == null)
+				continue;
+			this.nbChars += textContent.length();
+			results[i] = workers.submit(new Callable<TokenOffsets>() {
+				public TokenOffsets call() {
+					return scanView(textContent);
+				}
+			});
+		}
+		// Wait for all the views
+		TokenOffsets[] tokens = new TokenOffsets[views.length];
+		try {
+			for (int i = 0; i < views.length; i++) {
+				if (results[i] != null)
+					tokens[i] = results[i].get();
 			}
+		} catch (InterruptedException e) {
+			cancel(results);
+			Thread.currentThread().interrupt();
+			throw new AnalysisEngineProcessException(e);
+		} catch (ExecutionException e) {
+			cancel(results);
+			throw new AnalysisEngineProcessException(e.getCause());
+		}
+		// Commit the annotations to each view
+		for (int i = 0; i < views.length; i++) {
+			if (tokens[i] != null)
+				tokens[i].replay( newWriter(views[i]) );
+		}
+	}
+	
+	/**
+	 * Scan the text of a view on a worker, with its own automaton unless the
+	 * engine is shared.
+	 */
+	TokenOffsets scanView(String textContent) {
+		FrenchTokenizerAutomaton automaton = theEngine != null 
+			? theTransducer : theTransducer.newInstance();
+		if (cache != null)
+			return scanCached(automaton, textContent);
+		TokenOffsets offsets = new TokenOffsets();
+		scan(automaton, textContent, offsets);
+		return offsets;
+	}
+	
+	/**
+	 * Stop the scans still running after a failure.
+	 */
+	private static void cancel(Future<TokenOffsets>[] results) {
+		for (Future<TokenOffsets> result : results) {
+			if (result != null)
+				result.cancel(true);
 		}
-		// Add the last one
-		if (begin != -1) {
-			addWord(view, begin, textContent.length-1);
+	}
+	
+	/**
+	 * Run the automaton over the whole text, splitting it between several 
+	 * cores if it is larger than the configured threshold. The shared engine,
+	 * when there is one, is run instead of the automaton.
+	 */
+	private void scan(FrenchTokenizerAutomaton automaton, String textContent,
+			TokenSink sink) {
+		if (parallelTokenizer != null)
+			parallelTokenizer.tokenize(textContent, 0, textContent.length(), 
+					sink);
+		else if (theEngine != null)
+			theEngine.tokenize(textContent, 0, textContent.length(), sink);
+		else
+			automaton.tokenize(textContent, 0, textContent.length(), sink);
+	}
+	
+	/**
+	 * Get the tokens of the text from the cache, running the automaton and
+	 * caching its tokens when the text is not there.
+	 */
+	private TokenOffsets scanCached(FrenchTokenizerAutomaton automaton,
+			String textContent) {
+		TokenOffsetCache.Key key = TokenOffsetCache.Key.of(textContent);
+		TokenOffsets offsets = cache.get(key);
+		if (offsets == null) {
+			offsets = new TokenOffsets();
+			scan(automaton, textContent, offsets);
+			offsets = cache.put(key, offsets);
 		}
+		return offsets;
+	}
+	
+	/**
+	 * Count the document in the metrics, and on one document in the sampling
+	 * period, the signals and states of its views. The sampling pass is not
+	 * part of the processing time.
+	 */
+	private void recordMetrics(CAS aCas, long nanos) {
+		this.metrics.document(this.nbChars, this.nbTokens, nanos);
+		if (++this.documentsSinceSample < this.metricsSampling)
+			return;
+		this.documentsSinceSample = 0;
+		for (int i = 0; i < this.sofaNames.length; i++) {
+			String textContent = aCas.getView( sofaNames[i] ).getDocumentText();
+			if (textContent != null)
+				this.metrics.sample(textContent, theTransducer);
+		}
+	}
+	
+	/**
+	 * Create the sink adding the tokens found to the view, with their id
+	 * when there is a vocabulary.
+	 */
+	private TokenSink newWriter(CAS view) {
+		TokenWriter writer = useLowLevelCas 
+			? new LowLevelTokenWriter(view) : new TokenWriter(view);
+		if (vocabulary != null)
+			return new VocabularyTokenSink(vocabulary, view.getDocumentText(), 
+					writer);
+		return writer;
 	}
 	
 	/**
@@ -143,9 +461,74 @@ public class FrenchUnicodeTokenizer extends CasAnnotator_ImplBase {
 	 * @param view the CAS where the annotation is added
 	 * @param startPos annotation start position
 	 * @param endPos annotation end position
+	 * @param type the kind of the token
+	 * @param id the id of the token, -1 for none
 	 */
-	private void addWord(CAS view, int startPos, int endPos) {
+	private void addWord(CAS view, int startPos, int endPos, TokenType type,
+			int id) {
 		AnnotationFS annot = view.createAnnotation(tokenType, startPos, endPos);
+		annot.setIntValue(tokenTypeFeat, type.ordinal());
+		// Set to -1 rather than left to 0, a valid id, without vocabulary
+		if (tokenIdFeat != null)
+			annot.setIntValue(tokenIdFeat, id);
 		view.addFsToIndexes(annot);
+		nbTokens++;
+	}
+	
+	/**
+	 * Creates the token annotations, with or without their id.
+	 */
+	private class TokenWriter implements TokenSink, TokenIdSink {
+		
+		/** The view the annotations are added to */
+		private final CAS view;
+		
+		TokenWriter(CAS view) {
+			this.view = view;
+		}
+		
+		public void token(int begin, int end, TokenType type) {
+			token(begin, end, type, -1);
+		}
+		
+		public void token(int begin, int end, TokenType type, int id) {
+			addWord(view, begin, end, type, id);
+		}
+	}
+	
+	/**
+	 * Creates the token annotations with the low level CAS API : the feature
+	 * structures are only heap addresses, no Java object is created for them.
+	 */
+	private class LowLevelTokenWriter extends TokenWriter {
+		
+		/** The low level interface of the view */
+		private final LowLevelCAS llc;
+		
+		/** The indexes of the view */
+		private final LowLevelIndexRepository indexes;
+		
+		/** Address of the SOFA of the view */
+		private final int sofaAddr;
+		
+		LowLevelTokenWriter(CAS view) {
+			super(view);
+			this.llc = view.getLowLevelCAS();
+			this.indexes = llc.ll_getIndexRepository();
+			this.sofaAddr = llc.ll_getFSRef(view.getSofa());
+		}
+		
+		@Override
+		public void token(int begin, int end, TokenType type, int id) {
+			int addr = llc.ll_createFS(tokenTypeCode);
+			llc.ll_setRefValue(addr, sofaFeatCode, sofaAddr);
+			llc.ll_setIntValue(addr, beginFeatCode, begin);
+			llc.ll_setIntValue(addr, endFeatCode, end);
+			llc.ll_setIntValue(addr, tokenTypeFeatCode, type.ordinal());
+			if (tokenIdFeat != null)
+				llc.ll_setIntValue(addr, tokenIdFeatCode, id);
+			indexes.ll_addFS(addr);
+			nbTokens++;
+		}
 	}
 }
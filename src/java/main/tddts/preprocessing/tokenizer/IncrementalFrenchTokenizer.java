@@ -0,0 +1,115 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+/**
+ * This class updates the tokens of a text after an edit, tokenizing again
+ * only the region around it instead of the whole text.
+ *
+ * The region starts at the last safe point before the edit, where the
+ * automaton is back in its initial state without any word started (see
+ * {@link ParallelFrenchTokenizer#isSafePoint(CharSequence, int)}). It ends at
+ * the first safe point at least two chars after the inserted text : as a
+ * safe point only depends on the two chars before it, it is a safe point of
+ * the old text too, and from there the old tokens are still right once
+ * shifted by the change of length.
+ *
+ * The work of the automaton only depends on the distance between the edit
+ * and the surrounding safe points, not on the length of the text. The text
+ * and its tokens are kept in gap buffers ({@link CharGapBuffer},
+ * {@link TokenGapBuffer}), whose gap follows the edits, and where the
+ * tokens after the gap are shifted all at once by the change of length :
+ * a keystroke costs as much whatever the length of the text, as long as it
+ * is close to the previous one.
+ */
+public class IncrementalFrenchTokenizer {
+
+	/** Automaton copied for each edit */
+	private final FrenchTokenizerAutomaton prototype;
+
+	/** Tokens of the region tokenized again, reused from edit to edit */
+	private final TokenOffsets region = new TokenOffsets();
+
+	/**
+	 * Create a tokenizer running the compiled automaton.
+	 */
+	public IncrementalFrenchTokenizer() {
+		this(new CompiledFrenchTokenizerAutomaton());
+	}
+
+	/**
+	 * @param prototype automaton of the kind to run over the edited regions
+	 */
+	public IncrementalFrenchTokenizer(FrenchTokenizerAutomaton prototype) {
+		this.prototype = prototype;
+	}
+
+	// INTERFACE ---------------------------------------------------------------
+
+	/**
+	 * Apply an edit to a text and update its tokens.
+	 *
+	 * @param text the text, edited in place
+	 * @param tokens the tokens of the text before the edit, updated in place
+	 * @param offset offset of the first char deleted or inserted
+	 * @param deleted the number of chars deleted
+	 * @param inserted the chars inserted in their place
+	 */
+	public void edit(CharGapBuffer text, TokenGapBuffer tokens, int offset,
+			int deleted, CharSequence inserted) {
+		// The chars deleted stop at the end of the text
+		deleted = Math.max(Math.min(deleted, text.length() - offset), 0);
+		text.replace(offset, deleted, inserted);
+		update(text, tokens, offset, deleted, inserted.length());
+	}
+
+	/**
+	 * Update the tokens of a text which has been edited.
+	 *
+	 * @param text the text after the edit
+	 * @param tokens the tokens of the text before the edit, updated in place
+	 * @param offset offset of the first char deleted or inserted
+	 * @param deleted the number of chars deleted
+	 * @param inserted the number of chars inserted in their place
+	 *
+	 * @return the offset following the last char tokenized again
+	 */
+	public int update(CharSequence text, TokenGapBuffer tokens, int offset,
+			int deleted, int inserted) {
+		int length = text.length();
+		if (offset < 0 || deleted < 0 || inserted < 0
+				|| offset + inserted > length)
+			throw new IndexOutOfBoundsException("Edit of " + deleted + " -> "
+					+ inserted + " chars at " + offset + " in a text of "
+					+ length + " chars");
+		// The chars before the edit are unchanged, as their safe points
+		int from = offset;
+		while (from >= 2 && !ParallelFrenchTokenizer.isSafePoint(text, from))
+			from--;
+		if (from < 2)
+			from = 0;
+		// The two chars before the end must follow the inserted ones
+		int to = Math.max(offset + inserted, from) + 2;
+		while (to < length && !ParallelFrenchTokenizer.isSafePoint(text, to))
+			to++;
+		if (to > length)
+			to = length;
+		region.clear();
+		prototype.newInstance().tokenize(text, from, to, region);
+		// The old tokens from the end on are the same, shifted
+		tokens.replace(from, to - inserted + deleted, length, region);
+		return to;
+	}
+}
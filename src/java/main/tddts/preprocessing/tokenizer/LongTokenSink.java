@@ -0,0 +1,32 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+/**
+ * Receives the tokens found in a stream, which can be longer than what an
+ * int offset can address.
+ */
+public interface LongTokenSink {
+
+	/**
+	 * Called for each token.
+	 *
+	 * @param begin offset of the first char of the token in the stream
+	 * @param end offset following the last char of the token in the stream
+	 * @param type the kind of the token
+	 */
+	void token(long begin, long end, TokenType type);
+
+}
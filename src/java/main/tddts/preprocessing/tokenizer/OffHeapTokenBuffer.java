@@ -0,0 +1,261 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A growable list of tokens held out of the Java heap, in direct buffers, so
+ * that tens of millions of tokens cost the garbage collector a few objects
+ * only.
+ *
+ * The tokens are stored in segments of a fixed number of tokens, allocated
+ * when the previous ones are full and kept when the list is cleared. A token
+ * takes {@value #TOKEN_SIZE} bytes, in the native byte order : its begin as
+ * a long, then its length shifted left by {@value #TYPE_BITS} bits with the
+ * ordinal of its type in the low bits, as an int. The segments can be
+ * handed to a channel, or to any reader, without being copied.
+ */
+public class OffHeapTokenBuffer implements TokenSink, LongTokenSink {
+
+	/** Bytes taken by a token */
+	public static final int TOKEN_SIZE = 12;
+
+	/** Bits of the length holding the type of a token */
+	public static final int TYPE_BITS = 2;
+
+	/** Mask of the type in the length */
+	private static final int TYPE_MASK = (1 << TYPE_BITS) - 1;
+
+	/** Longest token, in chars */
+	private static final int MAX_LENGTH = Integer.MAX_VALUE >>> TYPE_BITS;
+
+	/** Tokens held by a segment by default, 12 MB */
+	public static final int DEFAULT_SEGMENT_TOKENS = 1 << 20;
+
+	static {
+		if (TokenType.values().length > TYPE_MASK + 1)
+			throw new AssertionError("Too many token types for the buffer");
+	}
+
+	/** The segments allocated, full ones first */
+	private final List<ByteBuffer> segments = new ArrayList<ByteBuffer>();
+
+	/** Log2 of the number of tokens of a segment */
+	private final int shift;
+
+	/** Number of tokens of a segment minus one */
+	private final int mask;
+
+	/** Segment the next token is written to */
+	private ByteBuffer current;
+
+	/** Number of tokens in the list */
+	private long size;
+
+	public OffHeapTokenBuffer() {
+		this(DEFAULT_SEGMENT_TOKENS);
+	}
+
+	/**
+	 * @param segmentTokens the number of tokens of a segment, rounded to a
+	 * power of two
+	 */
+	public OffHeapTokenBuffer(int segmentTokens) {
+		int tokens = Integer.highestOneBit(Math.max(1,
+				Math.min(segmentTokens, Integer.MAX_VALUE / TOKEN_SIZE)));
+		this.shift = Integer.numberOfTrailingZeros(tokens);
+		this.mask = tokens - 1;
+	}
+
+	// INTERFACE ---------------------------------------------------------------
+
+	/**
+	 * Append a token at the end of the list.
+	 */
+	public void token(int begin, int end, TokenType type) {
+		token((long) begin, (long) end, type);
+	}
+
+	/**
+	 * Append a token at the end of the list.
+	 */
+	public void token(long begin, long end, TokenType type) {
+		long length = end - begin;
+		if (length < 0 || length > MAX_LENGTH)
+			throw new IllegalArgumentException("Token [" + begin + ", " + end
+					+ "[ of invalid length");
+		int n = (int) size & mask;
+		if (n == 0)
+			current = segment((int) (size >>> shift));
+		int at = n * TOKEN_SIZE;
+		current.putLong(at, begin);
+		current.putInt(at + 8, ((int) length << TYPE_BITS) | type.ordinal());
+		size++;
+	}
+
+	/**
+	 * @return the number of tokens in the list
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * @return the offset of the first char of the i-th token
+	 */
+	public long begin(long i) {
+		return segmentOf(i).getLong(offsetOf(i));
+	}
+
+	/**
+	 * @return the offset following the last char of the i-th token
+	 */
+	public long end(long i) {
+		ByteBuffer segment = segmentOf(i);
+		int at = offsetOf(i);
+		return segment.getLong(at) + (segment.getInt(at + 8) >>> TYPE_BITS);
+	}
+
+	/**
+	 * @return the type of the i-th token
+	 */
+	public TokenType type(long i) {
+		return TokenType.valueOf(segmentOf(i).getInt(offsetOf(i) + 8)
+				& TYPE_MASK);
+	}
+
+	/**
+	 * Send all the tokens of the list, in order, to a sink taking long
+	 * offsets.
+	 */
+	public void replayLong(LongTokenSink sink) {
+		for (int s = 0; (long) s << shift < size; s++) {
+			ByteBuffer segment = segments.get(s);
+			int count = tokensIn(s);
+			for (int at = 0; at < count * TOKEN_SIZE; at += TOKEN_SIZE) {
+				long begin = segment.getLong(at);
+				int packed = segment.getInt(at + 8);
+				sink.token(begin, begin + (packed >>> TYPE_BITS),
+						TokenType.valueOf(packed & TYPE_MASK));
+			}
+		}
+	}
+
+	/**
+	 * Send all the tokens of the list, in order, to a sink taking int
+	 * offsets.
+	 *
+	 * @throws IllegalStateException if an offset does not fit in an int
+	 */
+	public void replay(final TokenSink sink) {
+		replayLong(new LongTokenSink() {
+			public void token(long begin, long end, TokenType type) {
+				if (end > Integer.MAX_VALUE)
+					throw new IllegalStateException("Offset " + end
+							+ " too large for an int");
+				sink.token((int) begin, (int) end, type);
+			}
+		});
+	}
+
+	/**
+	 * @return read-only views of the tokens of each segment, in the native
+	 * byte order, sharing the memory of the list
+	 */
+	public ByteBuffer[] segments() {
+		int count = (int) ((size + mask) >>> shift);
+		ByteBuffer[] views = new ByteBuffer[count];
+		for (int s = 0; s < count; s++) {
+			ByteBuffer view = segments.get(s).asReadOnlyBuffer();
+			view.limit(tokensIn(s) * TOKEN_SIZE);
+			views[s] = view.order(ByteOrder.nativeOrder());
+		}
+		return views;
+	}
+
+	/**
+	 * Write the tokens, as laid out in memory, to a channel.
+	 *
+	 * @throws IOException if the channel cannot be written to
+	 */
+	public void writeTo(WritableByteChannel channel) throws IOException {
+		for (ByteBuffer segment : segments()) {
+			while (segment.hasRemaining())
+				channel.write(segment);
+		}
+	}
+
+	/**
+	 * Empty the list, keeping the segments already allocated.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Release the segments that do not hold any token, for the garbage
+	 * collector to free their memory.
+	 */
+	public void trim() {
+		int used = (int) ((size + mask) >>> shift);
+		while (segments.size() > used)
+			segments.remove(segments.size() - 1);
+	}
+
+	/**
+	 * @return the number of bytes allocated out of the heap
+	 */
+	public long allocated() {
+		return (long) segments.size() * (mask + 1) * TOKEN_SIZE;
+	}
+
+	// PRIVATE METHODS ---------------------------------------------------------
+
+	/**
+	 * @return the s-th segment, allocated if needed
+	 */
+	private ByteBuffer segment(int s) {
+		if (s < segments.size())
+			return segments.get(s);
+		ByteBuffer segment = ByteBuffer.allocateDirect((mask + 1) * TOKEN_SIZE)
+			.order(ByteOrder.nativeOrder());
+		segments.add(segment);
+		return segment;
+	}
+
+	/**
+	 * @return the number of tokens of the s-th segment
+	 */
+	private int tokensIn(int s) {
+		return (int) Math.min(size - ((long) s << shift), mask + 1);
+	}
+
+	private ByteBuffer segmentOf(long i) {
+		if (i < 0 || i >= size)
+			throw new IndexOutOfBoundsException("Token " + i + " of " + size);
+		return segments.get((int) (i >>> shift));
+	}
+
+	private int offsetOf(long i) {
+		return ((int) i & mask) * TOKEN_SIZE;
+	}
+}
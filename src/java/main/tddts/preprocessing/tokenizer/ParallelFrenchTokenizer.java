@@ -0,0 +1,157 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * This class tokenizes a large text on several cores. The text is split in
+ * chunks at points where the automaton is known to be back in its initial
+ * state, the chunks are tokenized independently on a fork/join pool and their
+ * tokens are merged in order. The result is the same as running the
+ * automaton over the whole text.
+ *
+ * A safe point is a char following a separator (Zl, Zp, Zs) itself
+ * following a letter : after a letter the automaton is never in the N1 or N2
+ * states, so the separator always brings it back to O0 without any word
+ * started.
+ */
+public class ParallelFrenchTokenizer {
+
+	/** Pool shared by all the tokenizers which are not given one */
+	private static ForkJoinPool sharedPool;
+
+	/** The pool running the chunks */
+	private final ForkJoinPool pool;
+
+	/** Automaton copied for each chunk */
+	private final FrenchTokenizerAutomaton prototype;
+
+	/** Size under which a chunk is not split anymore */
+	private final int threshold;
+
+	/**
+	 * Create a tokenizer running on the pool shared by all the tokenizers.
+	 *
+	 * @param prototype automaton of the kind to run on the chunks
+	 * @param threshold size in chars under which a text is tokenized
+	 * sequentially
+	 */
+	public ParallelFrenchTokenizer(FrenchTokenizerAutomaton prototype,
+			int threshold) {
+		this(sharedPool(), prototype, threshold);
+	}
+
+	/**
+	 * @param pool the pool running the chunks
+	 * @param prototype automaton of the kind to run on the chunks
+	 * @param threshold size in chars under which a text is tokenized
+	 * sequentially
+	 */
+	public ParallelFrenchTokenizer(ForkJoinPool pool,
+			FrenchTokenizerAutomaton prototype, int threshold) {
+		this.pool = pool;
+		this.prototype = prototype;
+		this.threshold = Math.max(threshold, 2);
+	}
+
+	/**
+	 * Tokenize a range of the text and send the tokens, in order, to the
+	 * sink. The sink is only called from the calling thread.
+	 *
+	 * @see FrenchTokenizerAutomaton#tokenize(CharSequence, int, int, TokenSink)
+	 */
+	public void tokenize(CharSequence text, int from, int to, TokenSink sink) {
+		if (to - from <= threshold) {
+			prototype.newInstance().tokenize(text, from, to, sink);
+			return;
+		}
+		pool.invoke(new ChunkTask(text, from, to)).replay(sink);
+	}
+
+	/**
+	 * @return true if the automaton is in its initial state, without any
+	 * word started, before the char at offset i
+	 */
+	static boolean isSafePoint(CharSequence text, int i) {
+		return Character.isSpaceChar( text.charAt(i-1) )
+			&& Character.isLetter( text.charAt(i-2) );
+	}
+
+	/**
+	 * Find a safe point as close as possible to the middle of the range.
+	 *
+	 * @return the offset of the safe point, -1 if there is none
+	 */
+	static int findSplit(CharSequence text, int from, int to) {
+		int middle = (from + to) >>> 1;
+		for (int i = Math.max(middle, from + 2); i < to; i++) {
+			if (isSafePoint(text, i))
+				return i;
+		}
+		for (int i = middle - 1; i >= from + 2; i--) {
+			if (isSafePoint(text, i))
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * @return the pool shared by the tokenizers, created on first use
+	 */
+	private static synchronized ForkJoinPool sharedPool() {
+		if (sharedPool == null)
+			sharedPool = new ForkJoinPool();
+		return sharedPool;
+	}
+
+	/**
+	 * Tokenize a chunk, splitting it in two halves while it is too large.
+	 */
+	private class ChunkTask extends RecursiveTask<TokenOffsets> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final CharSequence text;
+		private final int from;
+		private final int to;
+
+		ChunkTask(CharSequence text, int from, int to) {
+			this.text = text;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected TokenOffsets compute() {
+			int split = -1;
+			if (to - from > threshold)
+				split = findSplit(text, from, to);
+			if (split == -1) {
+				// Expect about one token every eight chars
+				TokenOffsets offsets = new TokenOffsets((to - from) / 8);
+				prototype.newInstance().tokenize(text, from, to, offsets);
+				return offsets;
+			}
+			ChunkTask right = new ChunkTask(text, split, to);
+			right.fork();
+			TokenOffsets offsets = new ChunkTask(text, from, split).compute();
+			offsets.append(right.join());
+			return offsets;
+		}
+	}
+}
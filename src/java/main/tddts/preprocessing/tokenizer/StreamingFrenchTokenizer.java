@@ -0,0 +1,273 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.io.IOException;
+import java.io.Reader;
+// Tokenizer dependencies
+import tddts.preprocessing.tokenizer.FrenchTokenizerAutomaton.Signal;
+
+/**
+ * This class tokenizes a stream of chars of any length through a fixed size
+ * buffer. The state of the automaton and the start of the current word are
+ * kept from one buffer to the next, and the offsets are counted from the
+ * beginning of the stream.
+ *
+ * The signals which end a word before the previous code point
+ * (end_word_prev, switch_word_prev) only need the offset of that code point,
+ * so only a high surrogate ending a buffer has to be kept until the next one
+ * and the memory used is bounded by the buffer.
+ *
+ * With the compiled automaton, each buffer is run by the tight loop of the
+ * shared {@link FrenchTokenizerEngine}, resumed from the state the previous
+ * buffer ended in; any other automaton is fed code point by code point.
+ */
+public class StreamingFrenchTokenizer {
+
+	/** Default size of the buffer, in chars */
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	/** The automaton run over the stream */
+	private final FrenchTokenizerAutomaton automaton;
+
+	/** The engine running the buffers, null if the automaton is not compiled */
+	private final FrenchTokenizerEngine engine;
+
+	/** State of the engine between two buffers */
+	private int state;
+
+	/** Offset of the stream of the first char of the buffer being run */
+	private long base;
+
+	/** Relays the tokens of the engine to the sink, with stream offsets */
+	private final TokenSink relay = new TokenSink() {
+		public void token(int begin, int end, TokenType type) {
+			sink.token(begin == FrenchTokenizerEngine.CARRIED
+					? StreamingFrenchTokenizer.this.begin : base + begin,
+					base + end, type);
+		}
+	};
+
+	/** The buffer the stream is read into, reused for every read */
+	private final char[] buffer;
+
+	/** The receiver of the tokens of the current stream */
+	private LongTokenSink sink;
+
+	/** Number of chars fed since the start of the stream */
+	private long offset;
+
+	/** Offset where the current word started, -1 if none */
+	private long begin;
+
+	/** Offset of the last code point fed to the automaton */
+	private long previous;
+
+	/** High surrogate ending the last chars fed, 0 if none */
+	private char pending;
+
+	public StreamingFrenchTokenizer(FrenchTokenizerAutomaton automaton) {
+		this(automaton, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * @param automaton the automaton to run over the stream
+	 * @param bufferSize the number of chars read at once
+	 */
+	public StreamingFrenchTokenizer(FrenchTokenizerAutomaton automaton,
+			int bufferSize) {
+		this.automaton = automaton;
+		this.engine = automaton instanceof CompiledFrenchTokenizerAutomaton
+			? FrenchTokenizerEngine.getInstance() : null;
+		this.buffer = new char[Math.max(bufferSize, 1)];
+	}
+
+	/**
+	 * Read the whole stream and send the tokens found to the sink. The
+	 * stream is not closed.
+	 *
+	 * @param in the stream to tokenize
+	 * @param sink the receiver of the tokens offsets
+	 *
+	 * @return the number of chars read
+	 *
+	 * @throws IOException if the stream cannot be read
+	 */
+	public long tokenize(Reader in, LongTokenSink sink) throws IOException {
+		start(sink);
+		int read;
+		while ((read = in.read(buffer, 0, buffer.length)) != -1) {
+			feed(buffer, 0, read);
+		}
+		return finish();
+	}
+
+	/**
+	 * Start a new stream, whose chars are then given piece by piece to
+	 * {@link #feed(char[], int, int)} until {@link #finish()} is called.
+	 *
+	 * @param sink the receiver of the tokens offsets
+	 */
+	public void start(LongTokenSink sink) {
+		this.sink = sink;
+		this.offset = 0;
+		this.begin = -1;
+		this.previous = 0;
+		this.pending = 0;
+		this.state = engine == null ? 0 : engine.initialState();
+		automaton.reset();
+	}
+
+	/**
+	 * Run the automaton over the next chars of the stream.
+	 *
+	 * @param chars array holding the chars
+	 * @param from index of the first char to consider
+	 * @param to index following the last char to consider
+	 */
+	public void feed(char[] chars, int from, int to) {
+		if (engine == null) {
+			feedCodePoints(chars, from, to);
+			return;
+		}
+		int i = from;
+		if (pending != 0 && i < to) {
+			// Complete the surrogate pair cut by the end of the last chars
+			int c = Character.isLowSurrogate(chars[i])
+				? Character.toCodePoint(pending, chars[i++]) : pending;
+			begin = step(c, offset - 1, previous, begin);
+			previous = offset - 1;
+			pending = 0;
+		}
+		int end = to;
+		if (i < end && Character.isHighSurrogate(chars[end - 1]))
+			pending = chars[--end];
+		if (i < end) {
+			base = offset - from;
+			long last = engine.resume(chars, i, end, state,
+					begin == -1 ? -1 : FrenchTokenizerEngine.CARRIED,
+					(int) (previous - base), relay);
+			state = (int) (last >>> 32);
+			int current = (int) last;
+			if (current != FrenchTokenizerEngine.CARRIED)
+				begin = current == -1 ? -1 : base + current;
+			previous = base + (end - 2 >= i
+					&& Character.isLowSurrogate(chars[end - 1])
+					&& Character.isHighSurrogate(chars[end - 2])
+					? end - 2 : end - 1);
+		}
+		offset += to - from;
+	}
+
+	/**
+	 * Same as {@link #feed(char[], int, int)}, feeding the automaton code
+	 * point by code point.
+	 */
+	private void feedCodePoints(char[] chars, int from, int to) {
+		long base = offset - from;
+		long current = begin;
+		long last = previous;
+		int i = from;
+		if (pending != 0 && i < to) {
+			// Complete the surrogate pair cut by the end of the last chars
+			int c = Character.isLowSurrogate(chars[i])
+				? Character.toCodePoint(pending, chars[i++]) : pending;
+			current = step(c, base + from - 1, last, current);
+			last = base + from - 1;
+			pending = 0;
+		}
+		while (i < to) {
+			char c = chars[i];
+			if (Character.isHighSurrogate(c) && i + 1 == to) {
+				pending = c;
+				break;
+			}
+			int cp = Character.codePointAt(chars, i, to);
+			current = step(cp, base + i, last, current);
+			last = base + i;
+			i += Character.charCount(cp);
+		}
+		begin = current;
+		previous = last;
+		offset += to - from;
+	}
+
+	/**
+	 * Close the word still open at the end of the stream, if any.
+	 *
+	 * @return the number of chars of the stream
+	 */
+	public long finish() {
+		if (pending != 0) {
+			begin = step(pending, offset - 1, previous, begin);
+			pending = 0;
+		}
+		if (begin != -1)
+			sink.token(begin, offset, currentType());
+		begin = -1;
+		sink = null;
+		return offset;
+	}
+
+	/**
+	 * Feed the code point at offset i of the stream to the automaton and
+	 * interpret the signal sent, the previous code point being at the given
+	 * offset.
+	 *
+	 * @return the offset where the current word starts after the signal
+	 *
+	 * @see FrenchTokenizerAutomaton#signal
+	 */
+	private long step(int c, long i, long previous, long begin) {
+		TokenType type = currentType();
+		Signal s;
+		if (engine != null) {
+			int t = engine.step(state, c);
+			s = FrenchTokenizerEngine.signal(t);
+			state = FrenchTokenizerEngine.nextState(t);
+		} else {
+			s = automaton.feedCodePoint(c);
+		}
+		switch(s) {
+		case start_word:
+			return i;
+		case end_word:
+			sink.token(begin, i, type);
+			return -1;
+		case end_word_prev:
+			sink.token(begin, previous, type);
+			return -1;
+		case switch_word:
+			sink.token(begin, i, type);
+			return i;
+		case switch_word_prev:
+			sink.token(begin, previous, type);
+			return i;
+		case cancel_word:
+			return -1;
+		default:
+			return begin;
+		}
+	}
+
+	/**
+	 * @return the type of the tokens built in the current state
+	 */
+	private TokenType currentType() {
+		return engine != null ? engine.typeOf(state)
+			: FrenchTokenizerAutomaton.typeOf(automaton.theCurrentState.ordinal());
+	}
+}
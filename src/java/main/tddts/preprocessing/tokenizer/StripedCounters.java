@@ -0,0 +1,124 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed set of counters updated by many threads without any lock. Each
+ * thread adds to one of several copies of the counters, chosen from its id
+ * and padded so that two copies never share a cache line : the threads
+ * seldom write to the same memory, and the values are only summed when
+ * they are read.
+ */
+public class StripedCounters {
+
+	/** Longs in a cache line */
+	private static final int LINE = 8;
+
+	/** Largest number of copies */
+	private static final int MAX_STRIPES = 64;
+
+	/** All the copies, one after the other */
+	private final AtomicLongArray cells;
+
+	/** Number of counters */
+	private final int size;
+
+	/** Distance between two copies of a counter */
+	private final int stride;
+
+	/** Number of copies minus one, a power of two minus one */
+	private final int mask;
+
+	/**
+	 * @param size the number of counters
+	 */
+	public StripedCounters(int size) {
+		this(size, Runtime.getRuntime().availableProcessors() * 2);
+	}
+
+	/**
+	 * @param size the number of counters
+	 * @param nbStripes the number of copies, rounded to a power of two
+	 */
+	public StripedCounters(int size, int nbStripes) {
+		int stripes = Integer.highestOneBit(
+				Math.max(1, Math.min(nbStripes, MAX_STRIPES)) * 2 - 1);
+		this.size = size;
+		// A line of padding keeps two copies apart whatever their alignment
+		this.stride = (size + LINE - 1) / LINE * LINE + LINE;
+		this.mask = stripes - 1;
+		this.cells = new AtomicLongArray(stripes * stride);
+	}
+
+	// INTERFACE ---------------------------------------------------------------
+
+	/**
+	 * @return the number of counters
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Add a value to a counter.
+	 */
+	public void add(int counter, long delta) {
+		cells.getAndAdd(offset() + counter, delta);
+	}
+
+	/**
+	 * Add values to the counters from first on.
+	 */
+	public void add(int first, int[] deltas) {
+		int base = offset() + first;
+		for (int i = 0; i < deltas.length; i++) {
+			if (deltas[i] != 0)
+				cells.getAndAdd(base + i, deltas[i]);
+		}
+	}
+
+	/**
+	 * @return the sum of the copies of a counter
+	 */
+	public long get(int counter) {
+		long sum = 0;
+		for (int i = counter; i < cells.length(); i += stride)
+			sum += cells.get(i);
+		return sum;
+	}
+
+	/**
+	 * Set all the counters to zero. The additions made at the same time may
+	 * be lost.
+	 */
+	public void reset() {
+		for (int i = 0; i < cells.length(); i++)
+			cells.set(i, 0);
+	}
+
+	// PRIVATE METHODS ---------------------------------------------------------
+
+	/**
+	 * @return the offset of the copy of the current thread
+	 */
+	private int offset() {
+		long id = Thread.currentThread().getId();
+		int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+		return ((hash >>> 16) & mask) * stride;
+	}
+}
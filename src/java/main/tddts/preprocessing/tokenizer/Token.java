@@ -0,0 +1,84 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+/**
+ * A token found in a text : its offsets and its type. The tokens are only
+ * created by the streams of {@link FrenchTokenizerEngine}, the sinks
+ * receive the plain offsets.
+ */
+public final class Token {
+
+	private final int begin;
+	private final int end;
+	private final TokenType type;
+
+	/**
+	 * @param begin offset of the first char of the token in the text
+	 * @param end offset following the last char of the token in the text
+	 * @param type the kind of the token
+	 */
+	public Token(int begin, int end, TokenType type) {
+		this.begin = begin;
+		this.end = end;
+		this.type = type;
+	}
+
+	/**
+	 * @return the offset of the first char of the token in the text
+	 */
+	public int getBegin() {
+		return begin;
+	}
+
+	/**
+	 * @return the offset following the last char of the token in the text
+	 */
+	public int getEnd() {
+		return end;
+	}
+
+	/**
+	 * @return the kind of the token
+	 */
+	public TokenType getType() {
+		return type;
+	}
+
+	/**
+	 * @return the chars of the token in the text it was found in
+	 */
+	public String getText(CharSequence text) {
+		return text.subSequence(begin, end).toString();
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (!(o instanceof Token))
+			return false;
+		Token other = (Token) o;
+		return begin == other.begin && end == other.end && type == other.type;
+	}
+
+	@Override
+	public int hashCode() {
+		return (begin * 31 + end) * 31 + type.ordinal();
+	}
+
+	@Override
+	public String toString() {
+		return "{" + begin + "," + end + "} " + type;
+	}
+}
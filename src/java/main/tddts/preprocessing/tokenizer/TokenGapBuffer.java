@@ -0,0 +1,212 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+/**
+ * The tokens of a text being edited, kept in a gap buffer so that the
+ * tokens of a region can be replaced without moving nor shifting the ones
+ * after it.
+ *
+ * The tokens are stored as in {@link TokenOffsets}, with a gap left at the
+ * index of the last region replaced. The offsets of the tokens before the
+ * gap are counted from the start of the text, the ones of the tokens after
+ * it from the end of the text : a change of the length of the text shifts
+ * all of them at once. Replacing a region only moves the tokens between the
+ * gap and the region, so a series of edits close to each other costs as
+ * much on a text of any length.
+ */
+public class TokenGapBuffer {
+
+	/** Initial number of tokens the buffer can hold */
+	private static final int DEFAULT_CAPACITY = 256;
+
+	/** Begin and end offsets of each token, one after the other */
+	private int[] offsets;
+
+	/** Ordinal of the type of each token */
+	private byte[] types;
+
+	/** Index of the first slot of the gap */
+	private int gapStart;
+
+	/** Index following the last slot of the gap */
+	private int gapEnd;
+
+	/** Length of the text, the origin of the offsets after the gap */
+	private int length;
+
+	/**
+	 * @param tokens the tokens of the text, copied
+	 * @param length the length of the text
+	 */
+	public TokenGapBuffer(TokenOffsets tokens, int length) {
+		int capacity = Math.max(tokens.size() * 2, DEFAULT_CAPACITY);
+		this.offsets = new int[capacity * 2];
+		this.types = new byte[capacity];
+		this.length = length;
+		for (int i = 0; i < tokens.size(); i++) {
+			offsets[i * 2]     = tokens.begin(i);
+			offsets[i * 2 + 1] = tokens.end(i);
+			types[i] = (byte) tokens.type(i).ordinal();
+		}
+		this.gapStart = tokens.size();
+		this.gapEnd = capacity;
+	}
+
+	// INTERFACE ---------------------------------------------------------------
+
+	/**
+	 * @return the number of tokens in the buffer
+	 */
+	public int size() {
+		return types.length - (gapEnd - gapStart);
+	}
+
+	/**
+	 * @return the offset of the first char of the i-th token
+	 */
+	public int begin(int i) {
+		return i < gapStart ? offsets[i * 2]
+			: offsets[(i + gapEnd - gapStart) * 2] + length;
+	}
+
+	/**
+	 * @return the offset following the last char of the i-th token
+	 */
+	public int end(int i) {
+		return i < gapStart ? offsets[i * 2 + 1]
+			: offsets[(i + gapEnd - gapStart) * 2 + 1] + length;
+	}
+
+	/**
+	 * @return the type of the i-th token
+	 */
+	public TokenType type(int i) {
+		return TokenType.valueOf(types[i < gapStart ? i
+				: i + gapEnd - gapStart]);
+	}
+
+	/**
+	 * @return the index of the first token beginning at or after the offset,
+	 * the size of the buffer if there is none
+	 */
+	public int indexOf(int offset) {
+		int low = 0;
+		int high = size();
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (begin(middle) < offset)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+
+	/**
+	 * Send all the tokens of the buffer, in order, to a sink.
+	 */
+	public void replay(TokenSink sink) {
+		for (int i = 0; i < size(); i++)
+			sink.token(begin(i), end(i), type(i));
+	}
+
+	/**
+	 * @return a copy of the tokens, as (begin, end, type ordinal) triples
+	 */
+	public int[] toArray() {
+		int[] copy = new int[size() * 3];
+		for (int i = 0; i < size(); i++) {
+			copy[i * 3]     = begin(i);
+			copy[i * 3 + 1] = end(i);
+			copy[i * 3 + 2] = type(i).ordinal();
+		}
+		return copy;
+	}
+
+	/**
+	 * Replace the tokens of a region of the text which has been edited. The
+	 * region starts at the same offset before and after the edit, and the
+	 * text is unchanged after it.
+	 *
+	 * @param from offset where the region starts
+	 * @param oldTo offset following the region before the edit
+	 * @param newLength length of the text after the edit
+	 * @param region the tokens of the region in the edited text
+	 */
+	void replace(int from, int oldTo, int newLength, TokenOffsets region) {
+		moveGap(indexOf(from));
+		// The tokens after the gap are counted from the old end
+		int last = gapEnd;
+		while (last < types.length && offsets[last * 2] + length < oldTo)
+			last++;
+		gapEnd = last;
+		length = newLength;
+		if (gapEnd - gapStart < region.size())
+			grow(size() + region.size());
+		for (int i = 0; i < region.size(); i++) {
+			offsets[gapStart * 2]     = region.begin(i);
+			offsets[gapStart * 2 + 1] = region.end(i);
+			types[gapStart] = (byte) region.type(i).ordinal();
+			gapStart++;
+		}
+	}
+
+	// PRIVATE METHODS ---------------------------------------------------------
+
+	/**
+	 * Move the gap before the token of the given index, changing the origin
+	 * of the offsets of the tokens it moves over.
+	 */
+	private void moveGap(int index) {
+		int gap = gapEnd - gapStart;
+		if (index < gapStart) {
+			int moved = gapStart - index;
+			for (int i = index * 2; i < gapStart * 2; i++)
+				offsets[i] -= length;
+			System.arraycopy(offsets, index * 2, offsets, (index + gap) * 2,
+					moved * 2);
+			System.arraycopy(types, index, types, index + gap, moved);
+		} else if (index > gapStart) {
+			int moved = index - gapStart;
+			for (int i = gapEnd * 2; i < (gapEnd + moved) * 2; i++)
+				offsets[i] += length;
+			System.arraycopy(offsets, gapEnd * 2, offsets, gapStart * 2,
+					moved * 2);
+			System.arraycopy(types, gapEnd, types, gapStart, moved);
+		}
+		gapStart = index;
+		gapEnd = index + gap;
+	}
+
+	/**
+	 * Grow the arrays so that they can hold the given number of tokens, the
+	 * gap taking all the slots added.
+	 */
+	private void grow(int needed) {
+		int capacity = Math.max(needed, types.length * 2);
+		int tail = types.length - gapEnd;
+		int[] grownOffsets = new int[capacity * 2];
+		System.arraycopy(offsets, 0, grownOffsets, 0, gapStart * 2);
+		System.arraycopy(offsets, gapEnd * 2, grownOffsets,
+				(capacity - tail) * 2, tail * 2);
+		offsets = grownOffsets;
+		byte[] grownTypes = new byte[capacity];
+		System.arraycopy(types, 0, grownTypes, 0, gapStart);
+		System.arraycopy(types, gapEnd, grownTypes, capacity - tail, tail);
+		types = grownTypes;
+		gapEnd = capacity - tail;
+	}
+}
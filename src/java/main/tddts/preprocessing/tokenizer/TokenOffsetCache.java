@@ -0,0 +1,543 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Cache of the tokens of the texts already tokenized, so that duplicate
+ * documents and views are annotated without running the automaton again.
+ *
+ * The texts are identified by a 128 bits hash of their chars and by their
+ * length, the text itself is not kept. The tokens are held in memory up to
+ * a size in bytes, the least recently used ones being evicted first. With a
+ * directory, they are also written to a file each, and read back when they
+ * are not in memory anymore.
+ *
+ * The files are named after, and start with, a hash of the tables of the
+ * compiled automaton and of the character classes : once the rules are
+ * regenerated, the files of the previous tables are never read and are
+ * deleted when the cache is created. The directory is also bounded : when
+ * its files grow larger than the given size, the least recently used ones
+ * are deleted. Its size is counted by each cache, so several processes
+ * sharing a directory can each fill it up to the bound.
+ *
+ * The caches are published as MBeans named
+ * "tddts.preprocessing.tokenizer:type=TokenOffsetCache,name=...", and all
+ * the annotators using the same name share the same cache, configured by the
+ * first of them.
+ */
+public class TokenOffsetCache implements TokenOffsetCacheMXBean {
+
+	/** Caches in use, by name */
+	private static final Map<String, TokenOffsetCache> REGISTRY =
+		new HashMap<String, TokenOffsetCache>();
+
+	/** Estimated memory used by an entry besides its tokens */
+	private static final int ENTRY_OVERHEAD = 160;
+
+	/** Estimated memory used by a token : two ints and a byte */
+	private static final int TOKEN_SIZE = 9;
+
+	/** First int of the files of the disk tier */
+	private static final int MAGIC = 0x544F4B32;
+
+	/** Extension of the files of the disk tier */
+	public static final String EXTENSION = ".tok";
+
+	/** Prefix of the temporary files of the disk tier */
+	private static final String TEMPORARY_PREFIX = "tokens";
+
+	/** Hash of the tables giving the tokens, in the files of the disk tier */
+	static final long TABLES_HASH = tablesHash();
+
+	/** Suffix of the files written with the current tables */
+	private static final String SUFFIX =
+		String.format("-%016x%s", TABLES_HASH, EXTENSION);
+
+	/** Entries from the least to the most recently used */
+	private final LinkedHashMap<Key, TokenOffsets> entries =
+		new LinkedHashMap<Key, TokenOffsets>(256, 0.75f, true);
+
+	/** Largest estimated size of the entries in memory */
+	private final long maxSize;
+
+	/** Directory of the disk tier, null without one */
+	private final File directory;
+
+	/** Largest size of the files of the disk tier */
+	private final long maxDiskSize;
+
+	private final ObjectName objectName;
+
+	/** Estimated size of the entries in memory */
+	private long size;
+
+	/** Lock guarding the size of the disk tier */
+	private final Object diskLock = new Object();
+
+	/** Size of the files of the disk tier */
+	private long diskSize;
+
+	/** Statistics */
+	private long hits;
+	private long diskHits;
+	private long misses;
+	private long evictions;
+
+	/** Number of annotators using the cache */
+	private int users;
+
+	/**
+	 * Create a cache that is not published.
+	 *
+	 * @param maxSize the largest size of the tokens in memory, in bytes
+	 * @param directory directory of the disk tier, null for none
+	 * @param maxDiskSize the largest size of the files of the disk tier, in
+	 * bytes
+	 */
+	public TokenOffsetCache(long maxSize, File directory, long maxDiskSize) {
+		this(maxSize, directory, maxDiskSize, null);
+	}
+
+	private TokenOffsetCache(long maxSize, File directory, long maxDiskSize,
+			ObjectName objectName) {
+		this.maxSize = maxSize;
+		this.directory = directory;
+		this.maxDiskSize = maxDiskSize;
+		this.objectName = objectName;
+		if (directory != null) {
+			directory.mkdirs();
+			open();
+		}
+	}
+
+	// INTERFACE ---------------------------------------------------------------
+
+	/**
+	 * Get the cache of the given name, creating and publishing it if it is
+	 * not in use yet. Each call must be followed by a call to
+	 * {@link #release()}.
+	 *
+	 * @param name the name of the cache
+	 * @param maxSize the largest size of the tokens in memory, in bytes
+	 * @param directory directory of the disk tier, null for none
+	 * @param maxDiskSize the largest size of the files of the disk tier, in
+	 * bytes
+	 *
+	 * @throws JMException if the MBean cannot be registered
+	 */
+	public static TokenOffsetCache acquire(String name, long maxSize,
+			File directory, long maxDiskSize) throws JMException {
+		synchronized (REGISTRY) {
+			TokenOffsetCache cache = REGISTRY.get(name);
+			if (cache == null) {
+				cache = new TokenOffsetCache(maxSize, directory, maxDiskSize,
+						new ObjectName(
+						TokenizerMetrics.DOMAIN + ":type=TokenOffsetCache,name="
+						+ ObjectName.quote(name)));
+				ManagementFactory.getPlatformMBeanServer()
+					.registerMBean(cache, cache.objectName);
+				REGISTRY.put(name, cache);
+			}
+			cache.users++;
+			return cache;
+		}
+	}
+
+	/**
+	 * Stop using the cache, unpublishing it once no one uses it.
+	 */
+	public void release() {
+		synchronized (REGISTRY) {
+			if (--users > 0 || objectName == null)
+				return;
+			REGISTRY.values().remove(this);
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			try {
+				if (server.isRegistered(objectName))
+					server.unregisterMBean(objectName);
+			} catch (JMException e) {
+				// Already gone
+			}
+		}
+	}
+
+	/**
+	 * Get the tokens of a text, from memory or else from the disk.
+	 *
+	 * @return the tokens, which must not be modified, null if the text is
+	 * not in the cache
+	 */
+	public TokenOffsets get(Key key) {
+		synchronized (this) {
+			TokenOffsets tokens = entries.get(key);
+			if (tokens != null) {
+				hits++;
+				return tokens;
+			}
+		}
+		TokenOffsets tokens = directory == null ? null : read(key);
+		synchronized (this) {
+			if (tokens == null) {
+				misses++;
+				return null;
+			}
+			diskHits++;
+			store(key, tokens);
+			return tokens;
+		}
+	}
+
+	/**
+	 * Add the tokens of a text to the cache.
+	 *
+	 * @param key the key of the text
+	 * @param tokens the tokens, copied
+	 *
+	 * @return the copy held by the cache
+	 */
+	public TokenOffsets put(Key key, TokenOffsets tokens) {
+		TokenOffsets copy = new TokenOffsets(tokens.size());
+		copy.append(tokens);
+		synchronized (this) {
+			store(key, copy);
+		}
+		if (directory != null)
+			write(key, copy);
+		return copy;
+	}
+
+	public synchronized long getHitCount() {
+		return hits;
+	}
+
+	public synchronized long getDiskHitCount() {
+		return diskHits;
+	}
+
+	public synchronized long getMissCount() {
+		return misses;
+	}
+
+	public synchronized long getEvictionCount() {
+		return evictions;
+	}
+
+	public synchronized int getEntryCount() {
+		return entries.size();
+	}
+
+	public synchronized long getSize() {
+		return size;
+	}
+
+	public long getMaxSize() {
+		return maxSize;
+	}
+
+	public long getDiskSize() {
+		if (directory == null)
+			return 0;
+		synchronized (diskLock) {
+			return diskSize;
+		}
+	}
+
+	public long getMaxDiskSize() {
+		return directory == null ? 0 : maxDiskSize;
+	}
+
+	public synchronized void clear() {
+		entries.clear();
+		size = 0;
+		hits = 0;
+		diskHits = 0;
+		misses = 0;
+		evictions = 0;
+	}
+
+	// PRIVATE METHODS ---------------------------------------------------------
+
+	/**
+	 * @return the estimated memory used by the tokens of an entry
+	 */
+	private static long sizeOf(TokenOffsets tokens) {
+		return ENTRY_OVERHEAD + (long) tokens.size() * TOKEN_SIZE;
+	}
+
+	/**
+	 * Put an entry in memory, evicting the least recently used ones to make
+	 * room for it. Called with the lock held.
+	 */
+	private void store(Key key, TokenOffsets tokens) {
+		long needed = sizeOf(tokens);
+		if (needed > maxSize)
+			return;
+		TokenOffsets previous = entries.put(key, tokens);
+		if (previous != null)
+			size -= sizeOf(previous);
+		size += needed;
+		Iterator<TokenOffsets> eldest = entries.values().iterator();
+		while (size > maxSize) {
+			size -= sizeOf(eldest.next());
+			eldest.remove();
+			evictions++;
+		}
+	}
+
+	/**
+	 * @return a hash of the transitions, of the types of the states and of
+	 * the character classes, which decide the tokens of a text
+	 */
+	private static long tablesHash() {
+		long h = FrenchTokenizerTables.INITIAL;
+		for (int transition : FrenchTokenizerTables.TRANSITIONS)
+			h = h * 31 + transition;
+		for (byte type : FrenchTokenizerTables.TYPES)
+			h = h * 31 + type;
+		for (int run : UnicodeClasses.RUNS)
+			h = h * 31 + run;
+		return Key.mix(h);
+	}
+
+	/**
+	 * @return the file of the disk tier holding the tokens of a text
+	 */
+	private File fileOf(Key key) {
+		return new File(directory, String.format("%016x%016x-%d%s",
+				key.high, key.low, key.length, SUFFIX));
+	}
+
+	/**
+	 * Delete the files of the disk tier written with other tables, and the
+	 * temporary files left behind, then count the size of the others and
+	 * prune them down to the largest size.
+	 */
+	private void open() {
+		File[] files = directory.listFiles();
+		if (files == null)
+			return;
+		long total = 0;
+		for (File file : files) {
+			String name = file.getName();
+			if (name.endsWith(SUFFIX))
+				total += file.length();
+			else if (name.endsWith(EXTENSION) || (name.startsWith(TEMPORARY_PREFIX)
+					&& name.endsWith(".tmp")))
+				file.delete();
+		}
+		synchronized (diskLock) {
+			diskSize = total;
+			if (diskSize > maxDiskSize)
+				prune();
+		}
+	}
+
+	/**
+	 * Delete the least recently used files of the disk tier until they take
+	 * at most three quarters of the largest size, so that the directory is
+	 * not listed again at each write. Called with the disk lock held.
+	 */
+	private void prune() {
+		File[] files = directory.listFiles();
+		if (files == null)
+			return;
+		final long[] used = new long[files.length];
+		Integer[] order = new Integer[files.length];
+		long total = 0;
+		for (int i = 0; i < files.length; i++) {
+			order[i] = Integer.valueOf(i);
+			if (files[i].getName().endsWith(SUFFIX)) {
+				used[i] = files[i].lastModified();
+				total += files[i].length();
+			}
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			public int compare(Integer a, Integer b) {
+				return Long.compare(used[a.intValue()], used[b.intValue()]);
+			}
+		});
+		for (int i = 0; i < order.length && total > maxDiskSize / 4 * 3; i++) {
+			File file = files[order[i].intValue()];
+			long length = file.length();
+			if (file.getName().endsWith(SUFFIX) && file.delete())
+				total -= length;
+		}
+		diskSize = total;
+	}
+
+	/**
+	 * @return the tokens read from the disk tier, null if they are not there
+	 * or cannot be read
+	 */
+	private TokenOffsets read(Key key) {
+		File file = fileOf(key);
+		if (!file.isFile())
+			return null;
+		try {
+			DataInputStream in = new DataInputStream(new BufferedInputStream(
+					new FileInputStream(file)));
+			try {
+				if (in.readInt() != MAGIC || in.readLong() != TABLES_HASH
+						|| in.readInt() != key.length)
+					return null;
+				int count = in.readInt();
+				TokenOffsets tokens = new TokenOffsets(count);
+				for (int i = 0; i < count; i++) {
+					int begin = in.readInt();
+					int end = in.readInt();
+					tokens.token(begin, end, TokenType.valueOf(in.readByte()));
+				}
+				// Recently used, so pruned last
+				file.setLastModified(System.currentTimeMillis());
+				return tokens;
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Write the tokens to the disk tier, to a temporary file renamed once
+	 * complete so that a concurrent reader never sees a partial file. A
+	 * failure only leaves the tokens out of the disk tier.
+	 */
+	private void write(Key key, TokenOffsets tokens) {
+		File file = fileOf(key);
+		if (file.isFile())
+			return;
+		File temporary = null;
+		try {
+			temporary = File.createTempFile(TEMPORARY_PREFIX, ".tmp", directory);
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+					new FileOutputStream(temporary)));
+			try {
+				out.writeInt(MAGIC);
+				out.writeLong(TABLES_HASH);
+				out.writeInt(key.length);
+				out.writeInt(tokens.size());
+				for (int i = 0; i < tokens.size(); i++) {
+					out.writeInt(tokens.begin(i));
+					out.writeInt(tokens.end(i));
+					out.writeByte(tokens.type(i).ordinal());
+				}
+			} finally {
+				out.close();
+			}
+			long length = temporary.length();
+			if (length > maxDiskSize)
+				return;
+			if (temporary.renameTo(file)) {
+				temporary = null;
+				synchronized (diskLock) {
+					diskSize += length;
+					if (diskSize > maxDiskSize)
+						prune();
+				}
+			}
+		} catch (IOException e) {
+			// Not cached on disk
+		} finally {
+			if (temporary != null)
+				temporary.delete();
+		}
+	}
+
+	/**
+	 * Identifies a text by a 128 bits hash of its chars and by its length.
+	 */
+	public static final class Key {
+
+		private static final long P1 = 0x9E3779B97F4A7C15L;
+		private static final long P2 = 0xC2B2AE3D27D4EB4FL;
+
+		final long high;
+		final long low;
+		final int length;
+
+		private Key(long high, long low, int length) {
+			this.high = high;
+			this.low = low;
+			this.length = length;
+		}
+
+		/**
+		 * @return the key of a text, computed four chars at a time
+		 */
+		public static Key of(CharSequence text) {
+			int length = text.length();
+			long h1 = P1;
+			long h2 = P2;
+			int i = 0;
+			for (; i + 4 <= length; i += 4) {
+				long v = text.charAt(i)
+					| (long) text.charAt(i + 1) << 16
+					| (long) text.charAt(i + 2) << 32
+					| (long) text.charAt(i + 3) << 48;
+				h1 = Long.rotateLeft(h1 ^ v * P1, 31) * P2;
+				h2 = Long.rotateLeft(h2 + v * P2, 29) * P1;
+			}
+			for (; i < length; i++) {
+				long v = text.charAt(i);
+				h1 = Long.rotateLeft(h1 ^ v * P1, 31) * P2;
+				h2 = Long.rotateLeft(h2 + v * P2, 29) * P1;
+			}
+			return new Key(mix(h1 ^ length), mix(h2 + h1), length);
+		}
+
+		static long mix(long h) {
+			h ^= h >>> 33;
+			h *= 0xFF51AFD7ED558CCDL;
+			h ^= h >>> 33;
+			h *= 0xC4CEB9FE1A85EC53L;
+			h ^= h >>> 33;
+			return h;
+		}
+
+		@Override
+		public int hashCode() {
+			return (int) high;
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			if (!(other instanceof Key))
+				return false;
+			Key key = (Key) other;
+			return high == key.high && low == key.low && length == key.length;
+		}
+	}
+}
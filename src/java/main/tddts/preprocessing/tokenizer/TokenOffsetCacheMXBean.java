@@ -0,0 +1,52 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+/**
+ * Management interface of the {@link TokenOffsetCache}, published through
+ * JMX.
+ */
+public interface TokenOffsetCacheMXBean {
+
+	/** @return the number of texts found in memory */
+	long getHitCount();
+
+	/** @return the number of texts found on disk after a miss in memory */
+	long getDiskHitCount();
+
+	/** @return the number of texts found nowhere */
+	long getMissCount();
+
+	/** @return the number of texts evicted from memory */
+	long getEvictionCount();
+
+	/** @return the number of texts held in memory */
+	int getEntryCount();
+
+	/** @return the estimated size of the texts held in memory, in bytes */
+	long getSize();
+
+	/** @return the largest size of the texts held in memory, in bytes */
+	long getMaxSize();
+
+	/** @return the size of the files of the disk tier, in bytes */
+	long getDiskSize();
+
+	/** @return the largest size of the files of the disk tier, in bytes */
+	long getMaxDiskSize();
+
+	/** Empty the memory tier and set the statistics back to zero */
+	void clear();
+}
@@ -0,0 +1,143 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+/**
+ * A growable list of token offsets, stored as (begin, end) pairs in a
+ * single array of ints, with the ordinals of their types in an array of
+ * bytes. It collects the tokens found by the automaton so that they can be
+ * sent later to another sink.
+ */
+public class TokenOffsets implements TokenSink {
+
+	/** Initial number of tokens the list can hold */
+	private static final int DEFAULT_CAPACITY = 256;
+
+	/** Begin and end offsets of each token, one after the other */
+	private int[] offsets;
+
+	/** Ordinal of the type of each token */
+	private byte[] types;
+
+	/** Number of tokens in the list */
+	private int size;
+
+	public TokenOffsets() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param capacity the number of tokens the list can hold before growing
+	 */
+	public TokenOffsets(int capacity) {
+		this.offsets = new int[Math.max(capacity, 1) * 2];
+		this.types = new byte[Math.max(capacity, 1)];
+		this.size = 0;
+	}
+
+	/**
+	 * Append a token at the end of the list.
+	 */
+	public void token(int begin, int end, TokenType type) {
+		if (size == types.length)
+			grow(size * 2);
+		offsets[size * 2]     = begin;
+		offsets[size * 2 + 1] = end;
+		types[size] = (byte) type.ordinal();
+		size++;
+	}
+
+	/**
+	 * Append all the tokens of another list at the end of this one.
+	 */
+	public void append(TokenOffsets other) {
+		int needed = size + other.size;
+		if (needed > types.length)
+			grow(Math.max(needed, types.length * 2));
+		System.arraycopy(other.offsets, 0, offsets, size * 2, other.size * 2);
+		System.arraycopy(other.types, 0, types, size, other.size);
+		size += other.size;
+	}
+
+	/**
+	 * @return the number of tokens in the list
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return the offset of the first char of the i-th token
+	 */
+	public int begin(int i) {
+		return offsets[i * 2];
+	}
+
+	/**
+	 * @return the offset following the last char of the i-th token
+	 */
+	public int end(int i) {
+		return offsets[i * 2 + 1];
+	}
+
+	/**
+	 * @return the type of the i-th token
+	 */
+	public TokenType type(int i) {
+		return TokenType.valueOf(types[i]);
+	}
+
+	/**
+	 * Empty the list, keeping the memory already allocated.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Send all the tokens of the list, in order, to another sink.
+	 */
+	public void replay(TokenSink sink) {
+		for (int i = 0; i < size; i++) {
+			sink.token(offsets[i * 2], offsets[i * 2 + 1],
+					TokenType.valueOf(types[i]));
+		}
+	}
+
+	/**
+	 * @return a copy of the tokens, as (begin, end, type ordinal) triples
+	 */
+	public int[] toArray() {
+		int[] copy = new int[size * 3];
+		for (int i = 0; i < size; i++) {
+			copy[i * 3]     = offsets[i * 2];
+			copy[i * 3 + 1] = offsets[i * 2 + 1];
+			copy[i * 3 + 2] = types[i];
+		}
+		return copy;
+	}
+
+	/**
+	 * Grow the arrays so that they can hold the given number of tokens.
+	 */
+	private void grow(int capacity) {
+		int[] grownOffsets = new int[capacity * 2];
+		System.arraycopy(offsets, 0, grownOffsets, 0, size * 2);
+		offsets = grownOffsets;
+		byte[] grownTypes = new byte[capacity];
+		System.arraycopy(types, 0, grownTypes, 0, size);
+		types = grownTypes;
+	}
+}
@@ -0,0 +1,117 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// UIMA dependencies
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.Feature;
+import org.apache.uima.cas.Type;
+import org.apache.uima.cas.TypeSystem;
+import org.apache.uima.cas.impl.LowLevelCAS;
+import org.apache.uima.cas.impl.LowLevelIndexRepository;
+import org.apache.uima.cas.impl.LowLevelTypeSystem;
+
+/**
+ * Adds the tokens of a document of a store to a view of a CAS, as the
+ * annotations FrenchUnicodeTokenizer would have created. The annotations are
+ * created through the low level CAS API straight from the decoded offsets,
+ * without parsing any XML nor creating a Java object for each of them.
+ * The store holds no ids : the tokenid feature, when the type system
+ * declares it, is set to -1 as by an annotator without vocabulary.
+ */
+public class TokenStoreCasLoader {
+
+	private final TokenStoreReader reader;
+
+	/** Type system the codes below are taken from */
+	private TypeSystem typeSystem;
+
+	/** Low level codes of the token type and of its features */
+	private int tokenTypeCode;
+	private int beginFeatCode;
+	private int endFeatCode;
+	private int sofaFeatCode;
+	private int tokenTypeFeatCode;
+	private int tokenIdFeatCode;
+
+	/** Whether the type system declares the tokenid feature */
+	private boolean hasTokenId;
+
+	/**
+	 * @param reader the store the tokens are read from
+	 */
+	public TokenStoreCasLoader(TokenStoreReader reader) {
+		this.reader = reader;
+	}
+
+	// INTERFACE ---------------------------------------------------------------
+
+	/**
+	 * Add the tokens of a document to a view. The text of the view must be
+	 * the one of the document.
+	 *
+	 * @param document the number of the document in the store
+	 * @param view the view the annotations are added to
+	 *
+	 * @return the number of annotations added
+	 */
+	public int load(int document, CAS view) {
+		prepare(view.getTypeSystem());
+		final LowLevelCAS llc = view.getLowLevelCAS();
+		final LowLevelIndexRepository indexes = llc.ll_getIndexRepository();
+		final int sofaAddr = llc.ll_getFSRef(view.getSofa());
+		return reader.read(document, new TokenSink() {
+			public void token(int begin, int end, TokenType type) {
+				int addr = llc.ll_createFS(tokenTypeCode);
+				llc.ll_setRefValue(addr, sofaFeatCode, sofaAddr);
+				llc.ll_setIntValue(addr, beginFeatCode, begin);
+				llc.ll_setIntValue(addr, endFeatCode, end);
+				llc.ll_setIntValue(addr, tokenTypeFeatCode, type.ordinal());
+				if (hasTokenId)
+					llc.ll_setIntValue(addr, tokenIdFeatCode, -1);
+				indexes.ll_addFS(addr);
+			}
+		});
+	}
+
+	// PRIVATE METHODS ---------------------------------------------------------
+
+	/**
+	 * Take the low level codes from the type system, unless it is the one
+	 * of the previous view.
+	 */
+	private void prepare(TypeSystem typeSystem) {
+		if (typeSystem == this.typeSystem)
+			return;
+		Type tokenType = typeSystem.getType(FrenchUnicodeTokenizer.TOKEN_NAME);
+		LowLevelTypeSystem llts = (LowLevelTypeSystem) typeSystem;
+		this.tokenTypeCode = llts.ll_getCodeForType(tokenType);
+		this.beginFeatCode = llts.ll_getCodeForFeature(
+				typeSystem.getFeatureByFullName(CAS.FEATURE_FULL_NAME_BEGIN));
+		this.endFeatCode   = llts.ll_getCodeForFeature(
+				typeSystem.getFeatureByFullName(CAS.FEATURE_FULL_NAME_END));
+		this.sofaFeatCode  = llts.ll_getCodeForFeature(
+				typeSystem.getFeatureByFullName(CAS.FEATURE_FULL_NAME_SOFA));
+		this.tokenTypeFeatCode = llts.ll_getCodeForFeature(
+				tokenType.getFeatureByBaseName(
+						FrenchUnicodeTokenizer.TOKEN_TYPE_FEAT_NAME));
+		Feature tokenIdFeat = tokenType.getFeatureByBaseName(
+				FrenchUnicodeTokenizer.TOKEN_ID_FEAT_NAME);
+		this.hasTokenId = tokenIdFeat != null;
+		if (hasTokenId)
+			this.tokenIdFeatCode = llts.ll_getCodeForFeature(tokenIdFeat);
+		this.typeSystem = typeSystem;
+	}
+}
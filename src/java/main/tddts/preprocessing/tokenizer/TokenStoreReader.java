@@ -0,0 +1,266 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+// Tokenizer dependencies
+import static tddts.preprocessing.tokenizer.TokenStoreWriter.*;
+
+/**
+ * Reads the tokens of the documents of a store written by
+ * {@link TokenStoreWriter}. The store is memory-mapped and its index read
+ * when it is opened, so the tokens of any document are decoded directly,
+ * without reading the ones before. Several threads can read the same store
+ * at the same time.
+ *
+ * The store is mapped in segments of 1 GB, so it can be larger than 2 GB,
+ * and the offsets of its tokens can be beyond the range of an int : they
+ * are read through {@link #readLong(int, LongTokenSink)}.
+ */
+public class TokenStoreReader {
+
+	/** Shift giving the segment of a position in the store */
+	private static final int SEGMENT_SHIFT = 30;
+
+	private final RandomAccessFile file;
+
+	/** The whole store, mapped in segments */
+	private final MappedByteBuffer[] segments;
+
+	/** Shift and mask giving the segment of a position and the position in it */
+	private final int shift;
+	private final long mask;
+
+	/** Position of the index */
+	private final long index;
+
+	/** Name of each document */
+	private final String[] names;
+
+	/**
+	 * @param file the store
+	 *
+	 * @throws IOException if the file cannot be read or is not a store
+	 */
+	public TokenStoreReader(File file) throws IOException {
+		this(file, SEGMENT_SHIFT);
+	}
+
+	/**
+	 * @param file the store
+	 * @param shift the size of the segments mapped, as a power of two
+	 *
+	 * @throws IOException if the file cannot be read or is not a store
+	 */
+	TokenStoreReader(File file, int shift) throws IOException {
+		this.file = new RandomAccessFile(file, "r");
+		this.shift = shift;
+		this.mask = (1L << shift) - 1;
+		try {
+			long size = this.file.length();
+			if (size < 4 + TRAILER_SIZE)
+				throw new IOException(file + " is not a token store");
+			this.segments = new MappedByteBuffer[(int) ((size + mask) >>> shift)];
+			FileChannel channel = this.file.getChannel();
+			for (int i = 0; i < segments.length; i++) {
+				long start = (long) i << shift;
+				segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+						Math.min(mask + 1, size - start));
+			}
+			long trailer = size - TRAILER_SIZE;
+			if (getInt(0) != MAGIC || getInt(trailer + 12) != MAGIC)
+				throw new IOException(file + " is not a token store");
+			this.index = getLong(trailer);
+			this.names = new String[getInt(trailer + 8)];
+			long n = index + names.length * 8L;
+			for (int i = 0; i < names.length; i++) {
+				long value = 0;
+				int shifted = 0;
+				byte b;
+				do {
+					b = get(n++);
+					value |= (long) (b & 0x7F) << shifted;
+					shifted += 7;
+				} while (b < 0);
+				byte[] name = new byte[(int) value];
+				for (int j = 0; j < name.length; j++)
+					name[j] = get(n++);
+				names[i] = new String(name, UTF8);
+			}
+		} catch (IOException e) {
+			this.file.close();
+			throw e;
+		} catch (RuntimeException e) {
+			this.file.close();
+			throw new IOException(file + " is not a valid token store", e);
+		}
+	}
+
+	// INTERFACE ---------------------------------------------------------------
+
+	/**
+	 * @return the number of documents in the store
+	 */
+	public int size() {
+		return names.length;
+	}
+
+	/**
+	 * @return the name of a document
+	 */
+	public String getName(int document) {
+		return names[document];
+	}
+
+	/**
+	 * @return the number of the first document with the given name, -1 if
+	 * there is none
+	 */
+	public int indexOf(String name) {
+		for (int i = 0; i < names.length; i++) {
+			if (names[i].equals(name))
+				return i;
+		}
+		return -1;
+	}
+
+	/**
+	 * Send the tokens of a document, in order, to the sink.
+	 *
+	 * @return the number of tokens of the document
+	 *
+	 * @throws IllegalStateException if an offset of the document is beyond
+	 * the range of an int, see {@link #readLong(int, LongTokenSink)}
+	 */
+	public int read(int document, final TokenSink sink) {
+		return (int) readLong(document, new LongTokenSink() {
+			public void token(long begin, long end, TokenType type) {
+				if (end > Integer.MAX_VALUE)
+					throw new IllegalStateException("Token [" + begin + ", "
+							+ end + "[ beyond the range of an int");
+				sink.token((int) begin, (int) end, type);
+			}
+		});
+	}
+
+	/**
+	 * Send the tokens of a document, in order, to the sink, with offsets of
+	 * any size.
+	 *
+	 * @return the number of tokens of the document
+	 */
+	public long readLong(int document, LongTokenSink sink) {
+		long n = start(document);
+		long end = end(document);
+		long tokens = 0;
+		long previousEnd = 0;
+		while (n < end) {
+			// Distance from the previous token
+			int b = get(n++);
+			long gap = b & 0x7F;
+			for (int shifted = 7; b < 0; shifted += 7) {
+				b = get(n++);
+				gap |= (long) (b & 0x7F) << shifted;
+			}
+			// Length and type
+			b = get(n++);
+			long packed = b & 0x7F;
+			for (int shifted = 7; b < 0; shifted += 7) {
+				b = get(n++);
+				packed |= (long) (b & 0x7F) << shifted;
+			}
+			long begin = previousEnd + gap;
+			previousEnd = begin + (packed >>> TYPE_BITS);
+			sink.token(begin, previousEnd,
+					TokenType.valueOf((int) packed & TYPE_MASK));
+			tokens++;
+		}
+		return tokens;
+	}
+
+	/**
+	 * @return the tokens of a document
+	 *
+	 * @throws IllegalStateException if an offset of the document is beyond
+	 * the range of an int
+	 */
+	public TokenOffsets read(int document) {
+		// Most tokens take two or three bytes
+		TokenOffsets tokens = new TokenOffsets((int) Math.min(
+				(end(document) - start(document)) / 2, 1 << 20));
+		read(document, tokens);
+		return tokens;
+	}
+
+	/**
+	 * Close the store.
+	 *
+	 * @throws IOException if the file cannot be closed
+	 */
+	public void close() throws IOException {
+		file.close();
+	}
+
+	// PRIVATE METHODS ---------------------------------------------------------
+
+	/**
+	 * @return the position of the tokens of a document
+	 */
+	private long start(int document) {
+		if (document < 0 || document >= names.length)
+			throw new IndexOutOfBoundsException("Document " + document
+					+ " of " + names.length);
+		return getLong(index + document * 8L);
+	}
+
+	/**
+	 * @return the position following the tokens of a document
+	 */
+	private long end(int document) {
+		return document + 1 < names.length ? start(document + 1) : index;
+	}
+
+	/**
+	 * @return the byte at a position of the store
+	 */
+	private byte get(long position) {
+		return segments[(int) (position >>> shift)].get((int) (position & mask));
+	}
+
+	/**
+	 * @return the big-endian int at a position of the store, which may be
+	 * across two segments
+	 */
+	private int getInt(long position) {
+		int value = 0;
+		for (int i = 0; i < 4; i++)
+			value = (value << 8) | (get(position + i) & 0xFF);
+		return value;
+	}
+
+	/**
+	 * @return the big-endian long at a position of the store, which may be
+	 * across two segments
+	 */
+	private long getLong(long position) {
+		return ((long) getInt(position) << 32)
+			| (getInt(position + 4) & 0xFFFFFFFFL);
+	}
+}
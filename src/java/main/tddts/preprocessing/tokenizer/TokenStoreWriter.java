@@ -0,0 +1,227 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the tokens of a sequence of documents to a compact binary store,
+ * read back by {@link TokenStoreReader}.
+ *
+ * The store starts with a magic number and holds the tokens of each
+ * document one after the other. A token is written as two varints : the
+ * distance between its begin and the end of the previous token of the
+ * document, then its length shifted left by {@value #TYPE_BITS} bits with
+ * the ordinal of its type in the low bits. Most tokens thus take two or
+ * three bytes. The store ends with an index : the offset of the tokens of
+ * each document, the name of each document, then the offset of the index,
+ * the number of documents and the magic number again.
+ */
+public class TokenStoreWriter implements TokenSink, LongTokenSink {
+
+	/** Magic number at the beginning and at the end of a store */
+	static final int MAGIC = 0x544B5331;
+
+	/** Bits of the length holding the type of a token */
+	static final int TYPE_BITS = 2;
+
+	/** Mask of the type in the length */
+	static final int TYPE_MASK = (1 << TYPE_BITS) - 1;
+
+	/** Size of the trailer : offset of the index, number of documents and
+	 * magic number */
+	static final int TRAILER_SIZE = 16;
+
+	/** The UTF-8 charset */
+	static final Charset UTF8 = Charset.forName("UTF-8");
+
+	static {
+		if (TokenType.values().length > TYPE_MASK + 1)
+			throw new AssertionError("Too many token types for the store");
+	}
+
+	private final OutputStream out;
+
+	/** Bytes waiting to be written */
+	private final byte[] buffer = new byte[64 * 1024];
+	private int length;
+
+	/** Number of bytes already written to the stream */
+	private long flushed;
+
+	/** Offset of the tokens of each document */
+	private long[] starts = new long[256];
+
+	/** Name of each document */
+	private final List<String> names = new ArrayList<String>();
+
+	/** End of the previous token of the current document */
+	private long previousEnd;
+
+	/**
+	 * @param file the file the store is written to
+	 *
+	 * @throws IOException if the file cannot be created
+	 */
+	public TokenStoreWriter(File file) throws IOException {
+		this(new FileOutputStream(file));
+	}
+
+	/**
+	 * @param out the stream the store is written to, closed with the writer
+	 *
+	 * @throws IOException if the stream cannot be written to
+	 */
+	public TokenStoreWriter(OutputStream out) throws IOException {
+		this.out = out;
+		writeInt(MAGIC);
+	}
+
+	// INTERFACE ---------------------------------------------------------------
+
+	/**
+	 * Start a new document, the tokens following being its own.
+	 *
+	 * @param name the name of the document, null for none
+	 *
+	 * @return the number of the document in the store
+	 */
+	public int startDocument(String name) {
+		int document = names.size();
+		if (document == starts.length) {
+			long[] grown = new long[starts.length * 2];
+			System.arraycopy(starts, 0, grown, 0, starts.length);
+			starts = grown;
+		}
+		starts[document] = flushed + length;
+		names.add(name == null ? "" : name);
+		previousEnd = 0;
+		return document;
+	}
+
+	/**
+	 * Write all the tokens of a document.
+	 *
+	 * @return the number of the document in the store
+	 */
+	public int add(String name, TokenOffsets tokens) {
+		int document = startDocument(name);
+		tokens.replay(this);
+		return document;
+	}
+
+	/**
+	 * @return the number of documents started
+	 */
+	public int size() {
+		return names.size();
+	}
+
+	public void token(int begin, int end, TokenType type) {
+		token((long) begin, (long) end, type);
+	}
+
+	public void token(long begin, long end, TokenType type) {
+		if (names.isEmpty())
+			throw new IllegalStateException("No document started");
+		if (begin < previousEnd || end < begin)
+			throw new IllegalArgumentException("Token [" + begin + ", " + end
+					+ "[ after a token ending at " + previousEnd);
+		try {
+			// Two varints take at most 20 bytes
+			if (length + 20 > buffer.length)
+				flushBuffer();
+			writeVarLong(begin - previousEnd);
+			writeVarLong(((end - begin) << TYPE_BITS) | type.ordinal());
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+		previousEnd = end;
+	}
+
+	/**
+	 * Write the index and close the store.
+	 *
+	 * @throws IOException if the store cannot be written
+	 */
+	public void close() throws IOException {
+		try {
+			long index = flushed + length;
+			for (int i = 0; i < names.size(); i++) {
+				if (length + 8 > buffer.length)
+					flushBuffer();
+				writeLong(starts[i]);
+			}
+			for (String name : names) {
+				byte[] bytes = name.getBytes(UTF8);
+				if (length + 10 + bytes.length > buffer.length)
+					flushBuffer();
+				writeVarLong(bytes.length);
+				if (length + bytes.length <= buffer.length) {
+					System.arraycopy(bytes, 0, buffer, length, bytes.length);
+					length += bytes.length;
+				} else {
+					// Larger than the buffer, written on its own
+					flushBuffer();
+					out.write(bytes);
+					flushed += bytes.length;
+				}
+			}
+			if (length + TRAILER_SIZE > buffer.length)
+				flushBuffer();
+			writeLong(index);
+			writeInt(names.size());
+			writeInt(MAGIC);
+			flushBuffer();
+		} finally {
+			out.close();
+		}
+	}
+
+	// PRIVATE METHODS ---------------------------------------------------------
+
+	private void writeVarLong(long value) {
+		while ((value & ~0x7FL) != 0) {
+			buffer[length++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		buffer[length++] = (byte) value;
+	}
+
+	private void writeInt(int value) {
+		buffer[length++] = (byte) (value >>> 24);
+		buffer[length++] = (byte) (value >>> 16);
+		buffer[length++] = (byte) (value >>> 8);
+		buffer[length++] = (byte) value;
+	}
+
+	private void writeLong(long value) {
+		writeInt((int) (value >>> 32));
+		writeInt((int) value);
+	}
+
+	private void flushBuffer() throws IOException {
+		out.write(buffer, 0, length);
+		flushed += length;
+		length = 0;
+	}
+}
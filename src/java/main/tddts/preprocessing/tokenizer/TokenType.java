@@ -0,0 +1,37 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+/**
+ * The kind of a token, given by the states of the automaton it was built
+ * in. Its ordinal is the value of the tokentype feature of the annotations.
+ */
+public enum TokenType {
+	word,        // built in the L* states
+	number,      // built in the N* states
+	punctuation, // built in the P0 state
+	unknown;     // built in the U0 state
+
+	/** The types indexed by their ordinal */
+	private static final TokenType[] VALUES = values();
+
+	/**
+	 * @return the type of the given ordinal, the value of the tokentype
+	 * feature
+	 */
+	public static TokenType valueOf(int ordinal) {
+		return VALUES[ordinal];
+	}
+}
@@ -0,0 +1,303 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+// Tokenizer dependencies
+import tddts.preprocessing.tokenizer.FrenchTokenizerAutomaton.Signal;
+import tddts.preprocessing.tokenizer.FrenchTokenizerAutomaton.States;
+
+/**
+ * Cumulative metrics of the tokenizer, published as an MBean named
+ * "tddts.preprocessing.tokenizer:type=TokenizerMetrics,name=...". All the
+ * annotators using the same name, whatever their thread, share the same
+ * instance : its counters are striped, so the updates are cheap and never
+ * take a lock.
+ *
+ * The documents, chars, tokens and processing times are counted for every
+ * document. The signals and the state visits, which would otherwise cost a
+ * counter update for each char, are counted on a sample of the documents
+ * only, by running the automaton the annotator is configured with over them
+ * a second time. They are estimates of the whole : the counts over all the
+ * documents are about the sampled ones times CharCount / SampledCharCount.
+ * The compiled automaton cannot tell apart the states merged together, it
+ * counts their visits under the first of them.
+ */
+public class TokenizerMetrics implements TokenizerMetricsMXBean {
+
+	/** Domain of the names of the MBeans */
+	public static final String DOMAIN = "tddts.preprocessing.tokenizer";
+
+	/** Metrics in use, by name */
+	private static final Map<String, TokenizerMetrics> REGISTRY =
+		new HashMap<String, TokenizerMetrics>();
+
+	/** States of the reference automaton */
+	private static final States[] STATES = States.values();
+
+	/** Signals indexed by their ordinal */
+	private static final Signal[] SIGNALS = Signal.values();
+
+	/** Durations below this number of nanoseconds have a bucket each */
+	private static final int LINEAR = 16;
+
+	/** Buckets between two powers of two, above the linear ones */
+	private static final int SUB_BUCKETS = 8;
+
+	/** Number of buckets of the durations histogram */
+	static final int NB_BUCKETS = LINEAR + (63 - 4) * SUB_BUCKETS;
+
+	/** Index of each counter */
+	private static final int DOCUMENTS = 0;
+	private static final int CHARS     = 1;
+	private static final int TOKENS    = 2;
+	private static final int NANOS     = 3;
+	private static final int SAMPLED_COMPILED  = 4;
+	private static final int SAMPLED_REFERENCE = 5;
+	private static final int SAMPLED_CHARS     = 6;
+	private static final int SIGNAL_COUNTS = 7;
+	private static final int STATE_VISITS  = SIGNAL_COUNTS + SIGNALS.length;
+	private static final int BUCKETS       = STATE_VISITS + STATES.length;
+
+	private final StripedCounters counters =
+		new StripedCounters(BUCKETS + NB_BUCKETS);
+
+	private final ObjectName objectName;
+
+	/** Number of annotators using the metrics */
+	private int users;
+
+	/**
+	 * Create metrics that are not published.
+	 */
+	TokenizerMetrics() {
+		this.objectName = null;
+	}
+
+	private TokenizerMetrics(ObjectName objectName) {
+		this.objectName = objectName;
+	}
+
+	// INTERFACE ---------------------------------------------------------------
+
+	/**
+	 * Get the metrics of the given name, publishing them if they are not in
+	 * use yet. Each call must be followed by a call to {@link #release()}.
+	 *
+	 * @throws JMException if the MBean cannot be registered
+	 */
+	public static TokenizerMetrics acquire(String name) throws JMException {
+		synchronized (REGISTRY) {
+			TokenizerMetrics metrics = REGISTRY.get(name);
+			if (metrics == null) {
+				metrics = new TokenizerMetrics(new ObjectName(DOMAIN
+						+ ":type=TokenizerMetrics,name=" + ObjectName.quote(name)));
+				ManagementFactory.getPlatformMBeanServer()
+					.registerMBean(metrics, metrics.objectName);
+				REGISTRY.put(name, metrics);
+			}
+			metrics.users++;
+			return metrics;
+		}
+	}
+
+	/**
+	 * Stop using the metrics, unpublishing them once no one uses them.
+	 */
+	public void release() {
+		synchronized (REGISTRY) {
+			if (--users > 0 || objectName == null)
+				return;
+			REGISTRY.values().remove(this);
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			try {
+				if (server.isRegistered(objectName))
+					server.unregisterMBean(objectName);
+			} catch (JMException e) {
+				// Already gone
+			}
+		}
+	}
+
+	/**
+	 * @return the name the metrics are published under, null if they are not
+	 */
+	public ObjectName getObjectName() {
+		return objectName;
+	}
+
+	/**
+	 * Count a document.
+	 *
+	 * @param nbChars the number of chars tokenized
+	 * @param nbTokens the number of tokens found
+	 * @param nanos the processing time
+	 */
+	public void document(long nbChars, long nbTokens, long nanos) {
+		counters.add(DOCUMENTS, 1);
+		counters.add(CHARS, nbChars);
+		counters.add(TOKENS, nbTokens);
+		counters.add(NANOS, nanos);
+		counters.add(BUCKETS + bucket(nanos), 1);
+	}
+
+	/**
+	 * Count the signals sent and the states visited by an automaton over a
+	 * document.
+	 *
+	 * @param text the text of the document
+	 * @param automaton the automaton the document was tokenized with, left
+	 * unchanged : a new instance of it is run over the text
+	 */
+	public void sample(CharSequence text, FrenchTokenizerAutomaton automaton) {
+		FrenchTokenizerAutomaton sampler = automaton.newInstance();
+		int[] signals = new int[SIGNALS.length];
+		int[] visits = new int[STATES.length];
+		int length = text.length();
+		for (int i = 0; i < length; ) {
+			int c = Character.codePointAt(text, i);
+			visits[sampler.theCurrentState.ordinal()]++;
+			signals[sampler.feedCodePoint(c).ordinal()]++;
+			i += Character.charCount(c);
+		}
+		counters.add(automaton instanceof CompiledFrenchTokenizerAutomaton
+				? SAMPLED_COMPILED : SAMPLED_REFERENCE, 1);
+		counters.add(SAMPLED_CHARS, length);
+		counters.add(SIGNAL_COUNTS, signals);
+		counters.add(STATE_VISITS, visits);
+	}
+
+	public long getDocumentCount() {
+		return counters.get(DOCUMENTS);
+	}
+
+	public long getCharCount() {
+		return counters.get(CHARS);
+	}
+
+	public long getTokenCount() {
+		return counters.get(TOKENS);
+	}
+
+	public long getSampledDocumentCount() {
+		return counters.get(SAMPLED_COMPILED) + counters.get(SAMPLED_REFERENCE);
+	}
+
+	public long getSampledCharCount() {
+		return counters.get(SAMPLED_CHARS);
+	}
+
+	public String getSampledAutomaton() {
+		boolean compiled = counters.get(SAMPLED_COMPILED) != 0;
+		boolean reference = counters.get(SAMPLED_REFERENCE) != 0;
+		if (compiled && reference)
+			return "compiled and reference";
+		return compiled ? "compiled" : reference ? "reference" : "none";
+	}
+
+	public Map<String, Long> getSampledSignalCounts() {
+		Map<String, Long> counts = new LinkedHashMap<String, Long>();
+		for (int i = 0; i < SIGNALS.length; i++)
+			counts.put(SIGNALS[i].name(), counters.get(SIGNAL_COUNTS + i));
+		return counts;
+	}
+
+	public Map<String, Long> getSampledStateVisits() {
+		Map<String, Long> visits = new LinkedHashMap<String, Long>();
+		for (int i = 0; i < STATES.length; i++)
+			visits.put(STATES[i].name(), counters.get(STATE_VISITS + i));
+		return visits;
+	}
+
+	public double getProcessingTimeP50() {
+		return percentile(0.5);
+	}
+
+	public double getProcessingTimeP90() {
+		return percentile(0.9);
+	}
+
+	public double getProcessingTimeP99() {
+		return percentile(0.99);
+	}
+
+	public double getProcessingTimeP999() {
+		return percentile(0.999);
+	}
+
+	public double getProcessingTimeMean() {
+		long documents = counters.get(DOCUMENTS);
+		return documents == 0 ? 0 : counters.get(NANOS) / 1e3 / documents;
+	}
+
+	public void reset() {
+		counters.reset();
+	}
+
+	// PRIVATE METHODS ---------------------------------------------------------
+
+	/**
+	 * @return the upper bound, in microseconds, of the bucket holding the
+	 * given fraction of the documents
+	 */
+	double percentile(double fraction) {
+		long[] counts = new long[NB_BUCKETS];
+		long total = 0;
+		for (int b = 0; b < NB_BUCKETS; b++) {
+			counts[b] = counters.get(BUCKETS + b);
+			total += counts[b];
+		}
+		if (total == 0)
+			return 0;
+		long rank = (long) Math.ceil(fraction * total);
+		long seen = 0;
+		for (int b = 0; b < NB_BUCKETS; b++) {
+			seen += counts[b];
+			if (seen >= Math.max(rank, 1))
+				return upperBound(b) / 1e3;
+		}
+		return upperBound(NB_BUCKETS - 1) / 1e3;
+	}
+
+	/**
+	 * @return the bucket of a duration : one per nanosecond below 16, then
+	 * 8 per power of two, within 12.5% of the duration
+	 */
+	static int bucket(long nanos) {
+		if (nanos < LINEAR)
+			return (int) Math.max(nanos, 0);
+		int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+		int sub = (int) (nanos >>> (exponent - 3)) & (SUB_BUCKETS - 1);
+		return LINEAR + (exponent - 4) * SUB_BUCKETS + sub;
+	}
+
+	/**
+	 * @return the largest duration of a bucket, in nanoseconds
+	 */
+	static long upperBound(int bucket) {
+		if (bucket < LINEAR)
+			return bucket;
+		int exponent = (bucket - LINEAR) / SUB_BUCKETS + 4;
+		int sub = (bucket - LINEAR) % SUB_BUCKETS;
+		return ((long) (SUB_BUCKETS + sub + 1) << (exponent - 3)) - 1;
+	}
+}
@@ -0,0 +1,75 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.util.Map;
+
+/**
+ * Management interface of the {@link TokenizerMetrics}, published through
+ * JMX. The durations are in microseconds. The Sampled attributes are counted
+ * on a sample of the documents only.
+ */
+public interface TokenizerMetricsMXBean {
+
+	/** @return the number of documents processed */
+	long getDocumentCount();
+
+	/** @return the number of chars tokenized */
+	long getCharCount();
+
+	/** @return the number of tokens found */
+	long getTokenCount();
+
+	/** @return the number of documents the signals and states are counted on */
+	long getSampledDocumentCount();
+
+	/** @return the number of chars of the sampled documents */
+	long getSampledCharCount();
+
+	/**
+	 * @return the automaton the samples were run with : compiled, reference,
+	 * compiled and reference, or none
+	 */
+	String getSampledAutomaton();
+
+	/** @return the number of each signal sent in the sampled documents */
+	Map<String, Long> getSampledSignalCounts();
+
+	/**
+	 * @return the number of code points read in each state of the reference
+	 * automaton in the sampled documents; the compiled automaton counts the
+	 * states merged together under the first of them
+	 */
+	Map<String, Long> getSampledStateVisits();
+
+	/** @return the median processing time of a document */
+	double getProcessingTimeP50();
+
+	/** @return the 90th percentile of the processing time of a document */
+	double getProcessingTimeP90();
+
+	/** @return the 99th percentile of the processing time of a document */
+	double getProcessingTimeP99();
+
+	/** @return the 99.9th percentile of the processing time of a document */
+	double getProcessingTimeP999();
+
+	/** @return the mean processing time of a document */
+	double getProcessingTimeMean();
+
+	/** Set all the metrics back to zero */
+	void reset();
+}
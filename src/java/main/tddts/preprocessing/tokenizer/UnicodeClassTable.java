@@ -0,0 +1,100 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Two-level table giving the character class of any code point, built from
+ * the runs frozen in {@link UnicodeClasses}.
+ *
+ * The code points are split in blocks of 256 : the first level gives the
+ * number of the block of classes for each block of code points, the second
+ * level holds the distinct blocks of classes one after the other. Most
+ * blocks are identical (unassigned planes, CJK ideographs...), so the whole
+ * table takes about 36 KB, less than a flat table of the BMP alone.
+ */
+final class UnicodeClassTable {
+
+	/** Shift applied to a code point to get its block */
+	static final int BLOCK_SHIFT = 8;
+
+	/** Mask applied to a code point to get its offset in the block */
+	static final int BLOCK_MASK = (1 << BLOCK_SHIFT) - 1;
+
+	/** Number of the block of classes of each block of code points */
+	private static final byte[] INDEX =
+		new byte[(Character.MAX_CODE_POINT + 1) >> BLOCK_SHIFT];
+
+	/** The distinct blocks of classes, one after the other */
+	private static final byte[] BLOCKS;
+
+	static {
+		int[] runs = UnicodeClasses.RUNS;
+		Map<ByteBuffer, Integer> numbers = new HashMap<ByteBuffer, Integer>();
+		List<byte[]> blocks = new ArrayList<byte[]>();
+		int run = 0;
+		for (int block = 0; block < INDEX.length; block++) {
+			byte[] classes = new byte[BLOCK_MASK + 1];
+			int first = block << BLOCK_SHIFT;
+			for (int i = 0; i <= BLOCK_MASK; i++) {
+				while (run + 1 < runs.length && (runs[run + 1] >>> 4) <= first + i)
+					run++;
+				classes[i] = (byte) (runs[run] & 0xF);
+			}
+			// Byte buffers are compared on their content
+			ByteBuffer key = ByteBuffer.wrap(classes);
+			Integer number = numbers.get(key);
+			if (number == null) {
+				number = Integer.valueOf(blocks.size());
+				numbers.put(key, number);
+				blocks.add(classes);
+			}
+			INDEX[block] = (byte) number.intValue();
+		}
+		if (blocks.size() > 256)
+			throw new IllegalStateException("Too many distinct blocks of classes");
+		BLOCKS = new byte[blocks.size() << BLOCK_SHIFT];
+		for (int i = 0; i < blocks.size(); i++) {
+			System.arraycopy(blocks.get(i), 0, BLOCKS, i << BLOCK_SHIFT,
+					BLOCK_MASK + 1);
+		}
+	}
+
+	private UnicodeClassTable() {
+	}
+
+	/**
+	 * @param c a code point, or a surrogate char alone
+	 *
+	 * @return the character class of the code point
+	 */
+	static int classOf(int c) {
+		return BLOCKS[((INDEX[c >>> BLOCK_SHIFT] & 0xFF) << BLOCK_SHIFT)
+		              | (c & BLOCK_MASK)];
+	}
+
+	/**
+	 * @return the size of the table, in bytes
+	 */
+	static int size() {
+		return INDEX.length + BLOCKS.length;
+	}
+}
@@ -0,0 +1,190 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+// Tokenizer dependencies
+import static tddts.preprocessing.tokenizer.CompiledFrenchTokenizerAutomaton.*;
+
+/**
+ * Generates the source of {@link UnicodeClasses}, the character classes of
+ * all the code points as the automaton sees them, from the Unicode data of
+ * the running JDK. The classes are stored as runs of code points sharing the
+ * same class, so that the tokenization does not change when the JDK is
+ * upgraded : the table is only regenerated on purpose.
+ *
+ * Usage : UnicodeClassTableGenerator unicodeVersion outputFile
+ *
+ * The Unicode version is the one of the running JDK (13.0 for Java 17, 15.0
+ * for Java 21), it is only recorded in the generated source.
+ */
+public class UnicodeClassTableGenerator {
+
+	/** Number of runs written on each line */
+	private static final int RUNS_PER_LINE = 6;
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println(
+					"Usage: UnicodeClassTableGenerator unicodeVersion outputFile");
+			System.exit(1);
+		}
+		PrintWriter out = new PrintWriter(new OutputStreamWriter(
+				new FileOutputStream(new File(args[1])), "UTF-8"));
+		try {
+			generate(args[0], out);
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Write the source of the runs table.
+	 */
+	static void generate(String unicodeVersion, PrintWriter out) {
+		int[] runs = runs();
+		out.println("/* This file is licensed to you under the Apache License,");
+		out.println(" * Version 2.0 (the \"License\"); you may not use this file except");
+		out.println(" * in compliance with the License.  You may obtain a copy of the");
+		out.println(" * License at");
+		out.println(" *");
+		out.println(" *   http://www.apache.org/licenses/LICENSE-2.0");
+		out.println(" *");
+		out.println(" * Unless required by applicable law or agreed to in writing,");
+		out.println(" * software distributed under the License is distributed on an");
+		out.println(" * \"AS IS\" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY");
+		out.println(" * KIND, either express or implied.  See the License for the");
+		out.println(" * specific language governing permissions and limitations");
+		out.println(" * under the License.");
+		out.println(" */");
+		out.println("package tddts.preprocessing.tokenizer;");
+		out.println();
+		out.println("/**");
+		out.println(" * Character classes of all the code points, frozen to Unicode "
+				+ unicodeVersion + ".");
+		out.println(" *");
+		out.println(" * GENERATED by UnicodeClassTableGenerator, do not edit.");
+		out.println(" */");
+		out.println("final class UnicodeClasses {");
+		out.println();
+		out.println("\t/** Version of Unicode the classes come from */");
+		out.println("\tstatic final String UNICODE_VERSION = \""
+				+ unicodeVersion + "\";");
+		out.println();
+		out.println("\t/**");
+		out.println("\t * Runs of code points sharing a class, in order : each one is");
+		out.println("\t * packed as (first code point << 4) | class.");
+		out.println("\t */");
+		out.println("\tstatic final int[] RUNS = new int[] {");
+		for (int i = 0; i < runs.length; i += RUNS_PER_LINE) {
+			StringBuilder line = new StringBuilder("\t\t");
+			for (int j = i; j < Math.min(i + RUNS_PER_LINE, runs.length); j++) {
+				line.append(String.format("0x%07x,", runs[j]));
+				if (j + 1 < Math.min(i + RUNS_PER_LINE, runs.length))
+					line.append(' ');
+			}
+			out.println(line);
+		}
+		out.println("\t};");
+		out.println();
+		out.println("\tprivate UnicodeClasses() {");
+		out.println("\t}");
+		out.println("}");
+	}
+
+	/**
+	 * @return the runs of code points sharing a class, packed as
+	 * (first code point << 4) | class
+	 */
+	static int[] runs() {
+		int[] runs = new int[64];
+		int size = 0;
+		int previous = -1;
+		for (int c = 0; c <= Character.MAX_CODE_POINT; c++) {
+			int cls = classify(c);
+			if (cls != previous) {
+				if (size == runs.length) {
+					int[] grown = new int[runs.length * 2];
+					System.arraycopy(runs, 0, grown, 0, size);
+					runs = grown;
+				}
+				runs[size++] = (c << 4) | cls;
+				previous = cls;
+			}
+		}
+		int[] trimmed = new int[size];
+		System.arraycopy(runs, 0, trimmed, 0, size);
+		return trimmed;
+	}
+
+	/**
+	 * Compute the class of a code point, as seen by the reference automaton
+	 * on the running JDK.
+	 */
+	static int classify(int c) {
+		switch (c) {
+		case 0x0027:
+		case 0x2019:
+			return CLASS_APOSTROPHE;
+		case 0x02BC:
+			return CLASS_APOSTROPHE_LETTER;
+		case 0x0075:
+		case 0x0055:
+			return CLASS_U;
+		case 0x002E:
+			return CLASS_DOT;
+		case 0x002F:
+			return CLASS_SLASH;
+		case 0x002C:
+			return CLASS_COMMA;
+		case 0x0025:
+			return CLASS_PERCENT;
+		}
+		switch ( Character.getType(c) ) {
+		case Character.LINE_SEPARATOR:
+		case Character.PARAGRAPH_SEPARATOR:
+		case Character.SPACE_SEPARATOR:
+			return CLASS_SEPARATOR;
+		case Character.DECIMAL_DIGIT_NUMBER:
+		case Character.LETTER_NUMBER:
+		case Character.OTHER_NUMBER:
+			return CLASS_NUMBER;
+		case Character.LOWERCASE_LETTER:
+		case Character.UPPERCASE_LETTER:
+		case Character.MODIFIER_LETTER:
+		case Character.OTHER_LETTER:
+		case Character.TITLECASE_LETTER:
+			return CLASS_LETTER;
+		case Character.DASH_PUNCTUATION:
+			return CLASS_DASH;
+		case Character.CONNECTOR_PUNCTUATION:
+		case Character.END_PUNCTUATION:
+		case Character.INITIAL_QUOTE_PUNCTUATION:
+		case Character.FINAL_QUOTE_PUNCTUATION:
+		case Character.OTHER_PUNCTUATION:
+		case Character.START_PUNCTUATION:
+			return CLASS_PUNCTUATION;
+		case Character.CURRENCY_SYMBOL:
+			return CLASS_CURRENCY;
+		default:
+			return CLASS_OTHER;
+		}
+	}
+}
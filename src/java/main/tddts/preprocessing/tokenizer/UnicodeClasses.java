@@ -0,0 +1,330 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+/**
+ * Character classes of all the code points, frozen to Unicode 13.0.
+ *
+ * GENERATED by UnicodeClassTableGenerator, do not edit.
+ */
+final class UnicodeClasses {
+
+	/** Version of Unicode the classes come from */
+	static final String UNICODE_VERSION = "13.0";
+
+	/**
+	 * Runs of code points sharing a class, in order : each one is
+	 * packed as (first code point << 4) | class.
+	 */
+	static final int[] RUNS = new int[] {
+		0x000000d, 0x0000200, 0x000021b, 0x000024c, 0x0000259, 0x000026b,
+		0x0000274, 0x000028b, 0x00002bd, 0x00002c8, 0x00002da, 0x00002e6,
+		0x00002f7, 0x0000301, 0x00003ab, 0x00003cd, 0x00003fb, 0x0000412,
+		0x0000553, 0x0000562, 0x00005bb, 0x00005ed, 0x00005fb, 0x000060d,
+		0x0000612, 0x0000753, 0x0000762, 0x00007bb, 0x00007cd, 0x00007db,
+		0x00007ed, 0x0000a00, 0x0000a1b, 0x0000a2c, 0x0000a6d, 0x0000a7b,
+		0x0000a8d, 0x0000aa2, 0x0000abb, 0x0000acd, 0x0000b21, 0x0000b4d,
+		0x0000b52, 0x0000b6b, 0x0000b8d, 0x0000b91, 0x0000ba2, 0x0000bbb,
+		0x0000bc1, 0x0000bfb, 0x0000c02, 0x0000d7d, 0x0000d82, 0x0000f7d,
+		0x0000f82, 0x0002bc5, 0x0002bd2, 0x0002c2d, 0x0002c62, 0x0002d2d,
+		0x0002e02, 0x0002e5d, 0x0002ec2, 0x0002edd, 0x0002ee2, 0x0002efd,
+		0x0003702, 0x000375d, 0x0003762, 0x000378d, 0x00037a2, 0x00037eb,
+		0x00037f2, 0x000380d, 0x0003862, 0x000387b, 0x0003882, 0x00038bd,
+		0x00038c2, 0x00038dd, 0x00038e2, 0x0003a2d, 0x0003a32, 0x0003f6d,
+		0x0003f72, 0x000482d, 0x00048a2, 0x000530d, 0x0005312, 0x000557d,
+		0x0005592, 0x00055ab, 0x0005602, 0x000589b, 0x00058aa, 0x00058bd,
+		0x00058fc, 0x000590d, 0x0005bea, 0x0005bfd, 0x0005c0b, 0x0005c1d,
+		0x0005c3b, 0x0005c4d, 0x0005c6b, 0x0005c7d, 0x0005d02, 0x0005ebd,
+		0x0005ef2, 0x0005f3b, 0x0005f5d, 0x000609b, 0x00060bc, 0x00060cb,
+		0x00060ed, 0x00061bb, 0x00061cd, 0x00061eb, 0x0006202, 0x00064bd,
+		0x0006601, 0x00066ab, 0x00066e2, 0x000670d, 0x0006712, 0x0006d4b,
+		0x0006d52, 0x0006d6d, 0x0006e52, 0x0006e7d, 0x0006ee2, 0x0006f01,
+		0x0006fa2, 0x0006fdd, 0x0006ff2, 0x000700b, 0x00070ed, 0x0007102,
+		0x000711d, 0x0007122, 0x000730d, 0x00074d2, 0x0007a6d, 0x0007b12,
+		0x0007b2d, 0x0007c01, 0x0007ca2, 0x0007ebd, 0x0007f42, 0x0007f6d,
+		0x0007f7b, 0x0007fa2, 0x0007fbd, 0x0007fec, 0x0008002, 0x000816d,
+		0x00081a2, 0x00081bd, 0x0008242, 0x000825d, 0x0008282, 0x000829d,
+		0x000830b, 0x00083fd, 0x0008402, 0x000859d, 0x00085eb, 0x00085fd,
+		0x0008602, 0x00086bd, 0x0008a02, 0x0008b5d, 0x0008b62, 0x0008c8d,
+		0x0009042, 0x00093ad, 0x00093d2, 0x00093ed, 0x0009502, 0x000951d,
+		0x0009582, 0x000962d, 0x000964b, 0x0009661, 0x000970b, 0x0009712,
+		0x000981d, 0x0009852, 0x00098dd, 0x00098f2, 0x000991d, 0x0009932,
+		0x0009a9d, 0x0009aa2, 0x0009b1d, 0x0009b22, 0x0009b3d, 0x0009b62,
+		0x0009bad, 0x0009bd2, 0x0009bed, 0x0009ce2, 0x0009cfd, 0x0009dc2,
+		0x0009ded, 0x0009df2, 0x0009e2d, 0x0009e61, 0x0009f02, 0x0009f2c,
+		0x0009f41, 0x0009fad, 0x0009fbc, 0x0009fc2, 0x0009fdb, 0x0009fed,
+		0x000a052, 0x000a0bd, 0x000a0f2, 0x000a11d, 0x000a132, 0x000a29d,
+		0x000a2a2, 0x000a31d, 0x000a322, 0x000a34d, 0x000a352, 0x000a37d,
+		0x000a382, 0x000a3ad, 0x000a592, 0x000a5dd, 0x000a5e2, 0x000a5fd,
+		0x000a661, 0x000a70d, 0x000a722, 0x000a75d, 0x000a76b, 0x000a77d,
+		0x000a852, 0x000a8ed, 0x000a8f2, 0x000a92d, 0x000a932, 0x000aa9d,
+		0x000aaa2, 0x000ab1d, 0x000ab22, 0x000ab4d, 0x000ab52, 0x000abad,
+		0x000abd2, 0x000abed, 0x000ad02, 0x000ad1d, 0x000ae02, 0x000ae2d,
+		0x000ae61, 0x000af0b, 0x000af1c, 0x000af2d, 0x000af92, 0x000afad,
+		0x000b052, 0x000b0dd, 0x000b0f2, 0x000b11d, 0x000b132, 0x000b29d,
+		0x000b2a2, 0x000b31d, 0x000b322, 0x000b34d, 0x000b352, 0x000b3ad,
+		0x000b3d2, 0x000b3ed, 0x000b5c2, 0x000b5ed, 0x000b5f2, 0x000b62d,
+		0x000b661, 0x000b70d, 0x000b712, 0x000b721, 0x000b78d, 0x000b832,
+		0x000b84d, 0x000b852, 0x000b8bd, 0x000b8e2, 0x000b91d, 0x000b922,
+		0x000b96d, 0x000b992, 0x000b9bd, 0x000b9c2, 0x000b9dd, 0x000b9e2,
+		0x000ba0d, 0x000ba32, 0x000ba5d, 0x000ba82, 0x000babd, 0x000bae2,
+		0x000bbad, 0x000bd02, 0x000bd1d, 0x000be61, 0x000bf3d, 0x000bf9c,
+		0x000bfad, 0x000c052, 0x000c0dd, 0x000c0e2, 0x000c11d, 0x000c122,
+		0x000c29d, 0x000c2a2, 0x000c3ad, 0x000c3d2, 0x000c3ed, 0x000c582,
+		0x000c5bd, 0x000c602, 0x000c62d, 0x000c661, 0x000c70d, 0x000c77b,
+		0x000c781, 0x000c7fd, 0x000c802, 0x000c81d, 0x000c84b, 0x000c852,
+		0x000c8dd, 0x000c8e2, 0x000c91d, 0x000c922, 0x000ca9d, 0x000caa2,
+		0x000cb4d, 0x000cb52, 0x000cbad, 0x000cbd2, 0x000cbed, 0x000cde2,
+		0x000cdfd, 0x000ce02, 0x000ce2d, 0x000ce61, 0x000cf0d, 0x000cf12,
+		0x000cf3d, 0x000d042, 0x000d0dd, 0x000d0e2, 0x000d11d, 0x000d122,
+		0x000d3bd, 0x000d3d2, 0x000d3ed, 0x000d4e2, 0x000d4fd, 0x000d542,
+		0x000d57d, 0x000d581, 0x000d5f2, 0x000d62d, 0x000d661, 0x000d79d,
+		0x000d7a2, 0x000d80d, 0x000d852, 0x000d97d, 0x000d9a2, 0x000db2d,
+		0x000db32, 0x000dbcd, 0x000dbd2, 0x000dbed, 0x000dc02, 0x000dc7d,
+		0x000de61, 0x000df0d, 0x000df4b, 0x000df5d, 0x000e012, 0x000e31d,
+		0x000e322, 0x000e34d, 0x000e3fc, 0x000e402, 0x000e47d, 0x000e4fb,
+		0x000e501, 0x000e5ab, 0x000e5cd, 0x000e812, 0x000e83d, 0x000e842,
+		0x000e85d, 0x000e862, 0x000e8bd, 0x000e8c2, 0x000ea4d, 0x000ea52,
+		0x000ea6d, 0x000ea72, 0x000eb1d, 0x000eb22, 0x000eb4d, 0x000ebd2,
+		0x000ebed, 0x000ec02, 0x000ec5d, 0x000ec62, 0x000ec7d, 0x000ed01,
+		0x000edad, 0x000edc2, 0x000ee0d, 0x000f002, 0x000f01d, 0x000f04b,
+		0x000f13d, 0x000f14b, 0x000f15d, 0x000f201, 0x000f34d, 0x000f3ab,
+		0x000f3ed, 0x000f402, 0x000f48d, 0x000f492, 0x000f6dd, 0x000f85b,
+		0x000f86d, 0x000f882, 0x000f8dd, 0x000fd0b, 0x000fd5d, 0x000fd9b,
+		0x000fdbd, 0x0010002, 0x00102bd, 0x00103f2, 0x0010401, 0x00104ab,
+		0x0010502, 0x001056d, 0x00105a2, 0x00105ed, 0x0010612, 0x001062d,
+		0x0010652, 0x001067d, 0x00106e2, 0x001071d, 0x0010752, 0x001082d,
+		0x00108e2, 0x00108fd, 0x0010901, 0x00109ad, 0x0010a02, 0x0010c6d,
+		0x0010c72, 0x0010c8d, 0x0010cd2, 0x0010ced, 0x0010d02, 0x0010fbb,
+		0x0010fc2, 0x001249d, 0x00124a2, 0x00124ed, 0x0012502, 0x001257d,
+		0x0012582, 0x001259d, 0x00125a2, 0x00125ed, 0x0012602, 0x001289d,
+		0x00128a2, 0x00128ed, 0x0012902, 0x0012b1d, 0x0012b22, 0x0012b6d,
+		0x0012b82, 0x0012bfd, 0x0012c02, 0x0012c1d, 0x0012c22, 0x0012c6d,
+		0x0012c82, 0x0012d7d, 0x0012d82, 0x001311d, 0x0013122, 0x001316d,
+		0x0013182, 0x00135bd, 0x001360b, 0x0013691, 0x00137dd, 0x0013802,
+		0x001390d, 0x0013a02, 0x0013f6d, 0x0013f82, 0x0013fed, 0x001400a,
+		0x0014012, 0x00166dd, 0x00166eb, 0x00166f2, 0x0016800, 0x0016812,
+		0x00169bb, 0x00169dd, 0x0016a02, 0x0016ebb, 0x0016ee1, 0x0016f12,
+		0x0016f9d, 0x0017002, 0x00170dd, 0x00170e2, 0x001712d, 0x0017202,
+		0x001732d, 0x001735b, 0x001737d, 0x0017402, 0x001752d, 0x0017602,
+		0x00176dd, 0x00176e2, 0x001771d, 0x0017802, 0x0017b4d, 0x0017d4b,
+		0x0017d72, 0x0017d8b, 0x0017dbc, 0x0017dc2, 0x0017ddd, 0x0017e01,
+		0x0017ead, 0x0017f01, 0x0017fad, 0x001800b, 0x001806a, 0x001807b,
+		0x00180bd, 0x0018101, 0x00181ad, 0x0018202, 0x001879d, 0x0018802,
+		0x001885d, 0x0018872, 0x0018a9d, 0x0018aa2, 0x0018abd, 0x0018b02,
+		0x0018f6d, 0x0019002, 0x00191fd, 0x001944b, 0x0019461, 0x0019502,
+		0x00196ed, 0x0019702, 0x001975d, 0x0019802, 0x0019acd, 0x0019b02,
+		0x0019cad, 0x0019d01, 0x0019dbd, 0x001a002, 0x001a17d, 0x001a1eb,
+		0x001a202, 0x001a55d, 0x001a801, 0x001a8ad, 0x001a901, 0x001a9ad,
+		0x001aa0b, 0x001aa72, 0x001aa8b, 0x001aaed, 0x001b052, 0x001b34d,
+		0x001b452, 0x001b4cd, 0x001b501, 0x001b5ab, 0x001b61d, 0x001b832,
+		0x001ba1d, 0x001bae2, 0x001bb01, 0x001bba2, 0x001be6d, 0x001bfcb,
+		0x001c002, 0x001c24d, 0x001c3bb, 0x001c401, 0x001c4ad, 0x001c4d2,
+		0x001c501, 0x001c5a2, 0x001c7eb, 0x001c802, 0x001c89d, 0x001c902,
+		0x001cbbd, 0x001cbd2, 0x001cc0b, 0x001cc8d, 0x001cd3b, 0x001cd4d,
+		0x001ce92, 0x001cedd, 0x001cee2, 0x001cf4d, 0x001cf52, 0x001cf7d,
+		0x001cfa2, 0x001cfbd, 0x001d002, 0x001dc0d, 0x001e002, 0x001f16d,
+		0x001f182, 0x001f1ed, 0x001f202, 0x001f46d, 0x001f482, 0x001f4ed,
+		0x001f502, 0x001f58d, 0x001f592, 0x001f5ad, 0x001f5b2, 0x001f5cd,
+		0x001f5d2, 0x001f5ed, 0x001f5f2, 0x001f7ed, 0x001f802, 0x001fb5d,
+		0x001fb62, 0x001fbdd, 0x001fbe2, 0x001fbfd, 0x001fc22, 0x001fc5d,
+		0x001fc62, 0x001fcdd, 0x001fd02, 0x001fd4d, 0x001fd62, 0x001fdcd,
+		0x001fe02, 0x001fedd, 0x001ff22, 0x001ff5d, 0x001ff62, 0x001ffdd,
+		0x0020000, 0x00200bd, 0x002010a, 0x002016b, 0x0020194, 0x00201ab,
+		0x0020280, 0x00202ad, 0x00202f0, 0x002030b, 0x002044d, 0x002045b,
+		0x002052d, 0x002053b, 0x00205f0, 0x002060d, 0x0020701, 0x0020712,
+		0x002072d, 0x0020741, 0x00207ad, 0x00207db, 0x00207f2, 0x0020801,
+		0x00208ad, 0x00208db, 0x00208fd, 0x0020902, 0x00209dd, 0x0020a0c,
+		0x0020c0d, 0x0021022, 0x002103d, 0x0021072, 0x002108d, 0x00210a2,
+		0x002114d, 0x0021152, 0x002116d, 0x0021192, 0x00211ed, 0x0021242,
+		0x002125d, 0x0021262, 0x002127d, 0x0021282, 0x002129d, 0x00212a2,
+		0x00212ed, 0x00212f2, 0x00213ad, 0x00213c2, 0x002140d, 0x0021452,
+		0x00214ad, 0x00214e2, 0x00214fd, 0x0021501, 0x0021832, 0x0021851,
+		0x00218ad, 0x002308b, 0x00230cd, 0x002329b, 0x00232bd, 0x0024601,
+		0x00249cd, 0x0024ea1, 0x002500d, 0x002768b, 0x0027761, 0x002794d,
+		0x0027c5b, 0x0027c7d, 0x0027e6b, 0x0027f0d, 0x002983b, 0x002999d,
+		0x0029d8b, 0x0029dcd, 0x0029fcb, 0x0029fed, 0x002c002, 0x002c2fd,
+		0x002c302, 0x002c5fd, 0x002c602, 0x002ce5d, 0x002ceb2, 0x002cefd,
+		0x002cf22, 0x002cf4d, 0x002cf9b, 0x002cfd1, 0x002cfeb, 0x002d002,
+		0x002d26d, 0x002d272, 0x002d28d, 0x002d2d2, 0x002d2ed, 0x002d302,
+		0x002d68d, 0x002d6f2, 0x002d70b, 0x002d71d, 0x002d802, 0x002d97d,
+		0x002da02, 0x002da7d, 0x002da82, 0x002dafd, 0x002db02, 0x002db7d,
+		0x002db82, 0x002dbfd, 0x002dc02, 0x002dc7d, 0x002dc82, 0x002dcfd,
+		0x002dd02, 0x002dd7d, 0x002dd82, 0x002ddfd, 0x002e00b, 0x002e17a,
+		0x002e18b, 0x002e1aa, 0x002e1bb, 0x002e2f2, 0x002e30b, 0x002e3aa,
+		0x002e3cb, 0x002e40a, 0x002e41b, 0x002e50d, 0x002e52b, 0x002e53d,
+		0x0030000, 0x003001b, 0x003004d, 0x0030052, 0x0030071, 0x003008b,
+		0x003012d, 0x003014b, 0x00301ca, 0x00301db, 0x003020d, 0x0030211,
+		0x00302ad, 0x003030a, 0x0030312, 0x003036d, 0x0030381, 0x00303b2,
+		0x00303db, 0x00303ed, 0x0030412, 0x003097d, 0x00309d2, 0x0030a0a,
+		0x0030a12, 0x0030fbb, 0x0030fc2, 0x003100d, 0x0031052, 0x003130d,
+		0x0031312, 0x00318fd, 0x0031921, 0x003196d, 0x0031a02, 0x0031c0d,
+		0x0031f02, 0x003200d, 0x0032201, 0x00322ad, 0x0032481, 0x003250d,
+		0x0032511, 0x003260d, 0x0032801, 0x00328ad, 0x0032b11, 0x0032c0d,
+		0x0034002, 0x004dc0d, 0x004e002, 0x009ffdd, 0x00a0002, 0x00a48dd,
+		0x00a4d02, 0x00a4feb, 0x00a5002, 0x00a60db, 0x00a6102, 0x00a6201,
+		0x00a62a2, 0x00a62cd, 0x00a6402, 0x00a66fd, 0x00a673b, 0x00a674d,
+		0x00a67eb, 0x00a67f2, 0x00a69ed, 0x00a6a02, 0x00a6e61, 0x00a6f0d,
+		0x00a6f2b, 0x00a6f8d, 0x00a7172, 0x00a720d, 0x00a7222, 0x00a789d,
+		0x00a78b2, 0x00a7c0d, 0x00a7c22, 0x00a7cbd, 0x00a7f52, 0x00a802d,
+		0x00a8032, 0x00a806d, 0x00a8072, 0x00a80bd, 0x00a80c2, 0x00a823d,
+		0x00a8301, 0x00a836d, 0x00a838c, 0x00a839d, 0x00a8402, 0x00a874b,
+		0x00a878d, 0x00a8822, 0x00a8b4d, 0x00a8ceb, 0x00a8d01, 0x00a8dad,
+		0x00a8f22, 0x00a8f8b, 0x00a8fb2, 0x00a8fcb, 0x00a8fd2, 0x00a8ffd,
+		0x00a9001, 0x00a90a2, 0x00a926d, 0x00a92eb, 0x00a9302, 0x00a947d,
+		0x00a95fb, 0x00a9602, 0x00a97dd, 0x00a9842, 0x00a9b3d, 0x00a9c1b,
+		0x00a9ced, 0x00a9cf2, 0x00a9d01, 0x00a9dad, 0x00a9deb, 0x00a9e02,
+		0x00a9e5d, 0x00a9e62, 0x00a9f01, 0x00a9fa2, 0x00a9ffd, 0x00aa002,
+		0x00aa29d, 0x00aa402, 0x00aa43d, 0x00aa442, 0x00aa4cd, 0x00aa501,
+		0x00aa5ad, 0x00aa5cb, 0x00aa602, 0x00aa77d, 0x00aa7a2, 0x00aa7bd,
+		0x00aa7e2, 0x00aab0d, 0x00aab12, 0x00aab2d, 0x00aab52, 0x00aab7d,
+		0x00aab92, 0x00aabed, 0x00aac02, 0x00aac1d, 0x00aac22, 0x00aac3d,
+		0x00aadb2, 0x00aadeb, 0x00aae02, 0x00aaebd, 0x00aaf0b, 0x00aaf22,
+		0x00aaf5d, 0x00ab012, 0x00ab07d, 0x00ab092, 0x00ab0fd, 0x00ab112,
+		0x00ab17d, 0x00ab202, 0x00ab27d, 0x00ab282, 0x00ab2fd, 0x00ab302,
+		0x00ab5bd, 0x00ab5c2, 0x00ab6ad, 0x00ab702, 0x00abe3d, 0x00abebb,
+		0x00abecd, 0x00abf01, 0x00abfad, 0x00ac002, 0x00d7a4d, 0x00d7b02,
+		0x00d7c7d, 0x00d7cb2, 0x00d7fcd, 0x00f9002, 0x00fa6ed, 0x00fa702,
+		0x00fadad, 0x00fb002, 0x00fb07d, 0x00fb132, 0x00fb18d, 0x00fb1d2,
+		0x00fb1ed, 0x00fb1f2, 0x00fb29d, 0x00fb2a2, 0x00fb37d, 0x00fb382,
+		0x00fb3dd, 0x00fb3e2, 0x00fb3fd, 0x00fb402, 0x00fb42d, 0x00fb432,
+		0x00fb45d, 0x00fb462, 0x00fbb2d, 0x00fbd32, 0x00fd3eb, 0x00fd40d,
+		0x00fd502, 0x00fd90d, 0x00fd922, 0x00fdc8d, 0x00fdf02, 0x00fdfcc,
+		0x00fdfdd, 0x00fe10b, 0x00fe1ad, 0x00fe30b, 0x00fe31a, 0x00fe33b,
+		0x00fe53d, 0x00fe54b, 0x00fe58a, 0x00fe59b, 0x00fe62d, 0x00fe63a,
+		0x00fe64d, 0x00fe68b, 0x00fe69c, 0x00fe6ab, 0x00fe6cd, 0x00fe702,
+		0x00fe75d, 0x00fe762, 0x00fefdd, 0x00ff01b, 0x00ff04c, 0x00ff05b,
+		0x00ff0bd, 0x00ff0cb, 0x00ff0da, 0x00ff0eb, 0x00ff101, 0x00ff1ab,
+		0x00ff1cd, 0x00ff1fb, 0x00ff212, 0x00ff3bb, 0x00ff3ed, 0x00ff3fb,
+		0x00ff40d, 0x00ff412, 0x00ff5bb, 0x00ff5cd, 0x00ff5db, 0x00ff5ed,
+		0x00ff5fb, 0x00ff662, 0x00ffbfd, 0x00ffc22, 0x00ffc8d, 0x00ffca2,
+		0x00ffd0d, 0x00ffd22, 0x00ffd8d, 0x00ffda2, 0x00ffddd, 0x00ffe0c,
+		0x00ffe2d, 0x00ffe5c, 0x00ffe7d, 0x0100002, 0x01000cd, 0x01000d2,
+		0x010027d, 0x0100282, 0x01003bd, 0x01003c2, 0x01003ed, 0x01003f2,
+		0x01004ed, 0x0100502, 0x01005ed, 0x0100802, 0x0100fbd, 0x010100b,
+		0x010103d, 0x0101071, 0x010134d, 0x0101401, 0x010179d, 0x01018a1,
+		0x01018cd, 0x0102802, 0x01029dd, 0x0102a02, 0x0102d1d, 0x0102e11,
+		0x0102fcd, 0x0103002, 0x0103201, 0x010324d, 0x01032d2, 0x0103411,
+		0x0103422, 0x01034a1, 0x01034bd, 0x0103502, 0x010376d, 0x0103802,
+		0x01039ed, 0x01039fb, 0x0103a02, 0x0103c4d, 0x0103c82, 0x0103d0b,
+		0x0103d11, 0x0103d6d, 0x0104002, 0x01049ed, 0x0104a01, 0x0104aad,
+		0x0104b02, 0x0104d4d, 0x0104d82, 0x0104fcd, 0x0105002, 0x010528d,
+		0x0105302, 0x010564d, 0x01056fb, 0x010570d, 0x0106002, 0x010737d,
+		0x0107402, 0x010756d, 0x0107602, 0x010768d, 0x0108002, 0x010806d,
+		0x0108082, 0x010809d, 0x01080a2, 0x010836d, 0x0108372, 0x010839d,
+		0x01083c2, 0x01083dd, 0x01083f2, 0x010856d, 0x010857b, 0x0108581,
+		0x0108602, 0x010877d, 0x0108791, 0x0108802, 0x01089fd, 0x0108a71,
+		0x0108b0d, 0x0108e02, 0x0108f3d, 0x0108f42, 0x0108f6d, 0x0108fb1,
+		0x0109002, 0x0109161, 0x01091cd, 0x01091fb, 0x0109202, 0x01093ad,
+		0x01093fb, 0x010940d, 0x0109802, 0x0109b8d, 0x0109bc1, 0x0109be2,
+		0x0109c01, 0x0109d0d, 0x0109d21, 0x010a002, 0x010a01d, 0x010a102,
+		0x010a14d, 0x010a152, 0x010a18d, 0x010a192, 0x010a36d, 0x010a401,
+		0x010a49d, 0x010a50b, 0x010a59d, 0x010a602, 0x010a7d1, 0x010a7fb,
+		0x010a802, 0x010a9d1, 0x010aa0d, 0x010ac02, 0x010ac8d, 0x010ac92,
+		0x010ae5d, 0x010aeb1, 0x010af0b, 0x010af7d, 0x010b002, 0x010b36d,
+		0x010b39b, 0x010b402, 0x010b56d, 0x010b581, 0x010b602, 0x010b73d,
+		0x010b781, 0x010b802, 0x010b92d, 0x010b99b, 0x010b9dd, 0x010ba91,
+		0x010bb0d, 0x010c002, 0x010c49d, 0x010c802, 0x010cb3d, 0x010cc02,
+		0x010cf3d, 0x010cfa1, 0x010d002, 0x010d24d, 0x010d301, 0x010d3ad,
+		0x010e601, 0x010e7fd, 0x010e802, 0x010eaad, 0x010eada, 0x010eaed,
+		0x010eb02, 0x010eb2d, 0x010f002, 0x010f1d1, 0x010f272, 0x010f28d,
+		0x010f302, 0x010f46d, 0x010f511, 0x010f55b, 0x010f5ad, 0x010fb02,
+		0x010fc51, 0x010fccd, 0x010fe02, 0x010ff7d, 0x0110032, 0x011038d,
+		0x011047b, 0x01104ed, 0x0110521, 0x011070d, 0x0110832, 0x0110b0d,
+		0x0110bbb, 0x0110bdd, 0x0110beb, 0x0110c2d, 0x0110d02, 0x0110e9d,
+		0x0110f01, 0x0110fad, 0x0111032, 0x011127d, 0x0111361, 0x011140b,
+		0x0111442, 0x011145d, 0x0111472, 0x011148d, 0x0111502, 0x011173d,
+		0x011174b, 0x0111762, 0x011177d, 0x0111832, 0x0111b3d, 0x0111c12,
+		0x0111c5b, 0x0111c9d, 0x0111cdb, 0x0111ced, 0x0111d01, 0x0111da2,
+		0x0111dbb, 0x0111dc2, 0x0111ddb, 0x0111e0d, 0x0111e11, 0x0111f5d,
+		0x0112002, 0x011212d, 0x0112132, 0x01122cd, 0x011238b, 0x01123ed,
+		0x0112802, 0x011287d, 0x0112882, 0x011289d, 0x01128a2, 0x01128ed,
+		0x01128f2, 0x01129ed, 0x01129f2, 0x0112a9b, 0x0112aad, 0x0112b02,
+		0x0112dfd, 0x0112f01, 0x0112fad, 0x0113052, 0x01130dd, 0x01130f2,
+		0x011311d, 0x0113132, 0x011329d, 0x01132a2, 0x011331d, 0x0113322,
+		0x011334d, 0x0113352, 0x01133ad, 0x01133d2, 0x01133ed, 0x0113502,
+		0x011351d, 0x01135d2, 0x011362d, 0x0114002, 0x011435d, 0x0114472,
+		0x01144bb, 0x0114501, 0x01145ab, 0x01145cd, 0x01145db, 0x01145ed,
+		0x01145f2, 0x011462d, 0x0114802, 0x0114b0d, 0x0114c42, 0x0114c6b,
+		0x0114c72, 0x0114c8d, 0x0114d01, 0x0114dad, 0x0115802, 0x0115afd,
+		0x0115c1b, 0x0115d82, 0x0115dcd, 0x0116002, 0x011630d, 0x011641b,
+		0x0116442, 0x011645d, 0x0116501, 0x01165ad, 0x011660b, 0x01166dd,
+		0x0116802, 0x0116abd, 0x0116b82, 0x0116b9d, 0x0116c01, 0x0116cad,
+		0x0117002, 0x01171bd, 0x0117301, 0x01173cb, 0x01173fd, 0x0118002,
+		0x01182cd, 0x01183bb, 0x01183cd, 0x0118a02, 0x0118e01, 0x0118f3d,
+		0x0118ff2, 0x011907d, 0x0119092, 0x01190ad, 0x01190c2, 0x011914d,
+		0x0119152, 0x011917d, 0x0119182, 0x011930d, 0x01193f2, 0x011940d,
+		0x0119412, 0x011942d, 0x011944b, 0x011947d, 0x0119501, 0x01195ad,
+		0x0119a02, 0x0119a8d, 0x0119aa2, 0x0119d1d, 0x0119e12, 0x0119e2b,
+		0x0119e32, 0x0119e4d, 0x011a002, 0x011a01d, 0x011a0b2, 0x011a33d,
+		0x011a3a2, 0x011a3bd, 0x011a3fb, 0x011a47d, 0x011a502, 0x011a51d,
+		0x011a5c2, 0x011a8ad, 0x011a9ab, 0x011a9d2, 0x011a9eb, 0x011aa3d,
+		0x011ac02, 0x011af9d, 0x011c002, 0x011c09d, 0x011c0a2, 0x011c2fd,
+		0x011c402, 0x011c41b, 0x011c46d, 0x011c501, 0x011c6dd, 0x011c70b,
+		0x011c722, 0x011c90d, 0x011d002, 0x011d07d, 0x011d082, 0x011d0ad,
+		0x011d0b2, 0x011d31d, 0x011d462, 0x011d47d, 0x011d501, 0x011d5ad,
+		0x011d602, 0x011d66d, 0x011d672, 0x011d69d, 0x011d6a2, 0x011d8ad,
+		0x011d982, 0x011d99d, 0x011da01, 0x011daad, 0x011ee02, 0x011ef3d,
+		0x011ef7b, 0x011ef9d, 0x011fb02, 0x011fb1d, 0x011fc01, 0x011fd5d,
+		0x011fddc, 0x011fe1d, 0x011fffb, 0x0120002, 0x01239ad, 0x0124001,
+		0x01246fd, 0x012470b, 0x012475d, 0x0124802, 0x012544d, 0x0130002,
+		0x01342fd, 0x0144002, 0x014647d, 0x0168002, 0x016a39d, 0x016a402,
+		0x016a5fd, 0x016a601, 0x016a6ad, 0x016a6eb, 0x016a70d, 0x016ad02,
+		0x016aeed, 0x016af5b, 0x016af6d, 0x016b002, 0x016b30d, 0x016b37b,
+		0x016b3cd, 0x016b402, 0x016b44b, 0x016b45d, 0x016b501, 0x016b5ad,
+		0x016b5b1, 0x016b62d, 0x016b632, 0x016b78d, 0x016b7d2, 0x016b90d,
+		0x016e402, 0x016e801, 0x016e97b, 0x016e9bd, 0x016f002, 0x016f4bd,
+		0x016f502, 0x016f51d, 0x016f932, 0x016fa0d, 0x016fe02, 0x016fe2b,
+		0x016fe32, 0x016fe4d, 0x0170002, 0x0187f8d, 0x0188002, 0x018cd6d,
+		0x018d002, 0x018d09d, 0x01b0002, 0x01b11fd, 0x01b1502, 0x01b153d,
+		0x01b1642, 0x01b168d, 0x01b1702, 0x01b2fcd, 0x01bc002, 0x01bc6bd,
+		0x01bc702, 0x01bc7dd, 0x01bc802, 0x01bc89d, 0x01bc902, 0x01bc9ad,
+		0x01bc9fb, 0x01bca0d, 0x01d2e01, 0x01d2f4d, 0x01d3601, 0x01d379d,
+		0x01d4002, 0x01d455d, 0x01d4562, 0x01d49dd, 0x01d49e2, 0x01d4a0d,
+		0x01d4a22, 0x01d4a3d, 0x01d4a52, 0x01d4a7d, 0x01d4a92, 0x01d4add,
+		0x01d4ae2, 0x01d4bad, 0x01d4bb2, 0x01d4bcd, 0x01d4bd2, 0x01d4c4d,
+		0x01d4c52, 0x01d506d, 0x01d5072, 0x01d50bd, 0x01d50d2, 0x01d515d,
+		0x01d5162, 0x01d51dd, 0x01d51e2, 0x01d53ad, 0x01d53b2, 0x01d53fd,
+		0x01d5402, 0x01d545d, 0x01d5462, 0x01d547d, 0x01d54a2, 0x01d551d,
+		0x01d5522, 0x01d6a6d, 0x01d6a82, 0x01d6c1d, 0x01d6c22, 0x01d6dbd,
+		0x01d6dc2, 0x01d6fbd, 0x01d6fc2, 0x01d715d, 0x01d7162, 0x01d735d,
+		0x01d7362, 0x01d74fd, 0x01d7502, 0x01d76fd, 0x01d7702, 0x01d789d,
+		0x01d78a2, 0x01d7a9d, 0x01d7aa2, 0x01d7c3d, 0x01d7c42, 0x01d7ccd,
+		0x01d7ce1, 0x01d800d, 0x01da87b, 0x01da8cd, 0x01e1002, 0x01e12dd,
+		0x01e1372, 0x01e13ed, 0x01e1401, 0x01e14ad, 0x01e14e2, 0x01e14fd,
+		0x01e2c02, 0x01e2ecd, 0x01e2f01, 0x01e2fad, 0x01e2ffc, 0x01e300d,
+		0x01e8002, 0x01e8c5d, 0x01e8c71, 0x01e8d0d, 0x01e9002, 0x01e944d,
+		0x01e94b2, 0x01e94cd, 0x01e9501, 0x01e95ad, 0x01e95eb, 0x01e960d,
+		0x01ec711, 0x01ecacd, 0x01ecad1, 0x01ecb0c, 0x01ecb11, 0x01ecb5d,
+		0x01ed011, 0x01ed2ed, 0x01ed2f1, 0x01ed3ed, 0x01ee002, 0x01ee04d,
+		0x01ee052, 0x01ee20d, 0x01ee212, 0x01ee23d, 0x01ee242, 0x01ee25d,
+		0x01ee272, 0x01ee28d, 0x01ee292, 0x01ee33d, 0x01ee342, 0x01ee38d,
+		0x01ee392, 0x01ee3ad, 0x01ee3b2, 0x01ee3cd, 0x01ee422, 0x01ee43d,
+		0x01ee472, 0x01ee48d, 0x01ee492, 0x01ee4ad, 0x01ee4b2, 0x01ee4cd,
+		0x01ee4d2, 0x01ee50d, 0x01ee512, 0x01ee53d, 0x01ee542, 0x01ee55d,
+		0x01ee572, 0x01ee58d, 0x01ee592, 0x01ee5ad, 0x01ee5b2, 0x01ee5cd,
+		0x01ee5d2, 0x01ee5ed, 0x01ee5f2, 0x01ee60d, 0x01ee612, 0x01ee63d,
+		0x01ee642, 0x01ee65d, 0x01ee672, 0x01ee6bd, 0x01ee6c2, 0x01ee73d,
+		0x01ee742, 0x01ee78d, 0x01ee792, 0x01ee7dd, 0x01ee7e2, 0x01ee7fd,
+		0x01ee802, 0x01ee8ad, 0x01ee8b2, 0x01ee9cd, 0x01eea12, 0x01eea4d,
+		0x01eea52, 0x01eeaad, 0x01eeab2, 0x01eebcd, 0x01f1001, 0x01f10dd,
+		0x01fbf01, 0x01fbfad, 0x0200002, 0x02a6ded, 0x02a7002, 0x02b735d,
+		0x02b7402, 0x02b81ed, 0x02b8202, 0x02cea2d, 0x02ceb02, 0x02ebe1d,
+		0x02f8002, 0x02fa1ed, 0x0300002, 0x03134bd,
+	};
+
+	private UnicodeClasses() {
+	}
+}
@@ -0,0 +1,286 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+// Tokenizer dependencies
+import static tddts.preprocessing.tokenizer.CompiledFrenchTokenizerAutomaton.*;
+import static tddts.preprocessing.tokenizer.UnicodeClassTable.classOf;
+import tddts.preprocessing.tokenizer.FrenchTokenizerAutomaton.Signal;
+
+/**
+ * This class runs the French tokenizer automaton directly over UTF-8 encoded
+ * bytes, without decoding them to chars first. It uses the tables of
+ * {@link CompiledFrenchTokenizerAutomaton} and finds exactly the tokens the
+ * char automaton finds in the decoded text.
+ *
+ * An ASCII byte is classified with a single lookup. For a multi-byte
+ * sequence, the length and the valid range of the first continuation byte
+ * are read in tables indexed by the lead byte, then the code point is
+ * classified in the {@link UnicodeClassTable}. A supplementary code point
+ * counts as two chars, as its surrogate pair does in the decoded text.
+ *
+ * Once in a state the ASCII letters or the digits leave unchanged, the
+ * bytes are read eight at a time in a long and the whole run of those bytes
+ * is skipped, each long being checked with a few arithmetic operations on
+ * its eight bytes at once.
+ *
+ * Malformed sequences are handled as the JDK decoder does : each maximal
+ * valid prefix of a sequence counts as one U+FFFD char, as does each
+ * encoded surrogate.
+ */
+public class Utf8FrenchTokenizer {
+
+	/** Length of the sequence started by each byte, 0 if it cannot lead one */
+	static final byte[] LEAD_LENGTHS = new byte[256];
+
+	/**
+	 * Valid range of the first continuation byte following each lead byte,
+	 * packed as (min << 8) | max : it rejects overlong forms and code points
+	 * above U+10FFFF. Encoded surrogates are only rejected once decoded.
+	 */
+	static final int[] FIRST_CONTINUATIONS = new int[256];
+
+	/** Class of each ASCII byte */
+	private static final byte[] ASCII_CLASSES = new byte[0x80];
+
+	/** Class of the replacement char U+FFFD sent for malformed sequences */
+	private static final int REPLACEMENT_CLASS = classOf(0xFFFD);
+
+	/** Position of the token when none is started */
+	private static final long NONE = -1;
+
+	/** States left unchanged, without any signal, by all the digits */
+	private static final boolean[] DIGIT_LOOPS = new boolean[STATES.length];
+
+	/** Each byte of a long set to 0x01 and 0x80 */
+	private static final long ONES  = 0x0101010101010101L;
+	private static final long HIGHS = 0x8080808080808080L;
+
+	static {
+		for (int b = 0; b < 256; b++) {
+			int min = 0x80;
+			int max = 0xBF;
+			if (b < 0x80) {
+				LEAD_LENGTHS[b] = 1;
+				ASCII_CLASSES[b] = (byte) classOf(b);
+			} else if (b >= 0xC2 && b <= 0xDF) {
+				LEAD_LENGTHS[b] = 2;
+			} else if (b >= 0xE0 && b <= 0xEF) {
+				LEAD_LENGTHS[b] = 3;
+				if (b == 0xE0)
+					min = 0xA0;
+			} else if (b >= 0xF0 && b <= 0xF4) {
+				LEAD_LENGTHS[b] = 4;
+				if (b == 0xF0)
+					min = 0x90;
+				else if (b == 0xF4)
+					max = 0x8F;
+			}
+			FIRST_CONTINUATIONS[b] = (min << 8) | max;
+		}
+		for (int state = 0; state < STATES.length; state++) {
+			DIGIT_LOOPS[state] = loops(state, '0', '9');
+		}
+	}
+
+	// INTERFACE ---------------------------------------------------------------
+
+	/**
+	 * Run the automaton over a range of UTF-8 bytes and send each token found
+	 * to the sink. The byte offsets are indexes in the array, the char offsets
+	 * are counted from the first char of the range.
+	 *
+	 * @param bytes the UTF-8 encoded text
+	 * @param from offset of the first byte to tokenize
+	 * @param to offset following the last byte to tokenize
+	 * @param sink the receiver of the tokens offsets
+	 *
+	 * @return the number of chars in the range
+	 */
+	public int tokenize(byte[] bytes, int from, int to, Utf8TokenSink sink) {
+		int state = INITIAL;
+		long begin = NONE;
+		long previous = position(from, 0);
+		int chars = 0;
+		int i = from;
+		// Bytes of the lowest addresses in the lowest bits of the longs
+		ByteBuffer words = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+		while (i < to) {
+			int b = bytes[i] & 0xFF;
+			int cls;
+			int length;
+			int units = 1;
+			if (b < 0x80) {
+				cls = ASCII_CLASSES[b];
+				length = 1;
+			} else {
+				length = LEAD_LENGTHS[b];
+				int cp = b & (0x7F >> length);
+				int min = FIRST_CONTINUATIONS[b] >>> 8;
+				int max = FIRST_CONTINUATIONS[b] & 0xFF;
+				int k = 1;
+				while (k < length && i + k < to) {
+					int c = bytes[i + k] & 0xFF;
+					if (c < min || c > max)
+						break;
+					cp = (cp << 6) | (c & 0x3F);
+					min = 0x80;
+					max = 0xBF;
+					k++;
+				}
+				if (k != length) {
+					// Malformed or truncated sequence
+					cls = REPLACEMENT_CLASS;
+					length = k;
+				} else if (length == 3 && cp >= Character.MIN_SURROGATE
+						&& cp <= Character.MAX_SURROGATE) {
+					// The whole encoded surrogate is malformed
+					cls = REPLACEMENT_CLASS;
+				} else {
+					cls = classOf(cp);
+					if (length == 4)
+						units = 2;
+				}
+			}
+			long here = position(i, chars);
+			int t = TRANSITIONS[(state << STATE_SHIFT) | cls];
+			if ((t & SIGNAL_MASK) != NOP)
+				begin = signal(SIGNALS[t & SIGNAL_MASK], here, previous, begin,
+						TYPES[state], sink);
+			state = t >>> NEXT_STATE_SHIFT;
+			previous = here;
+			i += length;
+			chars += units;
+			int run = 0;
+			if (LETTER_LOOPS[state])
+				run = skipLetters(words, bytes, i, to);
+			else if (DIGIT_LOOPS[state])
+				run = skipDigits(words, bytes, i, to);
+			if (run != 0) {
+				i += run;
+				chars += run;
+				previous = position(i - 1, chars - 1);
+			}
+		}
+		if (begin != NONE)
+			token(begin, position(to, chars),
+					TYPES[state], sink);
+		return chars;
+	}
+
+	// PRIVATE METHODS ---------------------------------------------------------
+
+	/**
+	 * @return the number of ASCII letters from i, to at most
+	 */
+	private static int skipLetters(ByteBuffer words, byte[] bytes, int i,
+			int to) {
+		int n = i;
+		for (; n + 8 <= to; n += 8) {
+			long stops = notInRange(words.getLong(n) | 0x20 * ONES, 'a', 'z');
+			if (stops != 0)
+				return n + (Long.numberOfTrailingZeros(stops) >>> 3) - i;
+		}
+		while (n < to && CompiledFrenchTokenizerAutomaton.isAsciiLetter(bytes[n]))
+			n++;
+		return n - i;
+	}
+
+	/**
+	 * @return the number of digits from i, to at most
+	 */
+	private static int skipDigits(ByteBuffer words, byte[] bytes, int i,
+			int to) {
+		int n = i;
+		for (; n + 8 <= to; n += 8) {
+			long stops = notInRange(words.getLong(n), '0', '9');
+			if (stops != 0)
+				return n + (Long.numberOfTrailingZeros(stops) >>> 3) - i;
+		}
+		while (n < to && bytes[n] >= '0' && bytes[n] <= '9')
+			n++;
+		return n - i;
+	}
+
+	/**
+	 * Flag the bytes of a long which are not in a range of ASCII bytes. The
+	 * lowest flagged byte is exact; a carry out of a non ASCII byte may
+	 * wrongly flag, or not, the bytes above it.
+	 *
+	 * @return the long with the high bit of the flagged bytes set
+	 */
+	private static long notInRange(long w, char min, char max) {
+		long aboveMin = w + (0x80 - min) * ONES;
+		long aboveMax = w + (0x7F - max) * ONES;
+		return (~(aboveMin & ~aboveMax) | w) & HIGHS;
+	}
+
+	/**
+	 * @return the byte and char offsets packed in a long
+	 */
+	private static long position(int byteOffset, int charOffset) {
+		return ((long) byteOffset << 32) | charOffset;
+	}
+
+	/**
+	 * Send the token between two packed positions to the sink.
+	 */
+	private static void token(long begin, long end, TokenType type,
+			Utf8TokenSink sink) {
+		sink.token((int) (begin >>> 32), (int) (end >>> 32), (int) begin,
+				(int) end, type);
+	}
+
+	/**
+	 * Interpret the signal sent for a char, as
+	 * {@link FrenchTokenizerAutomaton#signal(Signal, int, int, int, TokenType, TokenSink)}
+	 * does, on packed positions.
+	 *
+	 * @param s the signal sent by the automaton
+	 * @param here position of the char fed to the automaton
+	 * @param previous position of the char fed before
+	 * @param begin position where the current token started, NONE if none
+	 * @param type the type of the current token
+	 * @param sink the receiver of the tokens offsets
+	 *
+	 * @return the position where the current token starts after the signal
+	 */
+	private static long signal(Signal s, long here, long previous, long begin,
+			TokenType type, Utf8TokenSink sink) {
+		switch(s) {
+		case start_word:
+			return here;
+		case end_word:
+			token(begin, here, type, sink);
+			return NONE;
+		case end_word_prev:
+			token(begin, previous, type, sink);
+			return NONE;
+		case switch_word:
+			token(begin, here, type, sink);
+			return here;
+		case switch_word_prev:
+			token(begin, previous, type, sink);
+			return here;
+		case cancel_word:
+			return NONE;
+		default:
+			return begin;
+		}
+	}
+}
@@ -0,0 +1,37 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+/**
+ * Receives the tokens found by
+ * {@link Utf8FrenchTokenizer#tokenize(byte[], int, int, Utf8TokenSink)}
+ * in the order they appear in the text, with both their offsets in bytes
+ * and in chars.
+ */
+public interface Utf8TokenSink {
+
+	/**
+	 * Called for each token.
+	 *
+	 * @param byteBegin offset of the first byte of the token
+	 * @param byteEnd offset following the last byte of the token
+	 * @param charBegin offset of the first char of the token
+	 * @param charEnd offset following the last char of the token
+	 * @param type the kind of the token
+	 */
+	void token(int byteBegin, int byteEnd, int charBegin, int charEnd,
+			TokenType type);
+
+}
@@ -0,0 +1,272 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Assigns an integer id to each distinct token, in the order they are first
+ * seen, without creating a String for them.
+ *
+ * The chars of the tokens are appended to a single array and their ids kept
+ * in an open-addressing table of ints, probed linearly from the hash of the
+ * chars. Looking up a token only compares its chars with the ones of the
+ * array.
+ *
+ * The lookups take no lock : the slots of the table are published by
+ * volatile writes, after the chars of their token, and the arrays are
+ * replaced as a whole when they grow. Only the addition of a token not seen
+ * yet is synchronized, so all the threads of a process can share the same
+ * vocabulary and get the same ids.
+ *
+ * The annotators using the same name share the same vocabulary, kept as
+ * long as one of them uses it : see {@link #acquire(String)}.
+ */
+public class Vocabulary {
+
+	/** Vocabularies in use, by name */
+	private static final Map<String, Vocabulary> REGISTRY =
+		new HashMap<String, Vocabulary>();
+
+	/** Largest fill ratio of the table of ids, in eighths */
+	private static final int MAX_LOAD = 5;
+
+	/** The current arrays */
+	private volatile Table table;
+
+	/** Number of ids assigned */
+	private volatile int size;
+
+	/** Number of users of a vocabulary of the registry */
+	private int users;
+
+	public Vocabulary() {
+		this(1024);
+	}
+
+	/**
+	 * @param capacity the number of tokens the vocabulary holds before
+	 * growing
+	 */
+	public Vocabulary(int capacity) {
+		int slots = Integer.highestOneBit(Math.max(capacity, 8) * 2 - 1) * 2;
+		this.table = new Table(slots, Math.max(capacity, 8),
+				Math.max(capacity, 8) * 8);
+	}
+
+	// INTERFACE ---------------------------------------------------------------
+
+	/**
+	 * Get the vocabulary of the given name, creating it if it is not in use
+	 * yet. Each call must be followed by a call to {@link #release()}, the
+	 * vocabulary being dropped, with its ids, once no one uses it.
+	 *
+	 * @param name the name of the vocabulary
+	 */
+	public static Vocabulary acquire(String name) {
+		synchronized (REGISTRY) {
+			Vocabulary vocabulary = REGISTRY.get(name);
+			if (vocabulary == null) {
+				vocabulary = new Vocabulary();
+				REGISTRY.put(name, vocabulary);
+			}
+			vocabulary.users++;
+			return vocabulary;
+		}
+	}
+
+	/**
+	 * Stop using a vocabulary got from {@link #acquire(String)}, removing it
+	 * from the registry once no one uses it.
+	 */
+	public void release() {
+		synchronized (REGISTRY) {
+			if (--users > 0)
+				return;
+			REGISTRY.values().remove(this);
+		}
+	}
+
+	/**
+	 * @return the number of ids assigned
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Get the id of the chars of a range of the text, assigning it a new id
+	 * if they have not been seen yet.
+	 *
+	 * @param text the text
+	 * @param begin offset of the first char of the token
+	 * @param end offset following the last char of the token
+	 *
+	 * @return the id of the token, from 0 on
+	 */
+	public int id(CharSequence text, int begin, int end) {
+		int hash = hash(text, begin, end);
+		int id = lookup(table, hash, text, begin, end);
+		return id >= 0 ? id : add(hash, text, begin, end);
+	}
+
+	/**
+	 * @return the id of the chars of a range of the text, -1 if they have not
+	 * been seen yet
+	 */
+	public int lookup(CharSequence text, int begin, int end) {
+		return lookup(table, hash(text, begin, end), text, begin, end);
+	}
+
+	/**
+	 * @return the chars of the token of the given id
+	 */
+	public String word(int id) {
+		// Any table read after the size holds the id
+		int n = size;
+		if (id < 0 || id >= n)
+			throw new IndexOutOfBoundsException("Id " + id + " of " + n);
+		Table t = table;
+		return new String(t.chars, t.starts[id], t.starts[id + 1] - t.starts[id]);
+	}
+
+	/**
+	 * @return the hash of a range of the text, computed as the chars are
+	 * read
+	 */
+	static int hash(CharSequence text, int begin, int end) {
+		int h = 0x811C9DC5;
+		for (int i = begin; i < end; i++)
+			h = (h ^ text.charAt(i)) * 0x01000193;
+		// Spread the low bits, the ones used to find the slot
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		return h ^ (h >>> 13);
+	}
+
+	// PRIVATE METHODS ---------------------------------------------------------
+
+	/**
+	 * @return the id of the token in the table, -1 if it is not there
+	 */
+	private static int lookup(Table t, int hash, CharSequence text,
+			int begin, int end) {
+		for (int slot = hash & t.mask; ; slot = (slot + 1) & t.mask) {
+			int id = t.slots.get(slot) - 1;
+			if (id < 0)
+				return -1;
+			if (t.hashes[id] == hash && t.matches(id, text, begin, end))
+				return id;
+		}
+	}
+
+	/**
+	 * Add a token, unless another thread added it meanwhile.
+	 *
+	 * @return the id of the token
+	 */
+	private synchronized int add(int hash, CharSequence text, int begin,
+			int end) {
+		Table t = table;
+		int id = lookup(t, hash, text, begin, end);
+		if (id >= 0)
+			return id;
+		id = size;
+		int length = end - begin;
+		if ((id + 1) * 8 > t.mask * MAX_LOAD || id + 1 >= t.hashes.length
+				|| t.starts[id] + length > t.chars.length) {
+			t = t.grow(id, length);
+			table = t;
+		}
+		int start = t.starts[id];
+		for (int i = 0; i < length; i++)
+			t.chars[start + i] = text.charAt(begin + i);
+		t.starts[id + 1] = start + length;
+		t.hashes[id] = hash;
+		// Publishes the chars, the bounds and the hash written above
+		t.insert(hash, id);
+		size = id + 1;
+		return id;
+	}
+
+	/**
+	 * The arrays of the vocabulary, replaced as a whole when they grow.
+	 */
+	private static final class Table {
+
+		/** Id plus one of the token in each slot, 0 for an empty slot */
+		final AtomicIntegerArray slots;
+
+		/** Number of slots minus one */
+		final int mask;
+
+		/** Hash of each token, by id */
+		final int[] hashes;
+
+		/** Offset of the chars of each token, by id, and of their end */
+		final int[] starts;
+
+		/** Chars of all the tokens, one after the other */
+		final char[] chars;
+
+		Table(int nbSlots, int nbTokens, int nbChars) {
+			this.slots = new AtomicIntegerArray(nbSlots);
+			this.mask = nbSlots - 1;
+			this.hashes = new int[nbTokens];
+			this.starts = new int[nbTokens + 1];
+			this.chars = new char[nbChars];
+		}
+
+		boolean matches(int id, CharSequence text, int begin, int end) {
+			int start = starts[id];
+			if (starts[id + 1] - start != end - begin)
+				return false;
+			for (int i = begin; i < end; i++) {
+				if (chars[start++] != text.charAt(i))
+					return false;
+			}
+			return true;
+		}
+
+		void insert(int hash, int id) {
+			int slot = hash & mask;
+			while (slots.get(slot) != 0)
+				slot = (slot + 1) & mask;
+			slots.set(slot, id + 1);
+		}
+
+		/**
+		 * @return a copy of the table with room for one more token of the
+		 * given length
+		 */
+		Table grow(int size, int length) {
+			int nbTokens = Math.max(hashes.length, (size + 1) * 2);
+			int nbSlots = mask + 1;
+			while ((size + 1) * 8 > (nbSlots - 1) * MAX_LOAD)
+				nbSlots *= 2;
+			int nbChars = Math.max(chars.length, (starts[size] + length) * 2);
+			Table grown = new Table(nbSlots, nbTokens, nbChars);
+			System.arraycopy(hashes, 0, grown.hashes, 0, size);
+			System.arraycopy(starts, 0, grown.starts, 0, size + 1);
+			System.arraycopy(chars, 0, grown.chars, 0, starts[size]);
+			for (int id = 0; id < size; id++)
+				grown.insert(hashes[id], id);
+			return grown;
+		}
+	}
+}
@@ -0,0 +1,49 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+/**
+ * Looks up the id of each token in a vocabulary and passes it along with
+ * the offsets. No String is created for the tokens. When the sink is fed by
+ * the automaton, the lookup follows the end of the token while its chars
+ * are likely still in the cache. When it is fed by a replay of offsets
+ * computed before, from the cache of texts, a parallel scan or the scan of
+ * a concurrent view, the whole text has been scanned first and the chars
+ * of each token are read again.
+ */
+public class VocabularyTokenSink implements TokenSink {
+
+	private final Vocabulary vocabulary;
+
+	private final CharSequence text;
+
+	private final TokenIdSink sink;
+
+	/**
+	 * @param vocabulary the vocabulary giving the ids
+	 * @param text the text being tokenized
+	 * @param sink the receiver of the tokens and their ids
+	 */
+	public VocabularyTokenSink(Vocabulary vocabulary, CharSequence text,
+			TokenIdSink sink) {
+		this.vocabulary = vocabulary;
+		this.text = text;
+		this.sink = sink;
+	}
+
+	public void token(int begin, int end, TokenType type) {
+		sink.token(begin, end, type, vocabulary.id(text, begin, end));
+	}
+}
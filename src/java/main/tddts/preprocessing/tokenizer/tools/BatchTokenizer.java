@@ -0,0 +1,265 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer.tools;
+
+// Java dependencies
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+// UIMA dependencies
+import org.apache.uima.UIMAFramework;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.Type;
+import org.apache.uima.util.CasPool;
+import org.apache.uima.util.XMLInputSource;
+// Tokenizer dependencies
+import tddts.preprocessing.tokenizer.FrenchUnicodeTokenizer;
+
+/**
+ * Command line tool running the FrenchUnicodeTokenizer annotator, created
+ * from its descriptor, over a tree of UTF-8 documents with several threads.
+ * The workers take their CAS from a pool instead of creating one for each
+ * document, and the pool resets it when it is released. The throughput in
+ * documents, megabytes and tokens per second is reported at the end.
+ *
+ * Usage : BatchTokenizer [-t threads] [-c casPoolSize] [-d descriptor]
+ * file|dir...
+ *
+ * By default, there are as many threads as cores, as many CAS as threads,
+ * and the descriptor is the one in the classpath.
+ */
+public class BatchTokenizer {
+
+	/** Descriptor of the annotator, in the classpath */
+	public static final String DESCRIPTOR =
+		"/tddts/preprocessing/ae/FrenchUnicodeTokenizer-AE.xml";
+
+	/** The UTF-8 charset */
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/** The annotator, accepting as many simultaneous calls as threads */
+	private final AnalysisEngine engine;
+
+	/** The CAS shared by the workers */
+	private final CasPool pool;
+
+	/** Number of workers */
+	private final int nbThreads;
+
+	/** Statistics, updated by all the workers */
+	private final AtomicLong nbDocuments = new AtomicLong();
+	private final AtomicLong nbBytes = new AtomicLong();
+	private final AtomicLong nbChars = new AtomicLong();
+	private final AtomicLong nbTokens = new AtomicLong();
+
+	/**
+	 * @param descriptor the descriptor of the annotator
+	 * @param nbThreads the number of documents tokenized at the same time
+	 * @param casPoolSize the number of CAS shared by the workers
+	 *
+	 * @throws Exception if the descriptor is invalid or the annotator fails
+	 * to initialize
+	 */
+	public BatchTokenizer(XMLInputSource descriptor, int nbThreads,
+			int casPoolSize) throws Exception {
+		this.nbThreads = Math.max(nbThreads, 1);
+		AnalysisEngineDescription description = UIMAFramework.getXMLParser()
+			.parseAnalysisEngineDescription(descriptor);
+		this.engine = UIMAFramework.produceAnalysisEngine(description,
+				this.nbThreads, 0);
+		this.pool = new CasPool(Math.max(casPoolSize, 1), engine);
+	}
+
+	/**
+	 * Tokenize the documents, each one in a CAS of the pool.
+	 *
+	 * @param files the UTF-8 documents
+	 *
+	 * @return the elapsed time in nanoseconds
+	 *
+	 * @throws Exception if a document cannot be read or tokenized
+	 */
+	public long run(final List<File> files) throws Exception {
+		final AtomicInteger next = new AtomicInteger();
+		ExecutorService workers = Executors.newFixedThreadPool(nbThreads);
+		long start = System.nanoTime();
+		try {
+			List<Future<Void>> results = new ArrayList<Future<Void>>();
+			for (int n = 0; n < nbThreads; n++) {
+				results.add(workers.submit(new Callable<Void>() {
+					public Void call() throws Exception {
+						int i;
+						while ((i = next.getAndIncrement()) < files.size())
+							process(files.get(i));
+						return null;
+					}
+				}));
+			}
+			for (Future<Void> result : results)
+				result.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof Exception)
+				throw (Exception) e.getCause();
+			throw e;
+		} finally {
+			workers.shutdownNow();
+		}
+		return System.nanoTime() - start;
+	}
+
+	/**
+	 * Release the annotator.
+	 */
+	public void destroy() {
+		engine.destroy();
+	}
+
+	/**
+	 * @return the number of documents tokenized
+	 */
+	public long getDocumentCount() {
+		return nbDocuments.get();
+	}
+
+	/**
+	 * @return the number of tokens annotated
+	 */
+	public long getTokenCount() {
+		return nbTokens.get();
+	}
+
+	// PRIVATE METHODS ---------------------------------------------------------
+
+	/**
+	 * Tokenize a document in a CAS borrowed from the pool.
+	 */
+	private void process(File file) throws Exception {
+		byte[] bytes = read(file);
+		String text = new String(bytes, UTF8);
+		CAS cas = pool.getCas(0);
+		try {
+			CAS view = cas.getView(CAS.NAME_DEFAULT_SOFA);
+			view.setDocumentText(text);
+			engine.process(view);
+			Type tokenType =
+				view.getTypeSystem().getType(FrenchUnicodeTokenizer.TOKEN_NAME);
+			nbTokens.addAndGet(view.getAnnotationIndex(tokenType).size());
+		} finally {
+			pool.releaseCas(cas);
+		}
+		nbDocuments.incrementAndGet();
+		nbBytes.addAndGet(bytes.length);
+		nbChars.addAndGet(text.length());
+	}
+
+	/**
+	 * @return the content of a file
+	 */
+	private static byte[] read(File file) throws IOException {
+		long length = file.length();
+		if (length > Integer.MAX_VALUE)
+			throw new IOException(file + " is too large for a CAS");
+		byte[] bytes = new byte[(int) length];
+		InputStream in = new FileInputStream(file);
+		try {
+			int n = 0;
+			int read;
+			while (n < bytes.length
+					&& (read = in.read(bytes, n, bytes.length - n)) != -1)
+				n += read;
+			return n == bytes.length ? bytes : Arrays.copyOf(bytes, n);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Add a file, or all the files of a directory, to the documents.
+	 */
+	static void collect(File file, List<File> files) {
+		if (file.isDirectory()) {
+			File[] children = file.listFiles();
+			if (children == null)
+				return;
+			Arrays.sort(children);
+			for (File child : children)
+				collect(child, files);
+		} else if (file.isFile()) {
+			files.add(file);
+		}
+	}
+
+	/**
+	 * Print the throughput on the error output.
+	 */
+	private void report(long nanos) {
+		double seconds = nanos / 1e9;
+		System.err.printf("%d documents, %d bytes, %d chars, %d tokens "
+				+ "in %.3f s with %d threads%n", nbDocuments.get(),
+				nbBytes.get(), nbChars.get(), nbTokens.get(), seconds,
+				nbThreads);
+		System.err.printf("%.1f docs/s, %.1f MB/s, %.0f tokens/s%n",
+				nbDocuments.get() / seconds,
+				nbBytes.get() / seconds / (1024 * 1024),
+				nbTokens.get() / seconds);
+	}
+
+	// COMMAND LINE ------------------------------------------------------------
+
+	public static void main(String[] args) throws Exception {
+		int nbThreads = Runtime.getRuntime().availableProcessors();
+		int casPoolSize = -1;
+		File descriptor = null;
+		List<File> files = new ArrayList<File>();
+		for (int i = 0; i < args.length; i++) {
+			if ("-t".equals(args[i]) && i + 1 < args.length)
+				nbThreads = Integer.parseInt(args[++i]);
+			else if ("-c".equals(args[i]) && i + 1 < args.length)
+				casPoolSize = Integer.parseInt(args[++i]);
+			else if ("-d".equals(args[i]) && i + 1 < args.length)
+				descriptor = new File(args[++i]);
+			else
+				collect(new File(args[i]), files);
+		}
+		if (files.isEmpty()) {
+			System.err.println("Usage: BatchTokenizer [-t threads] "
+					+ "[-c casPoolSize] [-d descriptor] file|dir...");
+			System.exit(1);
+		}
+		BatchTokenizer batch = new BatchTokenizer(descriptor == null
+				? new XMLInputSource(BatchTokenizer.class.getResource(DESCRIPTOR))
+				: new XMLInputSource(descriptor),
+				nbThreads, casPoolSize < 0 ? nbThreads : casPoolSize);
+		try {
+			batch.report(batch.run(files));
+		} finally {
+			batch.destroy();
+		}
+	}
+}
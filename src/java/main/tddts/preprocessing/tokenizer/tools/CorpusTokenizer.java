@@ -0,0 +1,403 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer.tools;
+
+// Java dependencies
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+// Tokenizer dependencies
+import tddts.preprocessing.tokenizer.CompiledFrenchTokenizerAutomaton;
+import tddts.preprocessing.tokenizer.FrenchTokenizerAutomaton;
+import tddts.preprocessing.tokenizer.LongTokenSink;
+import tddts.preprocessing.tokenizer.StreamingFrenchTokenizer;
+import tddts.preprocessing.tokenizer.TokenStoreWriter;
+import tddts.preprocessing.tokenizer.TokenType;
+
+/**
+ * Command line tool tokenizing UTF-8 text files outside of any UIMA
+ * pipeline. Each file is memory-mapped region by region and decoded straight
+ * into a reusable char buffer fed to the automaton, so no String is ever
+ * built. The tokens are written as "begin TAB end TAB type" lines, the
+ * offsets being in chars from the beginning of the file.
+ *
+ * Usage : CorpusTokenizer [-o outputDir | -s storeFile] [-b bufferChars]
+ * [-reference] file|dir...
+ *
+ * Without -o, the offsets are written on the standard output prefixed by the
+ * name of the file. With -s, the tokens of all the files are written to a
+ * single binary store instead, see {@link TokenStoreWriter}, each file being
+ * a document named after its path. Directories are walked recursively.
+ */
+public class CorpusTokenizer {
+
+	/** Largest part of a file mapped at once */
+	private static final long MAX_REGION = 256L * 1024 * 1024;
+
+	/** The UTF-8 charset */
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/** Extension of the offsets files */
+	public static final String OFFSETS_EXTENSION = ".tok";
+
+	/** Tokenizer reused for every file */
+	private final StreamingFrenchTokenizer tokenizer;
+
+	/** Buffer the bytes are decoded to */
+	private final CharBuffer chars;
+
+	/** Decoder reused for every file */
+	private final CharsetDecoder decoder;
+
+	/** Size of the regions mapped */
+	private final long regionSize;
+
+	/** Statistics */
+	private long nbFiles;
+	private long nbBytes;
+	private long nbChars;
+	private long nbTokens;
+
+	/**
+	 * @param automaton the automaton to run over the files
+	 * @param bufferSize the number of chars decoded at once
+	 */
+	public CorpusTokenizer(FrenchTokenizerAutomaton automaton, int bufferSize) {
+		this(automaton, bufferSize, MAX_REGION);
+	}
+
+	/**
+	 * @param automaton the automaton to run over the files
+	 * @param bufferSize the number of chars decoded at once
+	 * @param regionSize the number of bytes mapped at once
+	 */
+	CorpusTokenizer(FrenchTokenizerAutomaton automaton, int bufferSize,
+			long regionSize) {
+		this.regionSize = Math.max(regionSize, 4);
+		this.tokenizer = new StreamingFrenchTokenizer(automaton, bufferSize);
+		// A supplementary char is decoded as two chars at once
+		this.chars = CharBuffer.allocate(Math.max(bufferSize, 2));
+		this.decoder = UTF8.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+	}
+
+	/**
+	 * Tokenize a file and send its tokens to the sink.
+	 *
+	 * @param file the UTF-8 file to tokenize
+	 * @param sink the receiver of the tokens offsets
+	 *
+	 * @return the number of chars of the file
+	 *
+	 * @throws IOException if the file cannot be read
+	 */
+	public long tokenize(File file, LongTokenSink sink) throws IOException {
+		FileInputStream in = new FileInputStream(file);
+		try {
+			FileChannel channel = in.getChannel();
+			long size = channel.size();
+			long position = 0;
+			decoder.reset();
+			tokenizer.start(sink);
+			do {
+				long length = Math.min(regionSize, size - position);
+				boolean last = position + length == size;
+				MappedByteBuffer bytes =
+					channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+				CoderResult result;
+				do {
+					result = decoder.decode(bytes, chars, last);
+					drain();
+				} while (result.isOverflow());
+				if (last) {
+					while (decoder.flush(chars).isOverflow())
+						drain();
+					drain();
+				}
+				// Bytes of a char cut by the end of the region are mapped again
+				position += bytes.position();
+			} while (position < size);
+			nbFiles++;
+			nbBytes += size;
+			long length = tokenizer.finish();
+			nbChars += length;
+			return length;
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Feed the decoded chars to the tokenizer and empty the buffer.
+	 */
+	private void drain() {
+		chars.flip();
+		tokenizer.feed(chars.array(), chars.arrayOffset() + chars.position(),
+				chars.arrayOffset() + chars.limit());
+		chars.clear();
+	}
+
+	// COMMAND LINE ------------------------------------------------------------
+
+	public static void main(String[] args) throws IOException {
+		File outputDir = null;
+		File storeFile = null;
+		int bufferSize = StreamingFrenchTokenizer.DEFAULT_BUFFER_SIZE;
+		boolean reference = false;
+		List<File> inputs = new ArrayList<File>();
+		for (int i = 0; i < args.length; i++) {
+			if ("-o".equals(args[i]) && i + 1 < args.length)
+				outputDir = new File(args[++i]);
+			else if ("-s".equals(args[i]) && i + 1 < args.length)
+				storeFile = new File(args[++i]);
+			else if ("-b".equals(args[i]) && i + 1 < args.length)
+				bufferSize = Integer.parseInt(args[++i]);
+			else if ("-reference".equals(args[i]))
+				reference = true;
+			else
+				inputs.add(new File(args[i]));
+		}
+		if (inputs.isEmpty()) {
+			System.err.println("Usage: CorpusTokenizer [-o outputDir | "
+					+ "-s storeFile] [-b bufferChars] [-reference] file|dir...");
+			System.exit(1);
+		}
+		CorpusTokenizer corpusTokenizer = new CorpusTokenizer(reference
+				? new FrenchTokenizerAutomaton()
+				: new CompiledFrenchTokenizerAutomaton(), bufferSize);
+		long start = System.nanoTime();
+		if (storeFile != null) {
+			StoreSink store = new StoreSink(new TokenStoreWriter(storeFile));
+			try {
+				for (File input : inputs)
+					corpusTokenizer.store(input, input, store);
+			} finally {
+				store.writer.close();
+			}
+			corpusTokenizer.report(System.nanoTime() - start);
+			return;
+		}
+		OffsetWriter stdout = outputDir == null
+			? new OffsetWriter(System.out) : null;
+		for (File input : inputs) {
+			corpusTokenizer.run(input, input, outputDir, stdout);
+		}
+		if (stdout != null)
+			stdout.flush();
+		corpusTokenizer.report(System.nanoTime() - start);
+	}
+
+	/**
+	 * Tokenize a file or all the files of a directory.
+	 */
+	private void run(File root, File file, File outputDir, OffsetWriter stdout)
+	throws IOException {
+		if (file.isDirectory()) {
+			File[] children = file.listFiles();
+			if (children == null)
+				return;
+			Arrays.sort(children);
+			for (File child : children)
+				run(root, child, outputDir, stdout);
+			return;
+		}
+		if (!file.isFile())
+			return;
+		if (stdout != null) {
+			stdout.setPrefix(file.getPath());
+			tokenize(file, stdout);
+			nbTokens += stdout.count();
+			return;
+		}
+		File output = new File(outputDir, relativePath(root, file)
+				+ OFFSETS_EXTENSION);
+		output.getParentFile().mkdirs();
+		OffsetWriter writer = new OffsetWriter(new FileOutputStream(output));
+		try {
+			tokenize(file, writer);
+		} finally {
+			writer.close();
+		}
+		nbTokens += writer.count();
+	}
+
+	/**
+	 * Tokenize a file or all the files of a directory to the store.
+	 */
+	private void store(File root, File file, StoreSink store)
+	throws IOException {
+		if (file.isDirectory()) {
+			File[] children = file.listFiles();
+			if (children == null)
+				return;
+			Arrays.sort(children);
+			for (File child : children)
+				store(root, child, store);
+			return;
+		}
+		if (!file.isFile())
+			return;
+		store.writer.startDocument(relativePath(root, file));
+		store.count = 0;
+		tokenize(file, store);
+		nbTokens += store.count;
+	}
+
+	/**
+	 * @return the path of the file relative to the root given on the command
+	 * line
+	 */
+	private static String relativePath(File root, File file) {
+		if (root.equals(file))
+			return file.getName();
+		String rootPath = root.getPath();
+		return file.getPath().substring(rootPath.length() + 1);
+	}
+
+	/**
+	 * Print the throughput on the error output.
+	 */
+	private void report(long nanos) {
+		double seconds = nanos / 1e9;
+		System.err.printf("%d files, %d bytes, %d chars, %d tokens in %.3f s%n",
+				nbFiles, nbBytes, nbChars, nbTokens, seconds);
+		System.err.printf("%.1f MB/s, %.0f chars/s, %.0f tokens/s%n",
+				nbBytes / seconds / (1024 * 1024), nbChars / seconds,
+				nbTokens / seconds);
+	}
+
+	/**
+	 * Counts the tokens written to a store.
+	 */
+	private static class StoreSink implements LongTokenSink {
+
+		final TokenStoreWriter writer;
+		long count;
+
+		StoreSink(TokenStoreWriter writer) {
+			this.writer = writer;
+		}
+
+		public void token(long begin, long end, TokenType type) {
+			writer.token(begin, end, type);
+			count++;
+		}
+	}
+
+	/**
+	 * Writes the offsets as text lines, formatting the numbers directly in a
+	 * byte buffer.
+	 */
+	static class OffsetWriter implements LongTokenSink {
+
+		private final OutputStream out;
+		private final byte[] buffer = new byte[64 * 1024];
+		private final byte[] digits = new byte[20];
+		private final byte[][] typeNames = new byte[TokenType.values().length][];
+		private int length;
+		private byte[] prefix;
+		private long count;
+
+		OffsetWriter(OutputStream out) {
+			this.out = new BufferedOutputStream(out, 64 * 1024);
+			for (TokenType type : TokenType.values())
+				typeNames[type.ordinal()] = type.name().getBytes(UTF8);
+		}
+
+		/**
+		 * Set the text written at the beginning of each line, and reset the
+		 * tokens count.
+		 */
+		void setPrefix(String prefix) {
+			this.prefix = (prefix + "\t").getBytes(UTF8);
+			this.count = 0;
+		}
+
+		/**
+		 * @return the number of tokens written since the last prefix change
+		 */
+		long count() {
+			return count;
+		}
+
+		public void token(long begin, long end, TokenType type) {
+			try {
+				// Two longs, a type name, two tabs and a new line take at most
+				// 64 bytes
+				int needed = 64 + (prefix == null ? 0 : prefix.length);
+				if (length + needed > buffer.length)
+					flushBuffer();
+				if (prefix != null) {
+					if (needed > buffer.length) {
+						out.write(prefix);
+					} else {
+						System.arraycopy(prefix, 0, buffer, length, prefix.length);
+						length += prefix.length;
+					}
+				}
+				append(begin);
+				buffer[length++] = '\t';
+				append(end);
+				buffer[length++] = '\t';
+				byte[] name = typeNames[type.ordinal()];
+				System.arraycopy(name, 0, buffer, length, name.length);
+				length += name.length;
+				buffer[length++] = '\n';
+				count++;
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		private void append(long value) {
+			int n = 0;
+			do {
+				digits[n++] = (byte) ('0' + (value % 10));
+				value /= 10;
+			} while (value != 0);
+			while (n > 0)
+				buffer[length++] = digits[--n];
+		}
+
+		private void flushBuffer() throws IOException {
+			out.write(buffer, 0, length);
+			length = 0;
+		}
+
+		void flush() throws IOException {
+			flushBuffer();
+			out.flush();
+		}
+
+		void close() throws IOException {
+			flush();
+			out.close();
+		}
+	}
+}
@@ -0,0 +1,201 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer.tools;
+
+// Java dependencies
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test of a {@link TokenizerServer}, running on localhost by default.
+ * Each client thread sends texts of the given size one after the other,
+ * and the throughput and the latencies of all the requests are reported.
+ * With -b, each request is a batch of the given number of texts.
+ *
+ * Usage : TokenizerLoadClient [-u url] [-c clients] [-n requests]
+ * [-s textChars] [-b textsPerRequest] [-binary]
+ */
+public class TokenizerLoadClient {
+
+	/** Words the texts are made of */
+	private static final String[] WORDS = { "le", "la", "l'été",
+		"aujourd'hui", "12,5", "%", "Œuvre", "c'est-à-dire", "très", "3.",
+		"«", "»", "-", "porte-monnaie", "1 000", "Paris", "ça", "?" };
+
+	/** The UTF-8 charset */
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	public static void main(String[] args) throws Exception {
+		String url = "http://localhost:" + TokenizerServer.DEFAULT_PORT
+			+ TokenizerServer.PATH;
+		int nbClients = 64;
+		int nbRequests = 10000;
+		int textChars = 512;
+		int batchSize = 1;
+		boolean binary = false;
+		for (int i = 0; i < args.length; i++) {
+			if ("-u".equals(args[i]) && i + 1 < args.length)
+				url = args[++i];
+			else if ("-c".equals(args[i]) && i + 1 < args.length)
+				nbClients = Integer.parseInt(args[++i]);
+			else if ("-n".equals(args[i]) && i + 1 < args.length)
+				nbRequests = Integer.parseInt(args[++i]);
+			else if ("-s".equals(args[i]) && i + 1 < args.length)
+				textChars = Integer.parseInt(args[++i]);
+			else if ("-b".equals(args[i]) && i + 1 < args.length)
+				batchSize = Integer.parseInt(args[++i]);
+			else if ("-binary".equals(args[i]))
+				binary = true;
+			else {
+				System.err.println("Usage: TokenizerLoadClient [-u url] "
+						+ "[-c clients] [-n requests] [-s textChars] "
+						+ "[-b textsPerRequest] [-binary]");
+				System.exit(1);
+			}
+		}
+		Random random = new Random(18);
+		byte[] body;
+		if (batchSize > 1) {
+			String[] texts = new String[batchSize];
+			for (int i = 0; i < batchSize; i++)
+				texts[i] = text(random, textChars);
+			body = batch(texts);
+			url += binary ? "?batch=true&format=binary" : "?batch=true";
+		} else {
+			body = text(random, textChars).getBytes(UTF8);
+			if (binary)
+				url += "?format=binary";
+		}
+		run(new URL(url), nbClients, nbRequests, batchSize, body);
+	}
+
+	/**
+	 * Send the requests and print the statistics on the error output.
+	 */
+	static void run(final URL url, int nbClients, final int nbRequests,
+			int batchSize, final byte[] text) throws InterruptedException {
+		final long[] latencies = new long[nbRequests];
+		final AtomicInteger next = new AtomicInteger();
+		final AtomicLong nbBytes = new AtomicLong();
+		final AtomicInteger nbErrors = new AtomicInteger();
+		Thread[] clients = new Thread[nbClients];
+		long start = System.nanoTime();
+		for (int n = 0; n < nbClients; n++) {
+			clients[n] = new Thread("TokenizerLoadClient-" + n) {
+				public void run() {
+					int i;
+					while ((i = next.getAndIncrement()) < nbRequests) {
+						long begin = System.nanoTime();
+						try {
+							nbBytes.addAndGet(post(url, text));
+						} catch (IOException e) {
+							nbErrors.incrementAndGet();
+						}
+						latencies[i] = System.nanoTime() - begin;
+					}
+				}
+			};
+			clients[n].start();
+		}
+		for (Thread client : clients)
+			client.join();
+		double seconds = (System.nanoTime() - start) / 1e9;
+		Arrays.sort(latencies);
+		System.err.printf("%d requests of %d bytes, %d errors in %.3f s "
+				+ "with %d clients%n", nbRequests, text.length,
+				nbErrors.get(), seconds, nbClients);
+		System.err.printf("%.0f requests/s, %.0f texts/s, %.1f MB/s sent, "
+				+ "%.1f MB/s received%n", nbRequests / seconds,
+				(double) nbRequests * batchSize / seconds,
+				(double) nbRequests * text.length / seconds / (1024 * 1024),
+				nbBytes.get() / seconds / (1024 * 1024));
+		System.err.printf("latency p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+				percentile(latencies, 0.50) / 1e6,
+				percentile(latencies, 0.99) / 1e6,
+				latencies[latencies.length - 1] / 1e6);
+	}
+
+	/**
+	 * Send a text to the server.
+	 *
+	 * @return the number of bytes of the answer
+	 */
+	static int post(URL url, byte[] text) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		connection.setFixedLengthStreamingMode(text.length);
+		connection.setRequestProperty("Content-Type",
+				"text/plain; charset=UTF-8");
+		OutputStream out = connection.getOutputStream();
+		out.write(text);
+		out.close();
+		if (connection.getResponseCode() != HttpURLConnection.HTTP_OK)
+			throw new IOException("HTTP " + connection.getResponseCode());
+		// The answer is read to the end so that the connection is kept alive
+		InputStream in = connection.getInputStream();
+		byte[] buffer = new byte[8192];
+		int length = 0;
+		int n;
+		while ((n = in.read(buffer)) != -1)
+			length += n;
+		in.close();
+		return length;
+	}
+
+	/**
+	 * @return the body of a batch request holding the texts, each preceded
+	 * by its length in bytes
+	 */
+	static byte[] batch(String... texts) {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		for (String text : texts) {
+			byte[] bytes = text.getBytes(UTF8);
+			body.write(bytes.length >>> 24);
+			body.write(bytes.length >>> 16);
+			body.write(bytes.length >>> 8);
+			body.write(bytes.length);
+			body.write(bytes, 0, bytes.length);
+		}
+		return body.toByteArray();
+	}
+
+	private static long percentile(long[] sorted, double p) {
+		if (sorted.length == 0)
+			return 0;
+		return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))];
+	}
+
+	/**
+	 * @return a text of about the given number of chars
+	 */
+	static String text(Random random, int nbChars) {
+		StringBuilder text = new StringBuilder(nbChars + 16);
+		while (text.length() < nbChars) {
+			text.append(WORDS[random.nextInt(WORDS.length)]);
+			text.append(random.nextInt(8) == 0 ? "\n" : " ");
+		}
+		return text.toString();
+	}
+}
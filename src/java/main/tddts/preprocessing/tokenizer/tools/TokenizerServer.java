@@ -0,0 +1,412 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer.tools;
+
+// Java dependencies
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+// HTTP server dependencies
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+// Tokenizer dependencies
+import tddts.preprocessing.tokenizer.FrenchTokenizerEngine;
+import tddts.preprocessing.tokenizer.TokenOffsets;
+
+/**
+ * Small HTTP service giving the French tokens of texts, on top of the shared
+ * {@link FrenchTokenizerEngine} and of the HTTP server of the JDK, without
+ * any UIMA pipeline to start.
+ *
+ * A text is POSTed, in UTF-8, to {@link #PATH}. The answer holds the tokens
+ * as (begin, end, type ordinal) triples, the offsets being in chars :
+ * <ul>
+ * <li>in JSON by default : {"tokens":[b0,e0,t0,b1,e1,t1,...]}</li>
+ * <li>as big-endian ints, the number of tokens followed by the triples, when
+ * the request accepts application/octet-stream or has format=binary in its
+ * query.</li>
+ * </ul>
+ *
+ * With batch=true in its query, a request holds several texts, each as its
+ * length in bytes, a big-endian int, followed by its UTF-8 bytes. The
+ * answer holds one block per text, in order, each block being the answer
+ * to the text alone : a JSON array of the blocks, or the number of texts
+ * followed by the binary blocks. The limit on the size of a text applies
+ * to the whole request.
+ *
+ * The requests are handled on virtual threads when the JVM has them, on a
+ * cached pool of threads otherwise, and each text is tokenized by the
+ * thread of its request. Tokenizing a text of a few hundred chars takes a
+ * few microseconds, far less than the HTTP exchange around it, so there is
+ * nothing worth sharing between the requests.
+ *
+ * The server is not authenticated : it listens on the loopback address
+ * unless another one is given, and refuses with a 413 the texts larger than
+ * the given number of bytes.
+ *
+ * Small answers wait for the delayed acknowledgement of their headers
+ * unless the JVM runs with -Dsun.net.httpserver.nodelay=true, which
+ * {@link #main(String[])} sets when it is not given. The property applies
+ * to all the HTTP servers of the JVM, so an application embedding this
+ * server chooses it on its own command line.
+ *
+ * Usage : TokenizerServer [-h host] [-p port] [-m maxTextBytes]
+ */
+public class TokenizerServer {
+
+	/** Port listened to by default */
+	public static final int DEFAULT_PORT = 8086;
+
+	/** Path of the tokenization requests */
+	public static final String PATH = "/tokenize";
+
+	/** Largest text accepted by default, in bytes */
+	public static final int DEFAULT_MAX_TEXT_BYTES = 16 * 1024 * 1024;
+
+	/** Content type of the binary answers */
+	static final String BINARY_TYPE = "application/octet-stream";
+
+	/** Content type of the JSON answers */
+	static final String JSON_TYPE = "application/json";
+
+	/** The UTF-8 charset */
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/** The engine, shared by all the threads */
+	private static final FrenchTokenizerEngine ENGINE =
+		FrenchTokenizerEngine.getInstance();
+
+	private final HttpServer server;
+
+	/** Threads handling the requests */
+	private final ExecutorService handlers;
+
+	/** Largest text accepted, in bytes */
+	private final int maxTextBytes;
+
+	/**
+	 * Create a server listening on the loopback address.
+	 *
+	 * @param port the port to listen to, 0 for any free port
+	 *
+	 * @throws IOException if the port cannot be bound
+	 */
+	public TokenizerServer(int port) throws IOException {
+		this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port),
+				DEFAULT_MAX_TEXT_BYTES);
+	}
+
+	/**
+	 * @param address the address and port to listen to
+	 * @param maxTextBytes the largest text accepted, in bytes
+	 *
+	 * @throws IOException if the address cannot be bound
+	 */
+	public TokenizerServer(InetSocketAddress address, int maxTextBytes)
+			throws IOException {
+		this.maxTextBytes = maxTextBytes;
+		this.server = HttpServer.create(address, 0);
+		this.handlers = newHandlers();
+		this.server.setExecutor(handlers);
+		this.server.createContext(PATH, new HttpHandler() {
+			public void handle(HttpExchange exchange) throws IOException {
+				try {
+					serve(exchange);
+				} finally {
+					exchange.close();
+				}
+			}
+		});
+	}
+
+	// INTERFACE ---------------------------------------------------------------
+
+	/**
+	 * Start answering the requests.
+	 */
+	public void start() {
+		server.start();
+	}
+
+	/**
+	 * Stop answering the requests, waiting at most the given delay for the
+	 * ones in progress.
+	 */
+	public void stop(int delaySeconds) {
+		server.stop(delaySeconds);
+		handlers.shutdownNow();
+	}
+
+	/**
+	 * @return the port listened to
+	 */
+	public int getPort() {
+		return server.getAddress().getPort();
+	}
+
+	// PRIVATE METHODS ---------------------------------------------------------
+
+	/**
+	 * Answer a tokenization request.
+	 */
+	private void serve(HttpExchange exchange) throws IOException {
+		if (!"POST".equals(exchange.getRequestMethod())) {
+			exchange.getResponseHeaders().set("Allow", "POST");
+			exchange.sendResponseHeaders(405, -1);
+			return;
+		}
+		byte[] body = readBody(exchange);
+		if (body == null) {
+			exchange.sendResponseHeaders(413, -1);
+			return;
+		}
+		boolean binary = acceptsBinary(exchange);
+		byte[] answer;
+		if (isBatch(exchange)) {
+			List<String> texts = splitBatch(body);
+			if (texts == null) {
+				exchange.sendResponseHeaders(400, -1);
+				return;
+			}
+			List<byte[]> blocks = new ArrayList<byte[]>(texts.size());
+			for (String text : texts)
+				blocks.add(encode(tokenize(text), binary));
+			answer = join(blocks, binary);
+		} else {
+			answer = encode(tokenize(new String(body, UTF8)), binary);
+		}
+		exchange.getResponseHeaders().set("Content-Type",
+				binary ? BINARY_TYPE : JSON_TYPE);
+		exchange.sendResponseHeaders(200, answer.length);
+		OutputStream out = exchange.getResponseBody();
+		out.write(answer);
+		out.close();
+	}
+
+	/**
+	 * Read the body of a request, unless it is larger than the largest text
+	 * accepted, as announced by its Content-Length or once read.
+	 *
+	 * @return the body, null if it is too large
+	 */
+	private byte[] readBody(HttpExchange exchange) throws IOException {
+		InputStream in = exchange.getRequestBody();
+		try {
+			String length =
+				exchange.getRequestHeaders().getFirst("Content-Length");
+			int expected = 0;
+			if (length != null) {
+				try {
+					long announced = Long.parseLong(length.trim());
+					if (announced > maxTextBytes)
+						return null;
+					expected = (int) Math.max(announced, 0);
+				} catch (NumberFormatException e) {
+					// Left to the HTTP server, read as if it were absent
+				}
+			}
+			ByteArrayOutputStream body = new ByteArrayOutputStream(expected);
+			byte[] buffer = new byte[8192];
+			int n;
+			while ((n = in.read(buffer)) != -1) {
+				if (body.size() + n > maxTextBytes)
+					return null;
+				body.write(buffer, 0, n);
+			}
+			return body.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * @return the tokens of a text
+	 */
+	private static TokenOffsets tokenize(String text) {
+		TokenOffsets offsets = new TokenOffsets(text.length() / 4);
+		ENGINE.tokenize(text, 0, text.length(), offsets);
+		return offsets;
+	}
+
+	/**
+	 * @return true if the request holds several texts
+	 */
+	private static boolean isBatch(HttpExchange exchange) {
+		String query = exchange.getRequestURI().getQuery();
+		return query != null && query.contains("batch=true");
+	}
+
+	/**
+	 * @return the texts of a batch, each preceded by its length in bytes,
+	 * null if a length does not match the rest of the body
+	 */
+	static List<String> splitBatch(byte[] body) {
+		ByteBuffer batch = ByteBuffer.wrap(body);
+		List<String> texts = new ArrayList<String>();
+		while (batch.hasRemaining()) {
+			if (batch.remaining() < 4)
+				return null;
+			int length = batch.getInt();
+			if (length < 0 || length > batch.remaining())
+				return null;
+			texts.add(new String(body, batch.position(), length, UTF8));
+			batch.position(batch.position() + length);
+		}
+		return texts;
+	}
+
+	/**
+	 * @return the answers to the texts of a batch, in a JSON array or
+	 * preceded by their number
+	 */
+	static byte[] join(List<byte[]> blocks, boolean binary) {
+		int size = binary ? 4 : 2;
+		for (byte[] block : blocks)
+			size += block.length + 1;
+		ByteArrayOutputStream answer = new ByteArrayOutputStream(size);
+		if (binary) {
+			byte[] count = new byte[4];
+			putInt(count, 0, blocks.size());
+			answer.write(count, 0, 4);
+		} else {
+			answer.write('[');
+		}
+		for (int i = 0; i < blocks.size(); i++) {
+			if (!binary && i > 0)
+				answer.write(',');
+			answer.write(blocks.get(i), 0, blocks.get(i).length);
+		}
+		if (!binary)
+			answer.write(']');
+		return answer.toByteArray();
+	}
+
+	/**
+	 * @return true if the client asked for the binary form of the tokens
+	 */
+	private static boolean acceptsBinary(HttpExchange exchange) {
+		String query = exchange.getRequestURI().getQuery();
+		if (query != null && query.contains("format=binary"))
+			return true;
+		String accept = exchange.getRequestHeaders().getFirst("Accept");
+		return accept != null && accept.contains(BINARY_TYPE);
+	}
+
+	/**
+	 * @return the tokens in JSON or as big-endian ints
+	 */
+	static byte[] encode(TokenOffsets offsets, boolean binary) {
+		int size = offsets.size();
+		if (binary) {
+			byte[] bytes = new byte[4 + size * 12];
+			int n = putInt(bytes, 0, size);
+			for (int i = 0; i < size; i++) {
+				n = putInt(bytes, n, offsets.begin(i));
+				n = putInt(bytes, n, offsets.end(i));
+				n = putInt(bytes, n, offsets.type(i).ordinal());
+			}
+			return bytes;
+		}
+		StringBuilder json = new StringBuilder(16 + size * 12);
+		json.append("{\"tokens\":[");
+		for (int i = 0; i < size; i++) {
+			if (i > 0)
+				json.append(',');
+			json.append(offsets.begin(i)).append(',')
+				.append(offsets.end(i)).append(',')
+				.append(offsets.type(i).ordinal());
+		}
+		json.append("]}");
+		return json.toString().getBytes(UTF8);
+	}
+
+	private static int putInt(byte[] bytes, int n, int value) {
+		bytes[n]     = (byte) (value >>> 24);
+		bytes[n + 1] = (byte) (value >>> 16);
+		bytes[n + 2] = (byte) (value >>> 8);
+		bytes[n + 3] = (byte) value;
+		return n + 4;
+	}
+
+	/**
+	 * @return an executor starting a virtual thread per request when the JVM
+	 * has them, a cached pool of daemon threads otherwise
+	 */
+	private static ExecutorService newHandlers() {
+		try {
+			return (ExecutorService) Executors.class
+				.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool(new ThreadFactory() {
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "TokenizerServer-handler");
+					t.setDaemon(true);
+					return t;
+				}
+			});
+		}
+	}
+
+	// COMMAND LINE ------------------------------------------------------------
+
+	public static void main(String[] args) throws Exception {
+		String host = null;
+		int port = DEFAULT_PORT;
+		int maxTextBytes = DEFAULT_MAX_TEXT_BYTES;
+		for (int i = 0; i < args.length; i++) {
+			if ("-h".equals(args[i]) && i + 1 < args.length)
+				host = args[++i];
+			else if ("-p".equals(args[i]) && i + 1 < args.length)
+				port = Integer.parseInt(args[++i]);
+			else if ("-m".equals(args[i]) && i + 1 < args.length)
+				maxTextBytes = Integer.parseInt(args[++i]);
+			else {
+				System.err.println("Usage: TokenizerServer [-h host] "
+						+ "[-p port] [-m maxTextBytes]");
+				System.exit(1);
+			}
+		}
+		// Otherwise each small answer waits for the delayed acknowledgement
+		// of its headers, sent in a packet of their own. Read when the first
+		// HTTP server is created.
+		if (System.getProperty("sun.net.httpserver.nodelay") == null)
+			System.setProperty("sun.net.httpserver.nodelay", "true");
+		InetAddress address = host == null
+			? InetAddress.getLoopbackAddress() : InetAddress.getByName(host);
+		final TokenizerServer server = new TokenizerServer(
+				new InetSocketAddress(address, port), maxTextBytes);
+		server.start();
+		Runtime.getRuntime().addShutdownHook(new Thread() {
+			public void run() {
+				server.stop(1);
+			}
+		});
+		System.err.println("Tokenizing on http://"
+				+ server.server.getAddress().getHostString() + ":"
+				+ server.getPort() + PATH);
+		Thread.currentThread().join();
+	}
+}
@@ -0,0 +1,82 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the bytes allocated by the current thread while running a piece
+ * of code. Relies on the HotSpot extension of the ThreadMXBean, the meter
+ * is not available on other virtual machines.
+ */
+class AllocationMeter {
+
+	/** HotSpot thread bean, null when not available */
+	private final com.sun.management.ThreadMXBean threadBean;
+
+	AllocationMeter() {
+		com.sun.management.ThreadMXBean bean = null;
+		try {
+			bean = (com.sun.management.ThreadMXBean)
+				ManagementFactory.getThreadMXBean();
+			if (!bean.isThreadAllocatedMemorySupported())
+				bean = null;
+			else
+				bean.setThreadAllocatedMemoryEnabled(true);
+		} catch (ClassCastException e) {
+			bean = null;
+		} catch (NoClassDefFoundError e) {
+			bean = null;
+		}
+		this.threadBean = bean;
+	}
+
+	/**
+	 * @return true if the virtual machine can measure allocations
+	 */
+	boolean isAvailable() {
+		return threadBean != null;
+	}
+
+	/**
+	 * Run the code several times and return the smallest amount of bytes
+	 * allocated by one run, minus what the measurement itself allocates.
+	 * The first runs are discarded so that class loading and lazy
+	 * initializations are not accounted.
+	 */
+	long measure(Runnable code, int runs) {
+		long threadId = Thread.currentThread().getId();
+		// Warm up
+		for (int i = 0; i < 3; i++)
+			code.run();
+		// Cost of the measurement itself
+		long overhead = Long.MAX_VALUE;
+		for (int i = 0; i < runs; i++) {
+			long before = threadBean.getThreadAllocatedBytes(threadId);
+			long after  = threadBean.getThreadAllocatedBytes(threadId);
+			overhead = Math.min(overhead, after - before);
+		}
+		// Measure
+		long best = Long.MAX_VALUE;
+		for (int i = 0; i < runs; i++) {
+			long before = threadBean.getThreadAllocatedBytes(threadId);
+			code.run();
+			long after  = threadBean.getThreadAllocatedBytes(threadId);
+			best = Math.min(best, after - before - overhead);
+		}
+		return Math.max(best, 0L);
+	}
+}
@@ -0,0 +1,118 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.util.ArrayList;
+// JUnit dependencies
+import static org.junit.Assert.*;
+import org.junit.Test;
+// Tested class dependencies
+import tddts.preprocessing.tokenizer.FrenchTokenizerAutomaton.Signal;
+import tddts.preprocessing.tokenizer.FrenchTokenizerAutomaton.States;
+
+/**
+ * Test cases for the table-driven French tokenizer automaton. It runs the
+ * same fixtures as the reference automaton, and checks both agree on every
+ * transition for the code points whose class did not change between the
+ * frozen Unicode version and the one of the JDK.
+ */
+public class CompiledFrenchTokenizerAutomatonTest
+extends FrenchTokenizerAutomatonTest {
+
+	@Override
+	protected FrenchTokenizerAutomaton newAutomaton() {
+		return new CompiledFrenchTokenizerAutomaton();
+	}
+
+	@Test
+	public void testSameTransitionsAsReference() {
+		FrenchTokenizerAutomaton reference = new FrenchTokenizerAutomaton();
+		FrenchTokenizerAutomaton compiled  = newAutomaton();
+		for (States state : States.values()) {
+			for (int c = 0; c <= Character.MAX_CODE_POINT; c++) {
+				if (UnicodeClassTableGenerator.classify(c)
+						!= UnicodeClassTable.classOf(c))
+					continue;
+				reference.theCurrentState = state;
+				compiled.theCurrentState  = state;
+				Signal expected = reference.feedCodePoint(c);
+				Signal actual   = compiled.feedCodePoint(c);
+				// The equivalent states are merged in the compiled automaton
+				if (expected != actual
+						|| CompiledFrenchTokenizerAutomaton.STATE_IDS[
+							reference.theCurrentState.ordinal()]
+						!= CompiledFrenchTokenizerAutomaton.STATE_IDS[
+							compiled.theCurrentState.ordinal()]) {
+					fail("Transition "+state+" x U+"+Integer.toHexString(c)
+							+" : expected "+reference.theCurrentState+"/"+expected
+							+" got "+compiled.theCurrentState+"/"+actual);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testFrozenClasses() {
+		// Between Unicode versions, code points get assigned but the assigned
+		// ones keep their class
+		for (int c = 0; c <= Character.MAX_CODE_POINT; c++) {
+			int jdk    = UnicodeClassTableGenerator.classify(c);
+			int frozen = UnicodeClassTable.classOf(c);
+			if (jdk != frozen && Character.isDefined(c)
+					&& frozen != CompiledFrenchTokenizerAutomaton.CLASS_OTHER) {
+				fail("U+"+Integer.toHexString(c)+" : frozen class "+frozen
+						+" but "+jdk+" in Unicode from the JDK");
+			}
+		}
+		assertTrue(UnicodeClassTable.size() < Character.MAX_VALUE + 1);
+	}
+
+	@Test
+	public void testSameTokensAsReference() {
+		String[] texts = new String[] {
+			tstSimpleWords, tstCompoundWords, tstSimpleNumbers,
+			tstComplexNumbers, tstPunctuations, tstAllTogether,
+			tstSupplementary
+		};
+		for (String text : texts) {
+			int[][] expected = tokens(new FrenchTokenizerAutomaton(), text);
+			assertArrayEquals(expected, tokens(newAutomaton(), text));
+			assertArrayEquals(expected, tokens(newAutomaton(), text.toCharArray()));
+		}
+	}
+
+	/**
+	 * Collect the tokens of the whole text.
+	 */
+	private static int[][] tokens(FrenchTokenizerAutomaton automaton,
+			Object text) {
+		final ArrayList<int[]> offsets = new ArrayList<int[]>();
+		TokenSink sink = new TokenSink() {
+			public void token(int begin, int end, TokenType type) {
+				offsets.add( new int[]{begin, end, type.ordinal()} );
+			}
+		};
+		if (text instanceof char[]) {
+			char[] chars = (char[]) text;
+			automaton.tokenize(chars, 0, chars.length, sink);
+		} else {
+			CharSequence chars = (CharSequence) text;
+			automaton.tokenize(chars, 0, chars.length(), sink);
+		}
+		return offsets.toArray( new int[offsets.size()][] );
+	}
+
+}
@@ -0,0 +1,146 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+// JUnit dependencies
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for the lazy tokens : the iterator, the streams and the split
+ * spliterators must give the tokens of the automaton, and the text must be
+ * read only as far as the tokens consumed.
+ */
+public class FrenchTokenSpliteratorTest {
+
+	private static final FrenchTokenizerEngine ENGINE =
+		FrenchTokenizerEngine.getInstance();
+
+	@Test
+	public void testIterator() {
+		String text = ParallelFrenchTokenizerTest.randomText(new Random(25),
+				50000);
+		List<Token> tokens = new ArrayList<Token>();
+		Iterator<Token> iterator = ENGINE.iterator(text);
+		while (iterator.hasNext())
+			tokens.add(iterator.next());
+		assertEquals(expected(text), tokens);
+	}
+
+	@Test
+	public void testSmallChunks() {
+		String text = ParallelFrenchTokenizerTest.randomText(new Random(52),
+				20000);
+		final List<Token> tokens = new ArrayList<Token>();
+		Spliterator<Token> spliterator = new FrenchTokenSpliterator(text, 0,
+				text.length(), 16);
+		Consumer<Token> add = new Consumer<Token>() {
+			public void accept(Token token) {
+				tokens.add(token);
+			}
+		};
+		// Half one at a time, the rest at once
+		for (int i = 0; i < 1000; i++)
+			assertTrue(spliterator.tryAdvance(add));
+		spliterator.forEachRemaining(add);
+		assertFalse(spliterator.tryAdvance(add));
+		assertEquals(expected(text), tokens);
+	}
+
+	@Test
+	public void testStreams() {
+		String text = ParallelFrenchTokenizerTest.randomText(new Random(250),
+				500000);
+		List<Token> expected = expected(text);
+		assertEquals(expected,
+				ENGINE.stream(text, false).collect(Collectors.toList()));
+		assertEquals(expected,
+				ENGINE.stream(text, true).collect(Collectors.toList()));
+		assertEquals(expected.subList(0, 100),
+				ENGINE.stream(text, true).limit(100)
+					.collect(Collectors.toList()));
+	}
+
+	@Test
+	public void testSplit() {
+		String text = ParallelFrenchTokenizerTest.randomText(new Random(205),
+				100000);
+		final List<Token> tokens = new ArrayList<Token>();
+		Consumer<Token> add = new Consumer<Token>() {
+			public void accept(Token token) {
+				tokens.add(token);
+			}
+		};
+		Spliterator<Token> suffix = new FrenchTokenSpliterator(text, 0,
+				text.length(), 1024);
+		// The tokens already tokenized go with the first half
+		for (int i = 0; i < 10; i++)
+			assertTrue(suffix.tryAdvance(add));
+		Spliterator<Token> prefix = suffix.trySplit();
+		assertNotNull(prefix);
+		Spliterator<Token> middle = suffix.trySplit();
+		assertNotNull(middle);
+		prefix.forEachRemaining(add);
+		middle.forEachRemaining(add);
+		suffix.forEachRemaining(add);
+		assertEquals(expected(text), tokens);
+		assertNull(new FrenchTokenSpliterator(text, 0, 100, 1024).trySplit());
+	}
+
+	@Test
+	public void testLaziness() {
+		final String text = ParallelFrenchTokenizerTest.randomText(
+				new Random(522), 1000000);
+		final int[] read = new int[1];
+		CharSequence watched = new CharSequence() {
+			public char charAt(int index) {
+				read[0] = Math.max(read[0], index);
+				return text.charAt(index);
+			}
+			public int length() {
+				return text.length();
+			}
+			public CharSequence subSequence(int start, int end) {
+				return text.subSequence(start, end);
+			}
+		};
+		assertEquals(expected(text).subList(0, 10),
+				ENGINE.stream(watched, false).limit(10)
+					.collect(Collectors.toList()));
+		assertTrue("Read up to " + read[0],
+				read[0] < FrenchTokenSpliterator.DEFAULT_CHUNK_SIZE * 2);
+	}
+
+	// PRIVATE METHODS ---------------------------------------------------------
+
+	private static List<Token> expected(String text) {
+		TokenOffsets offsets = new TokenOffsets();
+		new FrenchTokenizerAutomaton().tokenize(text, 0, text.length(),
+				offsets);
+		List<Token> tokens = new ArrayList<Token>(offsets.size());
+		for (int i = 0; i < offsets.size(); i++)
+			tokens.add(new Token(offsets.begin(i), offsets.end(i),
+					offsets.type(i)));
+		return tokens;
+	}
+}
@@ -0,0 +1,163 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// JUnit dependencies
+import static org.junit.Assert.*;
+import org.junit.Test;
+// Tested class dependencies
+import tddts.preprocessing.tokenizer.FrenchTokenizerAutomaton.Signal;
+
+/**
+ * Checks the tokenizer core does not allocate anything per char nor per
+ * token. The build fails as soon as a single byte is allocated while
+ * running over the text.
+ */
+public class FrenchTokenizerAllocationTest {
+
+	/** Text mixing every kind of transition of the automaton */
+	protected static final String SAMPLE =
+		"Le grille-pain, d'une valeur de 56,78€ (avec une réduction de 5 %), " +
+		"est heureux. Il grille des pains, des brioches, des tartines... " +
+		"Le CAC-40 a perdu 2,17%, le NASDAQ vaut 100.786 $ ; c-à-d qu’il " +
+		"est heureux aujourd'hui et qu'il s/o-1 l'a dit 12, 3 puis U2 « ok » ";
+
+	/** Number of times the sample is repeated */
+	private static final int REPEAT = 2000;
+
+	@Test
+	public void testReferenceAutomatonDoesNotAllocate() {
+		assertNoAllocation(new FrenchTokenizerAutomaton());
+	}
+
+	@Test
+	public void testCompiledAutomatonDoesNotAllocate() {
+		assertNoAllocation(new CompiledFrenchTokenizerAutomaton());
+	}
+
+	@Test
+	public void testReferenceTokenizeDoesNotAllocate() {
+		assertNoTokenizeAllocation(new FrenchTokenizerAutomaton());
+	}
+
+	@Test
+	public void testCompiledTokenizeDoesNotAllocate() {
+		assertNoTokenizeAllocation(new CompiledFrenchTokenizerAutomaton());
+	}
+
+	/**
+	 * Feed the automaton char by char and check the amount of bytes 
+	 * allocated per char is zero.
+	 */
+	protected void assertNoAllocation(final FrenchTokenizerAutomaton automaton) {
+		final char[] text = repeat(SAMPLE, REPEAT);
+		final int[] tokens = new int[1];
+		assertNoAllocation(text.length, tokens, new Runnable() {
+			public void run() {
+				tokens[0] = countTokens(automaton, text);
+			}
+		});
+	}
+
+	/**
+	 * Run the whole buffer tokenization and check the amount of bytes 
+	 * allocated per char is zero, for both the array and the sequence forms.
+	 */
+	protected void assertNoTokenizeAllocation(
+			final FrenchTokenizerAutomaton automaton) {
+		final char[] text = repeat(SAMPLE, REPEAT);
+		final String textString = new String(text);
+		final int[] tokens = new int[1];
+		final TokenSink counter = new TokenSink() {
+			public void token(int begin, int end, TokenType type) {
+				tokens[0]++;
+			}
+		};
+		assertNoAllocation(text.length, tokens, new Runnable() {
+			public void run() {
+				tokens[0] = 0;
+				automaton.tokenize(text, 0, text.length, counter);
+			}
+		});
+		assertNoAllocation(text.length, tokens, new Runnable() {
+			public void run() {
+				tokens[0] = 0;
+				automaton.tokenize(textString, 0, textString.length(), counter);
+			}
+		});
+	}
+
+	/**
+	 * Measure the code and check it did not allocate anything.
+	 */
+	private static void assertNoAllocation(int chars, int[] tokens,
+			Runnable code) {
+		AllocationMeter meter = new AllocationMeter();
+		if (!meter.isAvailable()) {
+			System.err.println("Allocation measurement not supported, skipped");
+			return;
+		}
+		long bytes = meter.measure(code, 5);
+		assertTrue(tokens[0] > 0);
+		double perChar = (double) bytes / chars;
+		assertEquals("Bytes allocated ("+bytes+" for "+chars+" chars, "
+				+perChar+" per char)", 0L, bytes);
+	}
+
+	/**
+	 * Drive the automaton over the text and count the tokens without keeping
+	 * them.
+	 */
+	private static int countTokens(FrenchTokenizerAutomaton automaton,
+			char[] text) {
+		int count = 0;
+		boolean inWord = false;
+		automaton.reset();
+		for (int i = 0; i < text.length; i++) {
+			Signal s = automaton.feedChar( text[i] );
+			switch(s) {
+			case start_word:
+				inWord = true;
+				break;
+			case end_word:
+			case end_word_prev:
+				count++;
+				inWord = false;
+				break;
+			case switch_word:
+			case switch_word_prev:
+				count++;
+				break;
+			case cancel_word:
+				inWord = false;
+				break;
+			}
+		}
+		if (inWord)
+			count++;
+		return count;
+	}
+
+	/**
+	 * Build a text made of several copies of the sample.
+	 */
+	private static char[] repeat(String sample, int times) {
+		StringBuilder sb = new StringBuilder(sample.length() * times);
+		for (int i = 0; i < times; i++)
+			sb.append(sample);
+		return sb.toString().toCharArray();
+	}
+
+}
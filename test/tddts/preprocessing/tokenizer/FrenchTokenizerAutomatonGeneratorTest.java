@@ -0,0 +1,142 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+// JUnit dependencies
+import static org.junit.Assert.*;
+import org.junit.Test;
+// Tested class dependencies
+import static tddts.preprocessing.tokenizer.CompiledFrenchTokenizerAutomaton.*;
+import tddts.preprocessing.tokenizer.FrenchTokenizerAutomaton.Signal;
+import tddts.preprocessing.tokenizer.FrenchTokenizerAutomaton.States;
+import tddts.preprocessing.tokenizer.FrenchTokenizerAutomatonGenerator.Specification;
+
+/**
+ * Test cases for the generator of the automaton tables : the specification
+ * must describe the reference automaton, and the tables in the sources must
+ * be the ones generated from it.
+ */
+public class FrenchTokenizerAutomatonGeneratorTest {
+
+	/** Generated tables in the sources */
+	private static final String TABLES =
+		"src/java/main/tddts/preprocessing/tokenizer/FrenchTokenizerTables.java";
+
+	@Test
+	public void testSpecificationOfTheReference() throws IOException {
+		Specification specification = FrenchTokenizerAutomatonGenerator.parse(
+				new File(FrenchTokenizerAutomatonGenerator.SPECIFICATION));
+		assertEquals(States.values().length, specification.names.size());
+		FrenchTokenizerAutomaton reference = new FrenchTokenizerAutomaton();
+		for (int state = 0; state < specification.names.size(); state++) {
+			States name = States.valueOf(specification.names.get(state));
+			assertEquals(FrenchTokenizerAutomaton.typeOf(name.ordinal()),
+					specification.types.get(state));
+			for (int cls = 0; cls < NB_CLASSES; cls++) {
+				reference.theCurrentState = name;
+				Signal expected = reference.feedChar(CLASS_REPRESENTATIVES[cls]);
+				int t = specification.transitions[(state << STATE_SHIFT) | cls];
+				assertEquals(name + " x " + CLASS_REPRESENTATIVES[cls],
+						reference.theCurrentState.name() + "/" + expected,
+						specification.names.get(t >>> NEXT_STATE_SHIFT) + "/"
+						+ SIGNALS[t & SIGNAL_MASK]);
+			}
+		}
+	}
+
+	@Test
+	public void testTablesUpToDate() throws IOException {
+		StringWriter generated = new StringWriter();
+		PrintWriter out = new PrintWriter(generated);
+		FrenchTokenizerAutomatonGenerator.generate(FrenchTokenizerAutomatonGenerator
+				.parse(new File(FrenchTokenizerAutomatonGenerator.SPECIFICATION))
+				.minimize(), out);
+		out.close();
+		assertEquals("Run FrenchTokenizerAutomatonGenerator after changing "
+				+ "the specification", read(new File(TABLES)),
+				generated.toString());
+	}
+
+	@Test
+	public void testMinimize() throws IOException {
+		Specification minimal = FrenchTokenizerAutomatonGenerator.parse(
+				new File(FrenchTokenizerAutomatonGenerator.SPECIFICATION))
+			.minimize();
+		// L6 (letters and digits) behaves as L4 (letters and a dash)
+		assertEquals(States.values().length - 1, minimal.names.size());
+		assertFalse(minimal.names.contains("L6"));
+		assertEquals(minimal.names.indexOf("L4"),
+				minimal.mergedInto[States.L6.ordinal()]);
+		assertEquals(minimal.names, minimal.minimize().names);
+	}
+
+	@Test
+	public void testInvalidSpecifications() throws IOException {
+		String header = "digraph A {\n null -> O0;\n O0 [ type = unknown ];\n";
+		// Ambiguous : Po is listed twice
+		assertInvalid(header
+				+ " O0 -> O0 [ label = \"{Po}/nop\" ];\n"
+				+ " O0 -> O0 [ label = \"{Po,Ps}/end_word\" ];\n"
+				+ " O0 -> O0 [ label = \"other/nop\" ];\n}\n");
+		// Incomplete : no transition for the letters
+		assertInvalid(header
+				+ " O0 -> O0 [ label = \"{Zl,Zp,Zs}/nop\" ];\n}\n");
+		// The apostrophes U+0027 and U+2019 share their class
+		assertInvalid(header
+				+ " O0 -> O0 [ label = \"{U+0027}/nop\" ];\n"
+				+ " O0 -> O0 [ label = \"other/nop\" ];\n}\n");
+		// U+00E9 has no class of its own
+		assertInvalid(header
+				+ " O0 -> O0 [ label = \"{U+00E9}/nop\" ];\n"
+				+ " O0 -> O0 [ label = \"other/nop\" ];\n}\n");
+		// Unknown state
+		assertInvalid(header
+				+ " O0 -> X0 [ label = \"other/nop\" ];\n}\n");
+	}
+
+	// PRIVATE METHODS ---------------------------------------------------------
+
+	private static void assertInvalid(String dot) throws IOException {
+		try {
+			FrenchTokenizerAutomatonGenerator.parse(new StringReader(dot));
+			fail("Invalid specification accepted :\n" + dot);
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+	}
+
+	private static String read(File file) throws IOException {
+		Reader in = new InputStreamReader(new FileInputStream(file), "UTF-8");
+		try {
+			StringBuilder content = new StringBuilder();
+			char[] buffer = new char[8192];
+			int n;
+			while ((n = in.read(buffer)) != -1)
+				content.append(buffer, 0, n);
+			return content.toString();
+		} finally {
+			in.close();
+		}
+	}
+}
@@ -19,8 +19,6 @@ import java.util.ArrayList;
 // JUnit dependencies
 import static org.junit.Assert.*;
 import org.junit.Test;
-// Tested class dependencies
-import tddts.preprocessing.tokenizer.FrenchTokenizerAutomaton.Signal;
 
 /**
  * Test cases for the French tokenizer automaton.
@@ -57,6 +55,12 @@ public class FrenchTokenizerAutomatonTest {
 		{28,33}, {35,38}, {40,48}
 	};
 	
+	protected final TokenType[] tstComplexNumbersTypes = new TokenType[] {
+		TokenType.word, TokenType.word, TokenType.word, TokenType.word,
+		TokenType.number, TokenType.punctuation, TokenType.word,
+		TokenType.word, TokenType.word, TokenType.number
+	};
+	
 	protected final String tstPunctuations =
 		"La punctuation, utilisée correctement, aère le texte. N'est-ce pas ?";
 	protected final int[][] tstPunctuationsOffsets = new int[][] {
@@ -75,6 +79,12 @@ public class FrenchTokenizerAutomatonTest {
 		{128,130}
 	};
 	
+	protected final String tstSupplementary =
+		"\uD835\uDC00\uD835\uDC01\uD835\uDC02 \uD83D\uDE00 ab\uD803\uDEAD x";
+	protected final int[][] tstSupplementaryOffsets = new int[][] {
+		{0,5}, {7,8}, {10,11}, {15,15}
+	};
+	
 	@Test
 	public void testSimpleWords() {
 		// Génération des résultats sur tstSimpleWords
@@ -107,6 +117,18 @@ public class FrenchTokenizerAutomatonTest {
 		assertArrayEquals(tstComplexNumbersOffsets, offsets);
 	}
 
+	@Test
+	public void tstTokenTypes() {
+		// The type comes from the states the token was built in
+		TokenOffsets tokens = new TokenOffsets();
+		newAutomaton().tokenize(tstComplexNumbers, 0, 
+				tstComplexNumbers.length(), tokens);
+		assertEquals(tstComplexNumbersTypes.length, tokens.size());
+		for (int i = 0; i < tokens.size(); i++) {
+			assertEquals(tstComplexNumbersTypes[i], tokens.type(i));
+		}
+	}
+
 	@Test
 	public void tstPunctuations() {
 		// Génération des résultats sur tstSimpleWords
@@ -115,6 +137,14 @@ public class FrenchTokenizerAutomatonTest {
 		assertArrayEquals(tstPunctuationsOffsets, offsets);
 	}
 	
+	@Test
+	public void tstSupplementary() {
+		// Mathematical letters, an emoji, a Yezidi hyphenation mark
+		int[][] offsets = runAutomaton(tstSupplementary);
+		assertEquals(tstSupplementaryOffsets.length, offsets.length);
+		assertArrayEquals(tstSupplementaryOffsets, offsets);
+	}
+	
 	@Test
 	public void tstAllTogether() {
 		// Génération des résultats sur tstSimpleWords
@@ -141,57 +171,26 @@ public class FrenchTokenizerAutomatonTest {
 		assertArrayEquals(tstAllTogetherOffsets, offsets);
 	}
 	
+	/**
+	 * Create the automaton under test.
+	 */
+	protected FrenchTokenizerAutomaton newAutomaton() {
+		return new FrenchTokenizerAutomaton();
+	}
+	
 	/**
 	 * Wrapper to run the automaton.
 	 */
-	private int[][] runAutomaton(String text) {
+	protected int[][] runAutomaton(String text) {
 		// Prepare the variables
-		ArrayList<int[]> offsets = new ArrayList<int[]>();
-		int begin = -1;
-		int end = -1;
-		FrenchTokenizerAutomaton automaton = new FrenchTokenizerAutomaton();
-		automaton.reset();
-		// Run over the string
-		for(int i=0 ; i<text.length() ; i++) {
-			Signal s = automaton.feedChar( text.charAt(i) );
-			switch(s) {
-			case start_word:
-				begin = i;
-				break;
-			case end_word:
-				end = i-1;
-				offsets.add( new int[]{begin, end} );
-				begin = -1;
-				end   = -1;
-				break;
-			case end_word_prev:
-				end = i-2;
-				offsets.add( new int[]{begin, end} );
-				begin = -1;
-				end   = -1;
-				break;
-			case switch_word:
-				end = i-1;
-				offsets.add( new int[]{begin, end} );
-				begin = i;
-				end   = -1;
-				break;
-			case switch_word_prev:
-				end = i-2;
-				offsets.add( new int[]{begin, end} );
-				begin = i;
-				end   = -1;
-				break;
-			case cancel_word:
-				begin = -1;
-				break;
+		final ArrayList<int[]> offsets = new ArrayList<int[]>();
+		FrenchTokenizerAutomaton automaton = newAutomaton();
+		// Run over the string, the fixtures use the offset of the last char
+		automaton.tokenize(text, 0, text.length(), new TokenSink() {
+			public void token(int begin, int end, TokenType type) {
+				offsets.add( new int[]{begin, end-1} );
 			}
-		}
-		// Add the last one
-		if (begin != -1) {
-			end = text.length()-1;
-			offsets.add( new int[]{begin, end} );
-		}
+		});
 		// Print the result -> debug
 		for(int[] off: offsets) {
 			System.out.println("{"+off[0]+","+off[1]+"} :- "+text.substring(off[0], off[1]+1));
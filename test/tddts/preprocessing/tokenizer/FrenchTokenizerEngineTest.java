@@ -0,0 +1,95 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+// JUnit dependencies
+import static org.junit.Assert.*;
+import org.junit.Test;
+// Tested class dependencies
+import tddts.preprocessing.tokenizer.FrenchTokenizerAutomaton.Signal;
+
+/**
+ * Test cases for the shared engine : driven step by step, it must send the
+ * signals of the reference automaton, and one instance must give the same
+ * tokens to several threads tokenizing at the same time.
+ */
+public class FrenchTokenizerEngineTest {
+
+	@Test
+	public void testSameSignalsAsReference() {
+		FrenchTokenizerEngine engine = FrenchTokenizerEngine.getInstance();
+		FrenchTokenizerAutomaton reference = new FrenchTokenizerAutomaton();
+		String text = ParallelFrenchTokenizerTest.randomText(new Random(16),
+				5000);
+		int state = engine.initialState();
+		for (int i = 0; i < text.length(); ) {
+			int c = text.codePointAt(i);
+			assertEquals(FrenchTokenizerAutomaton.typeOf(
+					reference.theCurrentState.ordinal()), engine.typeOf(state));
+			Signal expected = reference.feedCodePoint(c);
+			int transition = engine.step(state, c);
+			assertEquals(expected, FrenchTokenizerEngine.signal(transition));
+			state = FrenchTokenizerEngine.nextState(transition);
+			i += Character.charCount(c);
+		}
+	}
+
+	@Test
+	public void testConcurrentTokenization() throws Exception {
+		final FrenchTokenizerEngine engine = FrenchTokenizerEngine.getInstance();
+		Random random = new Random(61);
+		final String[] texts = new String[32];
+		final int[][] expected = new int[texts.length][];
+		for (int i = 0; i < texts.length; i++) {
+			texts[i] = ParallelFrenchTokenizerTest.randomText(random,
+					1000 + random.nextInt(20000));
+			TokenOffsets offsets = new TokenOffsets();
+			new FrenchTokenizerAutomaton().tokenize(texts[i], 0,
+					texts[i].length(), offsets);
+			expected[i] = offsets.toArray();
+		}
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+			for (int n = 0; n < 4; n++) {
+				results.add(pool.submit(new Callable<Boolean>() {
+					public Boolean call() {
+						for (int round = 0; round < 10; round++) {
+							for (int i = 0; i < texts.length; i++) {
+								TokenOffsets offsets = new TokenOffsets();
+								engine.tokenize(texts[i].toCharArray(), 0,
+										texts[i].length(), offsets);
+								assertArrayEquals(expected[i], offsets.toArray());
+							}
+						}
+						return Boolean.TRUE;
+					}
+				}));
+			}
+			for (Future<Boolean> result : results)
+				assertTrue(result.get());
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,318 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+// JUnit dependencies
+import static org.junit.Assert.*;
+import org.junit.Test;
+// UIMA dependencies
+import org.apache.uima.UIMAFramework;
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.analysis_engine.AnalysisEngineDescription;
+import org.apache.uima.analysis_engine.AnalysisEngineProcessException;
+import org.apache.uima.cas.CAS;
+import org.apache.uima.cas.FSIterator;
+import org.apache.uima.cas.Feature;
+import org.apache.uima.cas.Type;
+import org.apache.uima.cas.text.AnnotationFS;
+import org.apache.uima.resource.metadata.ConfigurationParameterSettings;
+import org.apache.uima.util.XMLInputSource;
+
+/**
+ * Test cases for the annotator, built from its descriptor : whatever the
+ * way the annotations are created and the views scanned, they must be the
+ * ones of the reference configuration.
+ */
+public class FrenchUnicodeTokenizerTest {
+
+	/** Descriptor of the annotator, in the classpath */
+	static final String DESCRIPTOR =
+		"/tddts/preprocessing/ae/FrenchUnicodeTokenizer-AE.xml";
+
+	/** Views of the concurrent tests */
+	private static final String[] VIEWS = new String[] {
+		CAS.NAME_DEFAULT_SOFA, "first", "second", "empty", "copy"
+	};
+
+	@Test
+	public void testLowLevelCasSameAnnotations() throws Exception {
+		String text = ParallelFrenchTokenizerTest.randomText(new Random(6),
+				20000);
+		for (boolean ids : new boolean[] { false, true }) {
+			List<String> expected = annotate(text,
+					"UseLowLevelCas", Boolean.FALSE,
+					"AssignTokenIds", Boolean.valueOf(ids));
+			List<String> annotations = annotate(text,
+					"UseLowLevelCas", Boolean.TRUE,
+					"AssignTokenIds", Boolean.valueOf(ids));
+			assertTrue(expected.size() > 1000);
+			assertEquals(expected, annotations);
+		}
+	}
+
+	@Test
+	public void testConcurrentViews() throws Exception {
+		Random random = new Random(7);
+		String[] texts = new String[] {
+			ParallelFrenchTokenizerTest.randomText(random, 30000),
+			ParallelFrenchTokenizerTest.randomText(random, 500),
+			ParallelFrenchTokenizerTest.randomText(random, 8000),
+			null,
+			// The same text as the first view, found in the cache
+			null
+		};
+		texts[4] = texts[0];
+		List<List<String>> expected = annotateViews(texts,
+				"Threads", Integer.valueOf(1));
+		assertEquals(0, expected.get(3).size());
+		assertEquals(annotateViews(texts,
+				"Threads", Integer.valueOf(4)), expected);
+		assertEquals(annotateViews(texts,
+				"Threads", Integer.valueOf(4),
+				"CacheSize", Integer.valueOf(1),
+				"CacheName", "FrenchUnicodeTokenizerTest"), expected);
+		assertEquals(annotateViews(texts,
+				"Threads", Integer.valueOf(4),
+				"AssignTokenIds", Boolean.TRUE), annotateViews(texts,
+				"Threads", Integer.valueOf(1),
+				"AssignTokenIds", Boolean.TRUE));
+	}
+
+	@Test
+	public void testConcurrentViewFailure() throws Exception {
+		AnalysisEngineDescription desc = description(
+				"SofaNames", VIEWS, "Threads", Integer.valueOf(4));
+		desc.setAnnotatorImplementationName(FailingTokenizer.class.getName());
+		AnalysisEngine engine = UIMAFramework.produceAnalysisEngine(desc);
+		try {
+			CAS cas = newCas(engine, new String[] { "Le chat dort.",
+					FailingTokenizer.FAILURE, "Le chien aussi.", null, "" });
+			try {
+				engine.process(cas);
+				fail("A view failed");
+			} catch (AnalysisEngineProcessException e) {
+				assertTrue(e.getCause() instanceof IllegalStateException);
+			}
+			// None of the views is annotated
+			for (String view : VIEWS)
+				assertEquals(0, annotations(cas.getView(view)).size());
+		} finally {
+			engine.destroy();
+		}
+	}
+
+	@Test
+	public void testNoTokenIds() throws Exception {
+		String text = ParallelFrenchTokenizerTest.randomText(new Random(24),
+				5000);
+		List<String> annotations = annotate(text,
+				"AssignTokenIds", Boolean.FALSE);
+		assertTrue(annotations.size() > 100);
+		for (String annotation : annotations)
+			assertTrue(annotation, annotation.endsWith(" -1"));
+	}
+
+	@Test
+	public void testSharedVocabulary() throws Exception {
+		Random random = new Random(24);
+		String first = ParallelFrenchTokenizerTest.randomText(random, 5000);
+		String second = ParallelFrenchTokenizerTest.randomText(random, 5000);
+		Object[] parameters = new Object[] {
+			"AssignTokenIds", Boolean.TRUE,
+			"VocabularyName", "FrenchUnicodeTokenizerTest"
+		};
+		AnalysisEngine engine = newEngine(parameters);
+		AnalysisEngine other = newEngine(parameters);
+		try {
+			// The id of each token text, whichever annotator found it
+			Map<String, Integer> ids = new HashMap<String, Integer>();
+			Set<Integer> distinct = new HashSet<Integer>();
+			// Each annotator meets the words of the other text first
+			String[] texts = new String[] { first, second, second, first };
+			AnalysisEngine[] annotators =
+				new AnalysisEngine[] { engine, other, engine, other };
+			for (int i = 0; i < texts.length; i++) {
+				CAS cas = annotators[i].newCAS();
+				cas.setDocumentText(texts[i]);
+				annotators[i].process(cas);
+				Feature tokenId = cas.getTypeSystem()
+					.getType(FrenchUnicodeTokenizer.TOKEN_NAME)
+					.getFeatureByBaseName(
+							FrenchUnicodeTokenizer.TOKEN_ID_FEAT_NAME);
+				for (AnnotationFS token : tokens(cas)) {
+					int id = token.getIntValue(tokenId);
+					assertTrue(id >= 0);
+					Integer known = ids.get(token.getCoveredText());
+					if (known == null) {
+						ids.put(token.getCoveredText(), Integer.valueOf(id));
+						// Two texts never share an id
+						assertTrue(distinct.add(Integer.valueOf(id)));
+					} else {
+						assertEquals(token.getCoveredText(),
+								known.intValue(), id);
+					}
+				}
+			}
+			assertTrue(ids.size() > 100);
+		} finally {
+			engine.destroy();
+			other.destroy();
+		}
+	}
+
+	// PRIVATE METHODS ---------------------------------------------------------
+
+	/**
+	 * Fails on a worker when tokenizing the texts starting with
+	 * {@link #FAILURE}.
+	 */
+	public static class FailingTokenizer extends FrenchUnicodeTokenizer {
+
+		static final String FAILURE = "Échec";
+
+		@Override
+		TokenOffsets scanView(String textContent) {
+			if (textContent.startsWith(FAILURE))
+				throw new IllegalStateException(FAILURE);
+			return super.scanView(textContent);
+		}
+	}
+
+	/**
+	 * @param parameters names and values of the parameters changed from the
+	 * descriptor, one after the other
+	 *
+	 * @return the description of the annotator, from its descriptor
+	 */
+	static AnalysisEngineDescription description(Object... parameters)
+			throws Exception {
+		XMLInputSource in = new XMLInputSource(
+				FrenchUnicodeTokenizerTest.class.getResource(DESCRIPTOR));
+		AnalysisEngineDescription desc =
+			UIMAFramework.getXMLParser().parseAnalysisEngineDescription(in);
+		ConfigurationParameterSettings settings =
+			desc.getAnalysisEngineMetaData().getConfigurationParameterSettings();
+		for (int i = 0; i < parameters.length; i += 2)
+			settings.setParameterValue((String) parameters[i], parameters[i + 1]);
+		return desc;
+	}
+
+	/**
+	 * @return the annotator built from the descriptor, with the given
+	 * parameters
+	 */
+	static AnalysisEngine newEngine(Object... parameters) throws Exception {
+		return UIMAFramework.produceAnalysisEngine(description(parameters));
+	}
+
+	/**
+	 * @return a CAS of the annotator holding a view for each text, without
+	 * text for the null ones
+	 */
+	private static CAS newCas(AnalysisEngine engine, String[] texts)
+			throws Exception {
+		CAS cas = engine.newCAS();
+		for (int i = 0; i < texts.length; i++) {
+			CAS view = i == 0 ? cas : cas.createView(VIEWS[i]);
+			if (texts[i] != null)
+				view.setDocumentText(texts[i]);
+		}
+		return cas;
+	}
+
+	/**
+	 * @return the annotations of each view, holding one of the texts, by an
+	 * annotator working on all of them with the given parameters
+	 */
+	private static List<List<String>> annotateViews(String[] texts,
+			Object... parameters) throws Exception {
+		Object[] all = new Object[parameters.length + 2];
+		all[0] = "SofaNames";
+		all[1] = VIEWS;
+		System.arraycopy(parameters, 0, all, 2, parameters.length);
+		AnalysisEngine engine = newEngine(all);
+		try {
+			CAS cas = newCas(engine, texts);
+			engine.process(cas);
+			List<List<String>> annotations = new ArrayList<List<String>>();
+			for (String view : VIEWS)
+				annotations.add(annotations(cas.getView(view)));
+			return annotations;
+		} finally {
+			engine.destroy();
+		}
+	}
+
+	/**
+	 * @return the annotations of the text by an annotator with the given
+	 * parameters
+	 */
+	private static List<String> annotate(String text, Object... parameters)
+			throws Exception {
+		AnalysisEngine engine = newEngine(parameters);
+		try {
+			CAS cas = engine.newCAS();
+			cas.setDocumentText(text);
+			engine.process(cas);
+			return annotations(cas);
+		} finally {
+			engine.destroy();
+		}
+	}
+
+	/**
+	 * @return the token annotations of a view, in the order of its
+	 * annotation index
+	 */
+	private static List<AnnotationFS> tokens(CAS view) {
+		Type type = view.getTypeSystem().getType(
+				FrenchUnicodeTokenizer.TOKEN_NAME);
+		List<AnnotationFS> tokens = new ArrayList<AnnotationFS>();
+		FSIterator<AnnotationFS> it = view.getAnnotationIndex(type).iterator();
+		while (it.hasNext())
+			tokens.add(it.next());
+		return tokens;
+	}
+
+	/**
+	 * @return the tokens of a view in the order of its annotation index,
+	 * each as its type, view, offsets, tokentype and tokenid
+	 */
+	static List<String> annotations(CAS view) {
+		Type type = view.getTypeSystem().getType(
+				FrenchUnicodeTokenizer.TOKEN_NAME);
+		Feature tokenType = type.getFeatureByBaseName(
+				FrenchUnicodeTokenizer.TOKEN_TYPE_FEAT_NAME);
+		Feature tokenId = type.getFeatureByBaseName(
+				FrenchUnicodeTokenizer.TOKEN_ID_FEAT_NAME);
+		List<String> annotations = new ArrayList<String>();
+		for (AnnotationFS annotation : tokens(view)) {
+			annotations.add(annotation.getType().getName() + " "
+					+ annotation.getView().getViewName() + " "
+					+ annotation.getBegin() + " " + annotation.getEnd() + " "
+					+ annotation.getIntValue(tokenType) + " "
+					+ annotation.getIntValue(tokenId));
+		}
+		return annotations;
+	}
+}
@@ -0,0 +1,120 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.util.Random;
+// JUnit dependencies
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for the incremental tokenizer : after any edit, the patched
+ * tokens must be the ones of the whole edited text, and only the region
+ * around the edit must be tokenized again.
+ */
+public class IncrementalFrenchTokenizerTest {
+
+	@Test
+	public void testRandomEdits() {
+		Random random = new Random(20);
+		CharGapBuffer text = new CharGapBuffer(
+				ParallelFrenchTokenizerTest.randomText(random, 2000));
+		TokenGapBuffer tokens = tokenize(text);
+		IncrementalFrenchTokenizer tokenizer = new IncrementalFrenchTokenizer();
+		for (int n = 0; n < 2000; n++) {
+			int offset = random.nextInt(text.length() + 1);
+			int deleted = random.nextInt(Math.min(8, text.length() - offset) + 1);
+			// A few chars, possibly cutting a fragment or a separator
+			String inserted = ParallelFrenchTokenizerTest.randomText(random, 1);
+			inserted = inserted.substring(0,
+					random.nextInt(Math.min(inserted.length(), 6) + 1));
+			tokenizer.edit(text, tokens, offset, deleted, inserted);
+			assertArrayEquals("Edit " + n, tokenize(text).toArray(),
+					tokens.toArray());
+		}
+	}
+
+	@Test
+	public void testEditAtTheEnds() {
+		CharGapBuffer text = new CharGapBuffer("Le chat dort.");
+		TokenGapBuffer tokens = tokenize(text);
+		IncrementalFrenchTokenizer tokenizer = new IncrementalFrenchTokenizer();
+		tokenizer.edit(text, tokens, 0, 0, "Ici, ");
+		tokenizer.edit(text, tokens, text.length(), 1, " et rêve de 12,5 souris.");
+		tokenizer.edit(text, tokens, 0, text.length(), "");
+		assertEquals(0, tokens.size());
+		tokenizer.edit(text, tokens, 0, 0, "l'été");
+		assertArrayEquals(tokenize(text).toArray(), tokens.toArray());
+	}
+
+	@Test
+	public void testLocalRegion() {
+		CharGapBuffer text = new CharGapBuffer(
+				ParallelFrenchTokenizerTest.randomText(new Random(2), 1000000));
+		TokenGapBuffer tokens = tokenize(text);
+		IncrementalFrenchTokenizer tokenizer = new IncrementalFrenchTokenizer();
+		int offset = text.length() / 2;
+		text.replace(offset, 0, "x");
+		int end = tokenizer.update(text, tokens, offset, 0, 1);
+		assertTrue(end - offset < 1000);
+		assertArrayEquals(tokenize(text).toArray(), tokens.toArray());
+	}
+
+	@Test
+	public void testKeystrokeCostIndependentOfLength() {
+		// Typing in the middle of the text, the gaps follow the cursor
+		long small = typingNanos(20000);
+		long large = typingNanos(4000000);
+		// Moving the chars and tokens after each keystroke would make the
+		// large text hundreds of times slower
+		assertTrue("20K chars: " + small + " ns, 4M chars: " + large + " ns",
+				large < 10 * small);
+	}
+
+	// PRIVATE METHODS ---------------------------------------------------------
+
+	/**
+	 * @return the best time, over a few runs, to type a few sentences in
+	 * the middle of a text of the given length
+	 */
+	private static long typingNanos(int length) {
+		String typed = ParallelFrenchTokenizerTest.randomText(new Random(5),
+				2000);
+		CharGapBuffer text = new CharGapBuffer(
+				ParallelFrenchTokenizerTest.randomText(new Random(4), length));
+		TokenGapBuffer tokens = tokenize(text);
+		IncrementalFrenchTokenizer tokenizer = new IncrementalFrenchTokenizer();
+		int cursor = text.length() / 2;
+		// The first edit brings the gaps to the cursor
+		tokenizer.edit(text, tokens, cursor, 0, " ");
+		long best = Long.MAX_VALUE;
+		for (int run = 0; run < 5; run++) {
+			long start = System.nanoTime();
+			for (int i = 0; i < typed.length(); i++)
+				tokenizer.edit(text, tokens, ++cursor, 0,
+						typed.subSequence(i, i + 1));
+			best = Math.min(best, System.nanoTime() - start);
+		}
+		assertArrayEquals(tokenize(text).toArray(), tokens.toArray());
+		return best;
+	}
+
+	private static TokenGapBuffer tokenize(CharSequence text) {
+		TokenOffsets offsets = new TokenOffsets();
+		new FrenchTokenizerAutomaton().tokenize(text, 0, text.length(), offsets);
+		return new TokenGapBuffer(offsets, text.length());
+	}
+}
@@ -0,0 +1,96 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.util.Random;
+// JUnit dependencies
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for the off-heap buffer : the tokens must be read back as
+ * written across the segments, and the segments shared without copy.
+ */
+public class OffHeapTokenBufferTest {
+
+	@Test
+	public void testSameTokensAcrossSegments() {
+		String text = ParallelFrenchTokenizerTest.randomText(new Random(23),
+				50000);
+		TokenOffsets expected = new TokenOffsets();
+		new CompiledFrenchTokenizerAutomaton()
+			.tokenize(text, 0, text.length(), expected);
+		OffHeapTokenBuffer buffer = new OffHeapTokenBuffer(100);
+		for (int round = 0; round < 2; round++) {
+			buffer.clear();
+			FrenchTokenizerEngine.getInstance()
+				.tokenize(text, 0, text.length(), buffer);
+			assertEquals(expected.size(), buffer.size());
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.begin(i), buffer.begin(i));
+				assertEquals(expected.end(i), buffer.end(i));
+				assertEquals(expected.type(i), buffer.type(i));
+			}
+			TokenOffsets replayed = new TokenOffsets();
+			buffer.replay(replayed);
+			assertArrayEquals(expected.toArray(), replayed.toArray());
+		}
+		// Segments of 64 tokens, kept when cleared
+		assertEquals((expected.size() + 63) / 64 * 64L * 12, buffer.allocated());
+		buffer.clear();
+		buffer.trim();
+		assertEquals(0, buffer.allocated());
+	}
+
+	@Test
+	public void testSegmentsShared() throws IOException {
+		OffHeapTokenBuffer buffer = new OffHeapTokenBuffer(4);
+		long base = 3L * Integer.MAX_VALUE;
+		for (int i = 0; i < 10; i++)
+			buffer.token(base + i * 10, base + i * 10 + i, TokenType.valueOf(i % 4));
+		ByteBuffer[] segments = buffer.segments();
+		assertEquals(3, segments.length);
+		assertEquals(2 * OffHeapTokenBuffer.TOKEN_SIZE, segments[2].remaining());
+		assertEquals(base + 90, segments[2].getLong(OffHeapTokenBuffer.TOKEN_SIZE));
+		assertEquals((9 << OffHeapTokenBuffer.TYPE_BITS) | 1,
+				segments[2].getInt(OffHeapTokenBuffer.TOKEN_SIZE + 8));
+		assertTrue(segments[0].isReadOnly());
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		buffer.writeTo(Channels.newChannel(out));
+		ByteBuffer written = ByteBuffer.wrap(out.toByteArray())
+			.order(ByteOrder.nativeOrder());
+		assertEquals(10 * OffHeapTokenBuffer.TOKEN_SIZE, written.capacity());
+		assertEquals(base + 50, written.getLong(5 * OffHeapTokenBuffer.TOKEN_SIZE));
+		assertEquals(base + 77, buffer.end(7));
+		OffHeapTokenBuffer copy = new OffHeapTokenBuffer(8);
+		buffer.replayLong(copy);
+		assertEquals(10, copy.size());
+		assertEquals(base + 77, copy.end(7));
+		copy.clear();
+		copy.trim();
+		try {
+			buffer.replay(new TokenOffsets());
+			fail("Offsets larger than an int");
+		} catch (IllegalStateException e) {
+			// Expected
+		}
+	}
+}
@@ -0,0 +1,91 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.util.Random;
+// JUnit dependencies
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for the fork/join tokenizer : it must find exactly the same
+ * tokens as the automaton run over the whole text.
+ */
+public class ParallelFrenchTokenizerTest {
+
+	/** Fragments the random texts are made of */
+	private static final String[] FRAGMENTS = new String[] {
+		"Le", "grille-pain", "d'une", "56,78€", "5 %", "2,17%", "100.786 $",
+		"c-à-d", "qu’il", "aujourd'hui", "CAC-40", "l'", "12.", "3,", "...",
+		"(", ")", "«", "»", "N'est-ce", "u", "s/o", "1 234", "\n", "x2", "-",
+		"ʼ", "Ⅻ", "€", "#", "\uD835\uDC00\uD835\uDC01c", "\uD83D\uDE00",
+		"ab\uD803\uDEAD"
+	};
+
+	/** Separators put between the fragments */
+	private static final String[] SEPARATORS = new String[] {
+		" ", " ", "  ", "", " ", " ", ", ", ". "
+	};
+
+	@Test
+	public void testSameTokensAsSequential() {
+		Random random = new Random(42);
+		for (int n = 0; n < 50; n++) {
+			String text = randomText(random, 200 + random.nextInt(5000));
+			for (int threshold = 2; threshold <= 512; threshold *= 4) {
+				assertSameTokens(text, new FrenchTokenizerAutomaton(), threshold);
+				assertSameTokens(text, new CompiledFrenchTokenizerAutomaton(),
+						threshold);
+			}
+		}
+	}
+
+	@Test
+	public void testSafePointsOnly() {
+		String text = "Le petit chat 40 2,5 3. se gratte";
+		int split = ParallelFrenchTokenizer.findSplit(text, 0, text.length());
+		assertTrue(split > 0);
+		assertTrue(Character.isLetter(text.charAt(split-2)));
+		assertTrue(Character.isSpaceChar(text.charAt(split-1)));
+		assertEquals(-1, ParallelFrenchTokenizer.findSplit("12 34 5,6 7.", 0, 12));
+	}
+
+	/**
+	 * Compare the tokens found by both ways.
+	 */
+	private static void assertSameTokens(String text,
+			FrenchTokenizerAutomaton automaton, int threshold) {
+		TokenOffsets expected = new TokenOffsets();
+		automaton.tokenize(text, 0, text.length(), expected);
+		TokenOffsets actual = new TokenOffsets();
+		new ParallelFrenchTokenizer(automaton, threshold)
+			.tokenize(text, 0, text.length(), actual);
+		assertArrayEquals(expected.toArray(), actual.toArray());
+	}
+
+	/**
+	 * Build a random text out of the fragments.
+	 */
+	static String randomText(Random random, int size) {
+		StringBuilder sb = new StringBuilder(size + 16);
+		while (sb.length() < size) {
+			sb.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+			sb.append(SEPARATORS[random.nextInt(SEPARATORS.length)]);
+		}
+		return sb.toString();
+	}
+
+}
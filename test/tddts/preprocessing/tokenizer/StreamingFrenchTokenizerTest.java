@@ -0,0 +1,67 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+// JUnit dependencies
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for the streaming tokenizer : whatever the size of the buffer,
+ * it must find the same tokens as the automaton run over the whole text.
+ */
+public class StreamingFrenchTokenizerTest {
+
+	@Test
+	public void testSameTokensWhateverTheBuffer() throws IOException {
+		assertSameTokensWhateverTheBuffer(
+				new CompiledFrenchTokenizerAutomaton());
+	}
+
+	@Test
+	public void testReferenceAutomatonWhateverTheBuffer() throws IOException {
+		// Fed code point by code point instead of through the engine
+		assertSameTokensWhateverTheBuffer(new FrenchTokenizerAutomaton());
+	}
+
+	private void assertSameTokensWhateverTheBuffer(
+			FrenchTokenizerAutomaton automaton) throws IOException {
+		Random random = new Random(7);
+		for (int n = 0; n < 20; n++) {
+			String text = ParallelFrenchTokenizerTest.randomText(random, 
+					100 + random.nextInt(3000));
+			TokenOffsets expected = new TokenOffsets();
+			new CompiledFrenchTokenizerAutomaton()
+				.tokenize(text, 0, text.length(), expected);
+			for (int size = 1; size <= 4096; size = size * 3 + 1) {
+				final TokenOffsets actual = new TokenOffsets();
+				long read = new StreamingFrenchTokenizer(
+						automaton.newInstance(), size)
+					.tokenize(new StringReader(text), new LongTokenSink() {
+						public void token(long begin, long end, TokenType type) {
+							actual.token((int) begin, (int) end, type);
+						}
+					});
+				assertEquals(text.length(), read);
+				assertArrayEquals(expected.toArray(), actual.toArray());
+			}
+		}
+	}
+
+}
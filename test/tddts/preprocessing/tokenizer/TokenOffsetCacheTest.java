@@ -0,0 +1,167 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.io.File;
+import java.util.Random;
+// JUnit dependencies
+import static org.junit.Assert.*;
+import org.junit.Test;
+// Tested class dependencies
+import tddts.preprocessing.tokenizer.TokenOffsetCache.Key;
+
+/**
+ * Test cases for the cache of tokens : keys of the texts, eviction of the
+ * least recently used tokens and disk tier.
+ */
+public class TokenOffsetCacheTest {
+
+	@Test
+	public void testKeys() {
+		String text = ParallelFrenchTokenizerTest.randomText(new Random(21), 1000);
+		assertEquals(Key.of(text), Key.of(new StringBuilder(text)));
+		assertEquals(Key.of(text).hashCode(), Key.of(text + "").hashCode());
+		for (int i = 0; i < text.length(); i += 7) {
+			StringBuilder changed = new StringBuilder(text);
+			changed.setCharAt(i, (char) (text.charAt(i) + 1));
+			assertFalse(Key.of(text).equals(Key.of(changed)));
+		}
+		assertFalse(Key.of("").equals(Key.of("\0")));
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEvicted() {
+		String[] texts = new String[4];
+		long size = 0;
+		for (int i = 0; i < texts.length; i++) {
+			texts[i] = ParallelFrenchTokenizerTest.randomText(new Random(i), 1000);
+			if (i < 3)
+				size += 160 + 9 * tokenize(texts[i]).size();
+		}
+		// Room for the first three texts only
+		TokenOffsetCache cache = new TokenOffsetCache(size, null, 0);
+		for (int i = 0; i < 3; i++) {
+			assertNull(cache.get(Key.of(texts[i])));
+			cache.put(Key.of(texts[i]), tokenize(texts[i]));
+		}
+		assertNotNull(cache.get(Key.of(texts[0])));
+		cache.put(Key.of(texts[3]), tokenize(texts[3]));
+		assertTrue(cache.getEvictionCount() > 0);
+		assertTrue(cache.getSize() <= cache.getMaxSize());
+		// The first text was used more recently than the second one
+		assertNotNull(cache.get(Key.of(texts[0])));
+		assertNull(cache.get(Key.of(texts[1])));
+		assertArrayEquals(tokenize(texts[3]).toArray(),
+				cache.get(Key.of(texts[3])).toArray());
+		assertEquals(3, cache.getHitCount());
+		assertEquals(4, cache.getMissCount());
+	}
+
+	@Test
+	public void testDiskTier() throws Exception {
+		File directory = File.createTempFile("tokens", "");
+		directory.delete();
+		String text = ParallelFrenchTokenizerTest.randomText(new Random(5), 5000);
+		TokenOffsets expected = tokenize(text);
+		try {
+			new TokenOffsetCache(1 << 20, directory, 1 << 20)
+				.put(Key.of(text), expected);
+			// Not in memory anymore, but on disk
+			TokenOffsetCache cache = new TokenOffsetCache(1 << 20, directory,
+					1 << 20);
+			assertArrayEquals(expected.toArray(),
+					cache.get(Key.of(text)).toArray());
+			assertEquals(1, cache.getDiskHitCount());
+			assertEquals(1, cache.getEntryCount());
+			assertNull(cache.get(Key.of(text + " ")));
+			assertEquals(1, cache.getMissCount());
+		} finally {
+			delete(directory);
+		}
+	}
+
+	@Test
+	public void testOtherTablesDeleted() throws Exception {
+		File directory = File.createTempFile("tokens", "");
+		directory.delete();
+		String text = ParallelFrenchTokenizerTest.randomText(new Random(6), 1000);
+		try {
+			new TokenOffsetCache(1 << 20, directory, 1 << 20)
+				.put(Key.of(text), tokenize(text));
+			// The same file, as if written before the rules were regenerated
+			File[] files = directory.listFiles();
+			assertEquals(1, files.length);
+			String current = String.format("%016x", TokenOffsetCache.TABLES_HASH);
+			File stale = new File(directory, files[0].getName().replace(current,
+					String.format("%016x", TokenOffsetCache.TABLES_HASH + 1)));
+			assertTrue(files[0].renameTo(stale));
+			TokenOffsetCache cache = new TokenOffsetCache(1 << 20, directory,
+					1 << 20);
+			assertFalse(stale.exists());
+			assertEquals(0, cache.getDiskSize());
+			assertNull(cache.get(Key.of(text)));
+		} finally {
+			delete(directory);
+		}
+	}
+
+	@Test
+	public void testDiskTierBounded() throws Exception {
+		File directory = File.createTempFile("tokens", "");
+		directory.delete();
+		String[] texts = new String[8];
+		long fileSize = 0;
+		for (int i = 0; i < texts.length; i++) {
+			texts[i] = ParallelFrenchTokenizerTest.randomText(new Random(i), 1000);
+			fileSize = Math.max(fileSize, 20 + 9 * tokenize(texts[i]).size());
+		}
+		try {
+			// Room on disk for about four texts, none in memory
+			TokenOffsetCache cache = new TokenOffsetCache(0, directory,
+					4 * fileSize);
+			for (int i = 0; i < texts.length; i++) {
+				cache.put(Key.of(texts[i]), tokenize(texts[i]));
+				assertTrue(cache.getDiskSize() <= cache.getMaxDiskSize());
+			}
+			long total = 0;
+			for (File file : directory.listFiles())
+				total += file.length();
+			assertEquals(cache.getDiskSize(), total);
+			assertTrue(directory.listFiles().length < texts.length);
+			// The last text written is kept
+			assertNotNull(cache.get(Key.of(texts[texts.length - 1])));
+		} finally {
+			delete(directory);
+		}
+	}
+
+	// PRIVATE METHODS ---------------------------------------------------------
+
+	private static void delete(File directory) {
+		File[] files = directory.listFiles();
+		if (files != null)
+			for (File file : files)
+				file.delete();
+		directory.delete();
+	}
+
+	private static TokenOffsets tokenize(String text) {
+		TokenOffsets offsets = new TokenOffsets();
+		new CompiledFrenchTokenizerAutomaton()
+			.tokenize(text, 0, text.length(), offsets);
+		return offsets;
+	}
+}
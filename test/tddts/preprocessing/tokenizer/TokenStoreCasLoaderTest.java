@@ -0,0 +1,73 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.io.File;
+import java.util.List;
+import java.util.Random;
+// JUnit dependencies
+import static org.junit.Assert.*;
+import org.junit.Test;
+// UIMA dependencies
+import org.apache.uima.analysis_engine.AnalysisEngine;
+import org.apache.uima.cas.CAS;
+
+/**
+ * Test cases for the loading of a token store into a CAS : the annotations
+ * must be the ones the annotator creates on the same text.
+ */
+public class TokenStoreCasLoaderTest {
+
+	@Test
+	public void testSameAnnotationsAsAnnotator() throws Exception {
+		Random random = new Random(22);
+		String[] texts = new String[] {
+			ParallelFrenchTokenizerTest.randomText(random, 20000),
+			"",
+			ParallelFrenchTokenizerTest.randomText(random, 3000)
+		};
+		File file = File.createTempFile("tokens", ".tks");
+		file.deleteOnExit();
+		TokenStoreWriter writer = new TokenStoreWriter(file);
+		for (int i = 0; i < texts.length; i++) {
+			TokenOffsets offsets = new TokenOffsets();
+			new CompiledFrenchTokenizerAutomaton()
+				.tokenize(texts[i], 0, texts[i].length(), offsets);
+			writer.add("doc-" + i, offsets);
+		}
+		writer.close();
+		AnalysisEngine engine = FrenchUnicodeTokenizerTest.newEngine();
+		TokenStoreReader reader = new TokenStoreReader(file);
+		try {
+			TokenStoreCasLoader loader = new TokenStoreCasLoader(reader);
+			CAS cas = engine.newCAS();
+			// In the store order and not, through the same loader
+			for (int i : new int[] { 2, 0, 1 }) {
+				cas.reset();
+				cas.setDocumentText(texts[i]);
+				engine.process(cas);
+				List<String> expected = FrenchUnicodeTokenizerTest.annotations(cas);
+				cas.reset();
+				cas.setDocumentText(texts[i]);
+				assertEquals(expected.size(), loader.load(i, cas));
+				assertEquals(expected, FrenchUnicodeTokenizerTest.annotations(cas));
+			}
+		} finally {
+			reader.close();
+			engine.destroy();
+		}
+	}
+}
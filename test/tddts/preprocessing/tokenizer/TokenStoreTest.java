@@ -0,0 +1,197 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+// JUnit dependencies
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for the binary token store : the tokens of any document must
+ * be read back as written, in any order, in a few bytes per token.
+ */
+public class TokenStoreTest {
+
+	@Test
+	public void testRandomAccess() throws IOException {
+		Random random = new Random(22);
+		TokenOffsets[] documents = new TokenOffsets[50];
+		File file = File.createTempFile("tokens", ".tks");
+		file.deleteOnExit();
+		TokenStoreWriter writer = new TokenStoreWriter(file);
+		int nbTokens = 0;
+		for (int i = 0; i < documents.length; i++) {
+			// Some documents are empty
+			String text = ParallelFrenchTokenizerTest.randomText(random,
+					i % 10 == 0 ? 0 : random.nextInt(20000));
+			documents[i] = new TokenOffsets();
+			new CompiledFrenchTokenizerAutomaton()
+				.tokenize(text, 0, text.length(), documents[i]);
+			nbTokens += documents[i].size();
+			assertEquals(i, writer.add("doc-" + i + "-été", documents[i]));
+		}
+		writer.close();
+		assertTrue(file.length() < 4L * nbTokens);
+		TokenStoreReader reader = new TokenStoreReader(file);
+		try {
+			assertEquals(documents.length, reader.size());
+			for (int i = documents.length - 1; i >= 0; i--) {
+				assertEquals("doc-" + i + "-été", reader.getName(i));
+				assertArrayEquals(documents[i].toArray(),
+						reader.read(i).toArray());
+			}
+			assertEquals(7, reader.indexOf("doc-7-été"));
+			assertEquals(-1, reader.indexOf("doc-50"));
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void testNameLargerThanBuffer() throws IOException {
+		StringBuilder name = new StringBuilder();
+		while (name.length() < 100000)
+			name.append("nom-très-long-");
+		File file = File.createTempFile("tokens", ".tks");
+		file.deleteOnExit();
+		TokenStoreWriter writer = new TokenStoreWriter(file);
+		writer.startDocument("court");
+		writer.token(0, 4, TokenType.word);
+		writer.startDocument(name.toString());
+		writer.token(2, 5, TokenType.number);
+		writer.startDocument("court aussi");
+		writer.close();
+		TokenStoreReader reader = new TokenStoreReader(file);
+		try {
+			assertEquals(3, reader.size());
+			assertEquals("court", reader.getName(0));
+			assertEquals(name.toString(), reader.getName(1));
+			assertEquals("court aussi", reader.getName(2));
+			assertArrayEquals(new int[] { 2, 5, TokenType.number.ordinal() },
+					reader.read(1).toArray());
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void testLongOffsets() throws IOException {
+		File file = File.createTempFile("tokens", ".tks");
+		file.deleteOnExit();
+		TokenStoreWriter writer = new TokenStoreWriter(file);
+		writer.startDocument(null);
+		writer.token(0, 1, TokenType.word);
+		writer.token(1000000, 1000000, TokenType.unknown);
+		writer.token(Integer.MAX_VALUE - 3, Integer.MAX_VALUE, TokenType.number);
+		writer.close();
+		TokenStoreReader reader = new TokenStoreReader(file);
+		try {
+			assertEquals("", reader.getName(0));
+			assertArrayEquals(new int[] { 0, 1, 0, 1000000, 1000000, 3,
+					Integer.MAX_VALUE - 3, Integer.MAX_VALUE, 1 },
+					reader.read(0).toArray());
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void testBeyondInts() throws IOException {
+		File file = File.createTempFile("tokens", ".tks");
+		file.deleteOnExit();
+		TokenStoreWriter writer = new TokenStoreWriter(file);
+		writer.startDocument("small");
+		writer.token(2, 5, TokenType.word);
+		writer.startDocument("large");
+		writer.token(Integer.MAX_VALUE - 1L, Integer.MAX_VALUE + 2L,
+				TokenType.word);
+		writer.token(1L << 40, (1L << 40) + 7, TokenType.number);
+		writer.close();
+		TokenStoreReader reader = new TokenStoreReader(file);
+		try {
+			assertArrayEquals(new int[] { 2, 5, 0 }, reader.read(0).toArray());
+			final TokenOffsets offsets = new TokenOffsets();
+			final long[] longs = new long[6];
+			assertEquals(2, reader.readLong(1, new LongTokenSink() {
+				int n;
+				public void token(long begin, long end, TokenType type) {
+					longs[n++] = begin;
+					longs[n++] = end;
+				}
+			}));
+			assertArrayEquals(new long[] { Integer.MAX_VALUE - 1L,
+					Integer.MAX_VALUE + 2L, 1L << 40, (1L << 40) + 7, 0, 0 },
+					longs);
+			try {
+				reader.read(1, offsets);
+				fail("Offsets beyond ints");
+			} catch (IllegalStateException e) {
+				// Expected
+			}
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void testSegments() throws IOException {
+		Random random = new Random(23);
+		TokenOffsets[] documents = new TokenOffsets[20];
+		File file = File.createTempFile("tokens", ".tks");
+		file.deleteOnExit();
+		TokenStoreWriter writer = new TokenStoreWriter(file);
+		for (int i = 0; i < documents.length; i++) {
+			String text = ParallelFrenchTokenizerTest.randomText(random,
+					random.nextInt(2000));
+			documents[i] = new TokenOffsets();
+			new CompiledFrenchTokenizerAutomaton()
+				.tokenize(text, 0, text.length(), documents[i]);
+			writer.add("doc-" + i, documents[i]);
+		}
+		writer.close();
+		// Segments of 64 bytes : tokens, index entries and names across them
+		TokenStoreReader reader = new TokenStoreReader(file, 6);
+		try {
+			assertEquals(documents.length, reader.size());
+			for (int i = 0; i < documents.length; i++) {
+				assertEquals("doc-" + i, reader.getName(i));
+				assertArrayEquals(documents[i].toArray(),
+						reader.read(i).toArray());
+			}
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void testNotAStore() throws IOException {
+		File file = File.createTempFile("tokens", ".tks");
+		file.deleteOnExit();
+		FileOutputStream out = new FileOutputStream(file);
+		out.write(new byte[64]);
+		out.close();
+		try {
+			new TokenStoreReader(file);
+			fail("Not a store");
+		} catch (IOException e) {
+			// Expected
+		}
+	}
+}
@@ -0,0 +1,152 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Random;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+// JUnit dependencies
+import static org.junit.Assert.*;
+import org.junit.Test;
+// Tested class dependencies
+import tddts.preprocessing.tokenizer.FrenchTokenizerAutomaton.Signal;
+import tddts.preprocessing.tokenizer.FrenchTokenizerAutomaton.States;
+
+/**
+ * Test cases for the metrics : striped counters updated by several threads,
+ * sampled signals and states, percentiles of the processing times and
+ * publication through JMX.
+ */
+public class TokenizerMetricsTest {
+
+	@Test
+	public void testStripedCounters() throws InterruptedException {
+		final StripedCounters counters = new StripedCounters(3, 4);
+		Thread[] threads = new Thread[8];
+		for (int n = 0; n < threads.length; n++) {
+			threads[n] = new Thread() {
+				public void run() {
+					for (int i = 0; i < 100000; i++) {
+						counters.add(0, 1);
+						counters.add(1, new int[] { 2, 3 });
+					}
+				}
+			};
+			threads[n].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		assertEquals(800000, counters.get(0));
+		assertEquals(1600000, counters.get(1));
+		assertEquals(2400000, counters.get(2));
+		counters.reset();
+		assertEquals(0, counters.get(1));
+	}
+
+	@Test
+	public void testSampleCountsAsReference() {
+		String text = ParallelFrenchTokenizerTest.randomText(new Random(19),
+				5000);
+		FrenchTokenizerAutomaton reference = new FrenchTokenizerAutomaton();
+		long[] signals = new long[Signal.values().length];
+		long[] visits = new long[States.values().length];
+		for (int i = 0; i < text.length(); ) {
+			int c = text.codePointAt(i);
+			visits[reference.theCurrentState.ordinal()]++;
+			signals[reference.feedCodePoint(c).ordinal()]++;
+			i += Character.charCount(c);
+		}
+		TokenizerMetrics metrics = new TokenizerMetrics();
+		assertEquals("none", metrics.getSampledAutomaton());
+		metrics.sample(text, new FrenchTokenizerAutomaton());
+		metrics.sample(text, new FrenchTokenizerAutomaton());
+		assertEquals(2, metrics.getSampledDocumentCount());
+		assertEquals(2 * text.length(), metrics.getSampledCharCount());
+		assertEquals("reference", metrics.getSampledAutomaton());
+		for (Signal signal : Signal.values())
+			assertEquals(signal.name(), 2 * signals[signal.ordinal()],
+					metrics.getSampledSignalCounts().get(signal.name())
+					.longValue());
+		Map<String, Long> stateVisits = metrics.getSampledStateVisits();
+		for (States state : States.values())
+			assertEquals(state.name(), 2 * visits[state.ordinal()],
+					stateVisits.get(state.name()).longValue());
+		assertTrue(stateVisits.get("L6") > 0);
+	}
+
+	@Test
+	public void testSampleCountsMergedStates() {
+		String text = ParallelFrenchTokenizerTest.randomText(new Random(19),
+				5000);
+		TokenizerMetrics reference = new TokenizerMetrics();
+		reference.sample(text, new FrenchTokenizerAutomaton());
+		TokenizerMetrics compiled = new TokenizerMetrics();
+		compiled.sample(text, new CompiledFrenchTokenizerAutomaton());
+		assertEquals("compiled", compiled.getSampledAutomaton());
+		assertEquals(reference.getSampledSignalCounts(),
+				compiled.getSampledSignalCounts());
+		// The visits of a merged state go to the first of the states merged
+		long[] expected = new long[States.values().length];
+		for (States state : States.values())
+			expected[CompiledFrenchTokenizerAutomaton.STATES[
+					CompiledFrenchTokenizerAutomaton.STATE_IDS[state.ordinal()]]
+					.ordinal()] += reference.getSampledStateVisits()
+					.get(state.name());
+		for (States state : States.values())
+			assertEquals(state.name(), expected[state.ordinal()],
+					compiled.getSampledStateVisits().get(state.name())
+					.longValue());
+		compiled.sample(text, new FrenchTokenizerAutomaton());
+		assertEquals("compiled and reference", compiled.getSampledAutomaton());
+	}
+
+	@Test
+	public void testPercentiles() {
+		for (long nanos = 0; nanos < 100000; nanos += 7)
+			assertTrue(TokenizerMetrics.upperBound(TokenizerMetrics.bucket(nanos))
+					>= nanos);
+		TokenizerMetrics metrics = new TokenizerMetrics();
+		for (int i = 1; i <= 1000; i++)
+			metrics.document(10, 2, i * 1000L);
+		assertEquals(1000, metrics.getDocumentCount());
+		assertEquals(10000, metrics.getCharCount());
+		assertEquals(2000, metrics.getTokenCount());
+		assertEquals(500.5, metrics.getProcessingTimeMean(), 1e-9);
+		// Within the 12.5% of the buckets
+		assertEquals(500, metrics.getProcessingTimeP50(), 500 * 0.125);
+		assertEquals(990, metrics.getProcessingTimeP99(), 990 * 0.125);
+		assertTrue(metrics.getProcessingTimeP50() >= 500);
+		metrics.reset();
+		assertEquals(0, metrics.getProcessingTimeP90(), 0);
+	}
+
+	@Test
+	public void testPublished() throws Exception {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		TokenizerMetrics first = TokenizerMetrics.acquire("test");
+		TokenizerMetrics second = TokenizerMetrics.acquire("test");
+		assertSame(first, second);
+		ObjectName name = first.getObjectName();
+		first.document(42, 7, 1000);
+		assertEquals(Long.valueOf(7), server.getAttribute(name, "TokenCount"));
+		first.release();
+		assertTrue(server.isRegistered(name));
+		second.release();
+		assertFalse(server.isRegistered(name));
+	}
+}
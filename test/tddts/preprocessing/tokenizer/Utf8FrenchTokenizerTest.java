@@ -0,0 +1,155 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.nio.charset.Charset;
+import java.util.Random;
+// JUnit dependencies
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for the UTF-8 automaton : it must find the same tokens as the
+ * char automaton run over the decoded text, at the matching byte offsets.
+ */
+public class Utf8FrenchTokenizerTest {
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/** Code points mixed with the random texts, on one to four bytes */
+	private static final int[] CODE_POINTS = new int[] {
+		'a', ' ', '\'', 0xE9, 0x02BC, 0x00A0, 0x2019, 0x20AC, 0x4E2D, 0x3000,
+		0x1D400, 0x1F600, 0x10FFFF, 0xFFFD, 0x0660
+	};
+
+	@Test
+	public void testFixtures() {
+		FrenchTokenizerAutomatonTest fixtures = new FrenchTokenizerAutomatonTest();
+		assertSameTokens(fixtures.tstSimpleWords);
+		assertSameTokens(fixtures.tstCompoundWords);
+		assertSameTokens(fixtures.tstSimpleNumbers);
+		assertSameTokens(fixtures.tstComplexNumbers);
+		assertSameTokens(fixtures.tstPunctuations);
+		assertSameTokens(fixtures.tstAllTogether);
+	}
+
+	@Test
+	public void testRandomCorpus() {
+		Random random = new Random(8);
+		for (int n = 0; n < 200; n++) {
+			StringBuilder sb = new StringBuilder(
+					ParallelFrenchTokenizerTest.randomText(random,
+							100 + random.nextInt(2000)));
+			for (int k = random.nextInt(50); k > 0; k--) {
+				int at = random.nextInt(sb.length() + 1);
+				// Never cut an existing surrogate pair
+				if (at > 0 && Character.isHighSurrogate(sb.charAt(at - 1)))
+					at--;
+				sb.insert(at, Character.toChars(
+						CODE_POINTS[random.nextInt(CODE_POINTS.length)]));
+			}
+			assertSameTokens(sb.toString());
+		}
+	}
+
+	@Test
+	public void testLongRuns() {
+		Random random = new Random(14);
+		// Runs of lower case letters, upper case letters, digits and spaces
+		String runs = "aA0 ";
+		for (int n = 0; n < 500; n++) {
+			StringBuilder sb = new StringBuilder();
+			for (int k = random.nextInt(40); k > 0; k--) {
+				char c = runs.charAt(random.nextInt(runs.length()));
+				for (int r = random.nextInt(20); r > 0; r--)
+					sb.append(c == ' ' ? c : (char) (c + random.nextInt(c == '0' ? 10 : 26)));
+				sb.appendCodePoint(random.nextInt(3) == 0
+						? CODE_POINTS[random.nextInt(CODE_POINTS.length)]
+						: runs.charAt(random.nextInt(runs.length())));
+			}
+			String text = sb.toString();
+			TokenOffsets reference = new TokenOffsets();
+			TokenOffsets compiled = new TokenOffsets();
+			new FrenchTokenizerAutomaton()
+				.tokenize(text, 0, text.length(), reference);
+			new CompiledFrenchTokenizerAutomaton()
+				.tokenize(text.toCharArray(), 0, text.length(), compiled);
+			assertArrayEquals(reference.toArray(), compiled.toArray());
+			assertSameTokens(text);
+		}
+	}
+
+	@Test
+	public void testMalformedBytes() {
+		Random random = new Random(9);
+		for (int n = 0; n < 2000; n++) {
+			byte[] bytes = new byte[random.nextInt(40)];
+			for (int i = 0; i < bytes.length; i++) {
+				// Mostly bytes which are special in UTF-8, some ASCII
+				bytes[i] = (byte) (random.nextInt(4) == 0
+						? "a '.,%0-".charAt(random.nextInt(8))
+						: 0x80 + random.nextInt(128));
+			}
+			String text = new String(bytes, UTF8);
+			TokenOffsets expected = new TokenOffsets();
+			new CompiledFrenchTokenizerAutomaton()
+				.tokenize(text, 0, text.length(), expected);
+			final TokenOffsets actual = new TokenOffsets();
+			int chars = new Utf8FrenchTokenizer().tokenize(bytes, 0,
+					bytes.length, new Utf8TokenSink() {
+						public void token(int byteBegin, int byteEnd,
+								int charBegin, int charEnd, TokenType type) {
+							actual.token(charBegin, charEnd, type);
+						}
+					});
+			assertEquals(text.length(), chars);
+			assertArrayEquals(expected.toArray(), actual.toArray());
+		}
+	}
+
+	/**
+	 * Compare the tokens found in the UTF-8 encoding of a text, placed in
+	 * the middle of an array, with the tokens found in the text.
+	 */
+	private static void assertSameTokens(final String text) {
+		TokenOffsets expected = new TokenOffsets();
+		new CompiledFrenchTokenizerAutomaton()
+			.tokenize(text, 0, text.length(), expected);
+		byte[] encoded = text.getBytes(UTF8);
+		byte[] bytes = new byte[encoded.length + 6];
+		System.arraycopy(encoded, 0, bytes, 3, encoded.length);
+		final TokenOffsets actual = new TokenOffsets();
+		int chars = new Utf8FrenchTokenizer().tokenize(bytes, 3,
+				3 + encoded.length, new Utf8TokenSink() {
+					public void token(int byteBegin, int byteEnd,
+							int charBegin, int charEnd, TokenType type) {
+						assertEquals(byteOffset(text, charBegin), byteBegin - 3);
+						assertEquals(byteOffset(text, charEnd), byteEnd - 3);
+						actual.token(charBegin, charEnd, type);
+					}
+				});
+		assertEquals(text.length(), chars);
+		assertArrayEquals(expected.toArray(), actual.toArray());
+	}
+
+	/**
+	 * @return the offset in the UTF-8 encoding of the text of a char
+	 */
+	private static int byteOffset(String text, int charOffset) {
+		return text.substring(0, charOffset).getBytes(UTF8).length;
+	}
+
+}
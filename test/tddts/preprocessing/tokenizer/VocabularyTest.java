@@ -0,0 +1,147 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer;
+
+// Java dependencies
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+// JUnit dependencies
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/**
+ * Test cases for the vocabulary : the ids must be dense and stable, give
+ * back the chars of their token, survive the growth of the table, and be the
+ * same for all the threads sharing the vocabulary, which is dropped once
+ * its last user releases it.
+ */
+public class VocabularyTest {
+
+	@Test
+	public void testAcquireRelease() {
+		Vocabulary first = Vocabulary.acquire("test");
+		Vocabulary second = Vocabulary.acquire("test");
+		assertSame(first, second);
+		assertEquals(0, first.id("chat", 0, 4));
+		first.release();
+		assertSame(second, Vocabulary.acquire("test"));
+		second.release();
+		second.release();
+		// Dropped once no one uses it
+		Vocabulary third = Vocabulary.acquire("test");
+		assertNotSame(first, third);
+		assertEquals(0, third.size());
+		third.release();
+	}
+
+	@Test
+	public void testIds() {
+		Vocabulary vocabulary = new Vocabulary();
+		String text = "le chat et le chien et le chat";
+		assertEquals(0, vocabulary.id(text, 0, 2));
+		assertEquals(1, vocabulary.id(text, 3, 7));
+		assertEquals(2, vocabulary.id(text, 8, 10));
+		assertEquals(0, vocabulary.id(text, 11, 13));
+		assertEquals(3, vocabulary.id(text, 14, 19));
+		assertEquals(1, vocabulary.id(text, 26, 30));
+		assertEquals(4, vocabulary.size());
+		assertEquals("chien", vocabulary.word(3));
+		assertEquals(-1, vocabulary.lookup("chats", 0, 5));
+		assertEquals(4, vocabulary.size());
+	}
+
+	@Test
+	public void testGrowth() {
+		Vocabulary vocabulary = new Vocabulary(8);
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 10000; i++)
+			text.append("mot").append(i).append(' ');
+		int begin = 0;
+		for (int i = 0; i < 10000; i++) {
+			int end = text.indexOf(" ", begin);
+			assertEquals(i, vocabulary.id(text, begin, end));
+			begin = end + 1;
+		}
+		assertEquals(10000, vocabulary.size());
+		for (int i = 0; i < 10000; i++) {
+			String word = "mot" + i;
+			assertEquals(word, vocabulary.word(i));
+			assertEquals(i, vocabulary.lookup(word, 0, word.length()));
+		}
+	}
+
+	@Test
+	public void testTokenSink() {
+		final Vocabulary vocabulary = new Vocabulary();
+		final String text = "Il est là, il est ici.";
+		final List<String> words = new ArrayList<String>();
+		FrenchTokenizerEngine.getInstance().tokenize(text, 0, text.length(),
+				new VocabularyTokenSink(vocabulary, text, new TokenIdSink() {
+					public void token(int begin, int end, TokenType type,
+							int id) {
+						assertEquals(text.substring(begin, end),
+								vocabulary.word(id));
+						words.add(vocabulary.word(id));
+					}
+				}));
+		assertEquals(8, words.size());
+		assertEquals(vocabulary.lookup("est", 0, 3),
+				vocabulary.lookup(text, 14, 17));
+		assertEquals(7, vocabulary.size());
+	}
+
+	@Test
+	public void testConcurrentIds() throws Exception {
+		final Vocabulary vocabulary = new Vocabulary(16);
+		final String text = ParallelFrenchTokenizerTest.randomText(
+				new Random(24), 200000);
+		final TokenOffsets offsets = new TokenOffsets();
+		FrenchTokenizerEngine.getInstance().tokenize(text, 0, text.length(),
+				offsets);
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			List<Future<int[]>> results = new ArrayList<Future<int[]>>();
+			for (int n = 0; n < 4; n++) {
+				final int first = n * offsets.size() / 4;
+				results.add(pool.submit(new Callable<int[]>() {
+					public int[] call() {
+						// Each thread starts at its own token, to race on the
+						// additions
+						int[] ids = new int[offsets.size()];
+						for (int k = 0; k < ids.length; k++) {
+							int i = (first + k) % ids.length;
+							ids[i] = vocabulary.id(text, offsets.begin(i),
+									offsets.end(i));
+						}
+						return ids;
+					}
+				}));
+			}
+			int[] expected = results.get(0).get();
+			for (Future<int[]> result : results)
+				assertArrayEquals(expected, result.get());
+			for (int i = 0; i < offsets.size(); i++)
+				assertEquals(text.substring(offsets.begin(i), offsets.end(i)),
+						vocabulary.word(expected[i]));
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
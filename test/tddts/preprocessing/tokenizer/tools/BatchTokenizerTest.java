@@ -0,0 +1,90 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer.tools;
+
+// Java dependencies
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+// JUnit dependencies
+import static org.junit.Assert.*;
+import org.junit.Test;
+// UIMA dependencies
+import org.apache.uima.util.XMLInputSource;
+// Tokenizer dependencies
+import tddts.preprocessing.tokenizer.CompiledFrenchTokenizerAutomaton;
+import tddts.preprocessing.tokenizer.TokenOffsets;
+
+/**
+ * Test cases for the batch tool : several threads sharing fewer CAS than
+ * documents must annotate all the tokens of all the documents.
+ */
+public class BatchTokenizerTest {
+
+	/** Words with chars encoded on one to four bytes */
+	private static final String[] WORDS = { "le", "l'été", "12,5", "%",
+		"aujourd'hui", "中文", "𝐀bc", "-", "3.", "Œuvre" };
+
+	@Test
+	public void testAllDocumentsTokenized() throws Exception {
+		Random random = new Random(17);
+		File dir = File.createTempFile("batch", "");
+		dir.delete();
+		dir.mkdir();
+		dir.deleteOnExit();
+		long expected = 0;
+		for (int n = 0; n < 20; n++) {
+			StringBuilder builder = new StringBuilder();
+			for (int i = random.nextInt(2000); i > 0; i--) {
+				builder.append(WORDS[random.nextInt(WORDS.length)]);
+				builder.append(random.nextInt(5) == 0 ? "\n" : " ");
+			}
+			String text = builder.toString();
+			write(new File(dir, "doc" + n + ".txt"), text);
+			TokenOffsets offsets = new TokenOffsets();
+			new CompiledFrenchTokenizerAutomaton()
+				.tokenize(text, 0, text.length(), offsets);
+			expected += offsets.size();
+		}
+		List<File> files = new ArrayList<File>();
+		BatchTokenizer.collect(dir, files);
+		assertEquals(20, files.size());
+		BatchTokenizer batch = new BatchTokenizer(new XMLInputSource(
+				BatchTokenizer.class.getResource(BatchTokenizer.DESCRIPTOR)), 4, 2);
+		try {
+			batch.run(files);
+		} finally {
+			batch.destroy();
+		}
+		assertEquals(20, batch.getDocumentCount());
+		assertEquals(expected, batch.getTokenCount());
+	}
+
+	// PRIVATE METHODS ---------------------------------------------------------
+
+	private static void write(File file, String text) throws IOException {
+		file.deleteOnExit();
+		OutputStream out = new FileOutputStream(file);
+		try {
+			out.write(text.getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+	}
+}
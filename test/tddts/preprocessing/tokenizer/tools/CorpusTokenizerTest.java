@@ -0,0 +1,79 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer.tools;
+
+// Java dependencies
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+// JUnit dependencies
+import static org.junit.Assert.*;
+import org.junit.Test;
+// Tokenizer dependencies
+import tddts.preprocessing.tokenizer.CompiledFrenchTokenizerAutomaton;
+import tddts.preprocessing.tokenizer.LongTokenSink;
+import tddts.preprocessing.tokenizer.TokenOffsets;
+import tddts.preprocessing.tokenizer.TokenType;
+
+/**
+ * Test cases for the corpus tool : the chars of a mapped file, whatever the
+ * size of the regions and of the buffer, must give the same tokens as the
+ * decoded text.
+ */
+public class CorpusTokenizerTest {
+
+	/** Words with chars encoded on one to four bytes */
+	private static final String[] WORDS = { "le", "l'été", "12,5", "%",
+		"aujourd'hui", "中文", "𝐀bc", "-", "3.", "Œuvre" };
+
+	@Test
+	public void testSameTokensWhateverTheRegions() throws IOException {
+		Random random = new Random(11);
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 500; i++) {
+			builder.append(WORDS[random.nextInt(WORDS.length)]);
+			builder.append(random.nextInt(5) == 0 ? "\n" : " ");
+		}
+		String text = builder.toString();
+		File file = File.createTempFile("corpus", ".txt");
+		file.deleteOnExit();
+		OutputStream out = new FileOutputStream(file);
+		try {
+			out.write(text.getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+		TokenOffsets expected = new TokenOffsets();
+		new CompiledFrenchTokenizerAutomaton()
+			.tokenize(text, 0, text.length(), expected);
+		for (int region = 4; region <= 4096; region = region * 3 + 1) {
+			for (int size = 1; size <= 1024; size = size * 5 + 2) {
+				final TokenOffsets actual = new TokenOffsets();
+				long read = new CorpusTokenizer(
+						new CompiledFrenchTokenizerAutomaton(), size, region)
+					.tokenize(file, new LongTokenSink() {
+						public void token(long begin, long end, TokenType type) {
+							actual.token((int) begin, (int) end, type);
+						}
+					});
+				assertEquals(text.length(), read);
+				assertArrayEquals(expected.toArray(), actual.toArray());
+			}
+		}
+	}
+
+}
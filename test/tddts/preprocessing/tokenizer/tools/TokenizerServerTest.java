@@ -0,0 +1,231 @@
+/* This file is licensed to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package tddts.preprocessing.tokenizer.tools;
+
+// Java dependencies
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+// JUnit dependencies
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+// Tokenizer dependencies
+import tddts.preprocessing.tokenizer.FrenchTokenizerAutomaton;
+import tddts.preprocessing.tokenizer.TokenOffsets;
+
+/**
+ * Test cases for the tokenization service : in JSON or in binary, the
+ * answers must hold the tokens of the reference automaton.
+ */
+public class TokenizerServerTest {
+
+	/**
+	 * Largest text accepted by the server under test, small enough for the
+	 * HTTP server to drain the rest of a refused text : beyond 64 KB, it
+	 * closes the connection, which may be reset before the client reads
+	 * the 413.
+	 */
+	private static final int MAX_TEXT_BYTES = 16 * 1024;
+
+	private TokenizerServer server;
+
+	private URL url;
+
+	@Before
+	public void startServer() throws Exception {
+		server = new TokenizerServer(new InetSocketAddress(
+				InetAddress.getLoopbackAddress(), 0), MAX_TEXT_BYTES);
+		server.start();
+		url = new URL("http://localhost:" + server.getPort()
+				+ TokenizerServer.PATH);
+	}
+
+	@After
+	public void stopServer() {
+		server.stop(0);
+	}
+
+	@Test
+	public void testJson() throws Exception {
+		String text = "L'été, c'est 12,5 %.";
+		assertEquals(json(expected(text)),
+				new String(post(url, text), "UTF-8"));
+	}
+
+	@Test
+	public void testConcurrentBinaryRequests() throws Exception {
+		final URL binaryUrl = new URL(url + "?format=binary");
+		Random random = new Random(81);
+		ExecutorService clients = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<int[]>> answers = new ArrayList<Future<int[]>>();
+			List<int[]> expected = new ArrayList<int[]>();
+			for (int n = 0; n < 64; n++) {
+				final String text = TokenizerLoadClient.text(random,
+						n % 8 == 0 ? 5000 : random.nextInt(900));
+				expected.add(expected(text));
+				answers.add(clients.submit(new Callable<int[]>() {
+					public int[] call() throws Exception {
+						ByteBuffer answer = ByteBuffer.wrap(post(binaryUrl, text));
+						int[] tokens = new int[answer.getInt() * 3];
+						for (int i = 0; i < tokens.length; i++)
+							tokens[i] = answer.getInt();
+						assertFalse(answer.hasRemaining());
+						return tokens;
+					}
+				}));
+			}
+			for (int n = 0; n < answers.size(); n++)
+				assertArrayEquals(expected.get(n), answers.get(n).get());
+		} finally {
+			clients.shutdown();
+		}
+	}
+
+	@Test
+	public void testBatch() throws Exception {
+		Random random = new Random(18);
+		String[] texts = new String[] { "L'été, c'est 12,5 %.", "",
+				TokenizerLoadClient.text(random, 3000), "« Œuvre »",
+				TokenizerLoadClient.text(random, 200) };
+		// JSON : an array of the answers to each text
+		StringBuilder json = new StringBuilder("[");
+		for (int i = 0; i < texts.length; i++) {
+			json.append(i > 0 ? "," : "")
+				.append(new String(post(url, texts[i]), "UTF-8"));
+		}
+		assertEquals(json.append(']').toString(), new String(post(
+				new URL(url + "?batch=true"),
+				TokenizerLoadClient.batch(texts)), "UTF-8"));
+		// Binary : the number of texts, then the answers to each text
+		URL binaryUrl = new URL(url + "?format=binary");
+		ByteBuffer answer = ByteBuffer.wrap(post(
+				new URL(url + "?batch=true&format=binary"),
+				TokenizerLoadClient.batch(texts)));
+		assertEquals(texts.length, answer.getInt());
+		for (String text : texts) {
+			byte[] single = post(binaryUrl, text);
+			byte[] block = new byte[single.length];
+			answer.get(block);
+			assertArrayEquals(single, block);
+		}
+		assertFalse(answer.hasRemaining());
+	}
+
+	@Test
+	public void testMalformedBatch() throws Exception {
+		byte[] batch = TokenizerLoadClient.batch("Le chat.", "Le chien.");
+		HttpURLConnection connection = (HttpURLConnection) new URL(
+				url + "?batch=true").openConnection();
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		// The length of the last text goes past the end of the body
+		assertEquals(400, send(connection,
+				Arrays.copyOf(batch, batch.length - 1)));
+	}
+
+	@Test
+	public void testTooLargeText() throws Exception {
+		byte[] text = new byte[MAX_TEXT_BYTES + 1];
+		Arrays.fill(text, (byte) 'a');
+		// Refused on its Content-Length
+		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		connection.setFixedLengthStreamingMode(text.length);
+		assertEquals(413, send(connection, text));
+		// Refused once read, without any Content-Length
+		connection = (HttpURLConnection) url.openConnection();
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		connection.setChunkedStreamingMode(4096);
+		assertEquals(413, send(connection, text));
+	}
+
+	@Test
+	public void testOnlyPost() throws Exception {
+		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		assertEquals(405, connection.getResponseCode());
+	}
+
+	// PRIVATE METHODS ---------------------------------------------------------
+
+	private static int[] expected(String text) {
+		TokenOffsets offsets = new TokenOffsets();
+		new FrenchTokenizerAutomaton().tokenize(text, 0, text.length(), offsets);
+		return offsets.toArray();
+	}
+
+	private static String json(int[] tokens) {
+		StringBuilder json = new StringBuilder("{\"tokens\":[");
+		for (int i = 0; i < tokens.length; i++)
+			json.append(i > 0 ? "," : "").append(tokens[i]);
+		return json.append("]}").toString();
+	}
+
+	/**
+	 * @return the status of the answer, the server may have closed the
+	 * connection before the whole text is sent
+	 */
+	private static int send(HttpURLConnection connection, byte[] text)
+			throws Exception {
+		try {
+			OutputStream out = connection.getOutputStream();
+			out.write(text);
+			out.close();
+		} catch (IOException e) {
+			// Answered before the end of the text
+		}
+		return connection.getResponseCode();
+	}
+
+	private static byte[] post(URL url, String text) throws Exception {
+		return post(url, text.getBytes("UTF-8"));
+	}
+
+	private static byte[] post(URL url, byte[] body) throws Exception {
+		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		OutputStream out = connection.getOutputStream();
+		out.write(body);
+		out.close();
+		assertEquals(200, connection.getResponseCode());
+		InputStream in = connection.getInputStream();
+		ByteArrayOutputStream answer = new ByteArrayOutputStream();
+		byte[] buffer = new byte[8192];
+		int n;
+		while ((n = in.read(buffer)) != -1)
+			answer.write(buffer, 0, n);
+		in.close();
+		return answer.toByteArray();
+	}
+}